@@ -0,0 +1,19 @@
+package com.suxiaoshuai.callback;
+
+import com.suxiaoshuai.util.httpclient.HttpCircuitState;
+
+/**
+ * 熔断器状态变化的回调接口
+ */
+public interface CircuitBreakerCallback {
+
+    /**
+     * 熔断器状态变化时回调，在触发变化的请求线程上同步执行，不宜执行耗时操作
+     *
+     * @param profile 客户端配置名称
+     * @param host    host
+     * @param from    变化前状态
+     * @param to      变化后状态
+     */
+    void onStateTransition(String profile, String host, HttpCircuitState from, HttpCircuitState to);
+}
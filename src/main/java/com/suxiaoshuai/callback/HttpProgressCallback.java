@@ -0,0 +1,16 @@
+package com.suxiaoshuai.callback;
+
+/**
+ * HTTP 请求体上传进度的回调接口
+ */
+public interface HttpProgressCallback {
+
+    /**
+     * 请求体每写出一段数据后回调，在发送请求的线程上同步执行，不宜执行耗时操作；
+     * 请求被重试时从 0 重新计数
+     *
+     * @param bytesWritten  已写出字节数
+     * @param contentLength 请求体总字节数，未知时为 -1
+     */
+    void onProgress(long bytesWritten, long contentLength);
+}
@@ -18,7 +18,7 @@ public interface HttpUtilCallback {
     /**
      * HTTP 请求失败的回调方法
      *
-     * @param call     HTTP 请求的 Call 对象
+     * @param call     HTTP 请求的 Call 对象，请求未能发出（如地址非法）时为 null
      * @param errorMsg 错误信息
      */
     void fail(Call call, String errorMsg);
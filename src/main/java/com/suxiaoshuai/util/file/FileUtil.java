@@ -4,6 +4,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 /**
  * 文件操作工具类
@@ -20,6 +27,11 @@ public class FileUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(FileUtil.class);
 
+    /**
+     * 单次通道传输的最大字节数
+     */
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+
     /**
      * 保存文件到本地
      *
@@ -28,37 +40,38 @@ public class FileUtil {
      * @throws IOException IO异常
      */
     public static void saveFileToLocalPath(String saveFilePath, InputStream inputStream) throws IOException {
-        BufferedInputStream bufferedInputStream = null;
-        OutputStream fileOutputStream = null;
+        try (ReadableByteChannel source = Channels.newChannel(inputStream)) {
+            saveFileToLocalPath(Paths.get(saveFilePath), source);
+        }
+    }
+
+    /**
+     * 保存文件到本地
+     * 通过 {@link FileChannel#transferFrom} 分段写入，不在堆上缓存整个文件，内存占用与文件大小无关
+     *
+     * @param saveFilePath 文件本地保存路径，父目录不存在时自动创建，文件已存在时覆盖
+     * @param source       数据来源通道，由调用方负责关闭
+     * @return 写入的字节数
+     * @throws IOException IO异常
+     */
+    public static long saveFileToLocalPath(Path saveFilePath, ReadableByteChannel source) throws IOException {
         try {
-            //*****************************************
-            // 创建文件
-            File file = new File(saveFilePath);
-            if (!file.exists()) {
-                if (!file.getParentFile().exists()) {
-                    file.getParentFile().mkdirs();
-                }
-                file.createNewFile();
+            Path parent = saveFilePath.toAbsolutePath().getParent();
+            if (parent != null && !Files.exists(parent)) {
+                Files.createDirectories(parent);
             }
-            fileOutputStream = new FileOutputStream(file);
-            // 获取网络输入流
-            bufferedInputStream = new BufferedInputStream(inputStream);
-            byte[] buf = new byte[1024];
-            int size = 0;
-            // 保存文件
-            while ((size = bufferedInputStream.read(buf)) != -1) {
-                fileOutputStream.write(buf, 0, size);
+            try (FileChannel fileChannel = FileChannel.open(saveFilePath, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long position = 0;
+                long size;
+                // 阻塞通道读到流末尾时 transferFrom 返回 0
+                while ((size = fileChannel.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                    position += size;
+                }
+                return position;
             }
-            //*****************************************
         } catch (Exception e) {
-            throw new RuntimeException("保存文件到本地发生异常");
-        } finally {
-            if (null != bufferedInputStream) {
-                bufferedInputStream.close();
-            }
-            if (null != fileOutputStream) {
-                fileOutputStream.close();
-            }
+            throw new RuntimeException("保存文件到本地发生异常", e);
         }
     }
 
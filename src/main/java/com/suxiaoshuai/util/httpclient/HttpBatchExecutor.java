@@ -0,0 +1,213 @@
+package com.suxiaoshuai.util.httpclient;
+
+import com.suxiaoshuai.exception.SxsToolsException;
+import com.suxiaoshuai.util.string.StringUtil;
+import okhttp3.HttpUrl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * 批量请求执行器
+ * <p>
+ * JDK 支持虚拟线程时（21+）每个请求使用一个虚拟线程，否则退化为大小不超过并发上限的平台线程池。
+ * 并发由两级信号量控制：批次整体不超过 maxConcurrency，单个配置下的单个 host 不超过 perHostLimit，
+ * 避免一个批次占满连接池；请求先取得 host 许可再取得全局许可，慢 host 的排队请求不占用全局额度
+ *
+ * @author sxs
+ */
+class HttpBatchExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpBatchExecutor.class);
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor，JDK 不支持虚拟线程时为 null
+     */
+    private static final Method VIRTUAL_EXECUTOR_FACTORY = findVirtualExecutorFactory();
+
+    private HttpBatchExecutor() {
+    }
+
+    /**
+     * 并发执行一批请求，结果按入参顺序返回
+     *
+     * @param specs          请求列表
+     * @param maxConcurrency 批次整体并发上限
+     * @param perHostLimit   单 host 并发上限，按请求描述计算，同一配置下同一 host 取首个请求的计算结果
+     * @param executor       单个请求的执行逻辑，入参为下标与请求描述
+     * @return 请求结果列表，与入参顺序一致
+     */
+    static List<HttpBatchResult> execute(List<HttpRequestSpec> specs, int maxConcurrency,
+                                         ToIntFunction<HttpRequestSpec> perHostLimit,
+                                         BiFunction<Integer, HttpRequestSpec, HttpBatchResult> executor) {
+        if (maxConcurrency <= 0) {
+            throw new SxsToolsException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        List<HttpBatchResult> results = new ArrayList<>(specs.size());
+        if (specs.isEmpty()) {
+            return results;
+        }
+        Semaphore global = new Semaphore(maxConcurrency);
+        Map<String, HostLane> lanes = new ConcurrentHashMap<>();
+        ExecutorService pool = newExecutor(Math.min(maxConcurrency, specs.size()));
+        try {
+            List<Future<HttpBatchResult>> futures = new ArrayList<>(specs.size());
+            for (int i = 0; i < specs.size(); i++) {
+                int index = i;
+                HttpRequestSpec spec = specs.get(i);
+                HostLane lane;
+                try {
+                    lane = lanes.computeIfAbsent(hostKey(spec), k -> new HostLane(pool,
+                            Math.max(1, Math.min(maxConcurrency, perHostLimit.applyAsInt(spec)))));
+                } catch (Exception e) {
+                    futures.add(CompletableFuture.completedFuture(new HttpBatchResult(index, spec, -1, null, e)));
+                    continue;
+                }
+                CompletableFuture<HttpBatchResult> future = new CompletableFuture<>();
+                futures.add(future);
+                lane.submit(() -> {
+                    try {
+                        // 持有 host 许可后才占用全局许可，排队等待热点 host 的请求不会挤占其他 host 的并发额度
+                        global.acquire();
+                        try {
+                            future.complete(executor.apply(index, spec));
+                        } finally {
+                            global.release();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        future.completeExceptionally(e);
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(await(futures.get(i), i, specs.get(i)));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * 当前 JDK 是否支持虚拟线程
+     *
+     * @return 支持返回 true
+     */
+    static boolean isVirtualThreadSupported() {
+        return VIRTUAL_EXECUTOR_FACTORY != null;
+    }
+
+    private static HttpBatchResult await(Future<HttpBatchResult> future, int index, HttpRequestSpec spec) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new HttpBatchResult(index, spec, -1, null, e);
+        } catch (ExecutionException e) {
+            return new HttpBatchResult(index, spec, -1, null, e.getCause());
+        }
+    }
+
+    /**
+     * 创建执行器，支持虚拟线程时每个任务一个虚拟线程，否则为固定大小的平台守护线程池
+     *
+     * @param platformThreads 不支持虚拟线程时的线程数
+     * @return 执行器，使用完毕后需关闭
+     */
+    static ExecutorService newExecutor(int platformThreads) {
+        if (VIRTUAL_EXECUTOR_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invoke(null);
+            } catch (Exception e) {
+                logger.warn("create virtual thread executor error, fall back to platform threads", e);
+            }
+        }
+        AtomicInteger index = new AtomicInteger();
+        return Executors.newFixedThreadPool(platformThreads, r -> {
+            Thread thread = new Thread(r, "sxs-okhttp-worker-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 单个 host 的请求队列：取得 host 许可的请求才提交到线程池，其余在队列中等待，
+     * 不会阻塞线程池中的线程；请求结束时先释放全局许可，再释放 host 许可并调度队列中的下一个
+     */
+    private static final class HostLane {
+        private final ExecutorService pool;
+        private final Semaphore permits;
+        private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+        private HostLane(ExecutorService pool, int limit) {
+            this.pool = pool;
+            this.permits = new Semaphore(limit);
+        }
+
+        private void submit(Runnable task) {
+            pending.add(task);
+            drain();
+        }
+
+        private void drain() {
+            // 入队与释放许可并发时，由任意一方重新检查队列，避免任务滞留
+            while (!pending.isEmpty() && permits.tryAcquire()) {
+                Runnable task = pending.poll();
+                if (task == null) {
+                    permits.release();
+                    continue;
+                }
+                try {
+                    pool.execute(() -> {
+                        try {
+                            task.run();
+                        } finally {
+                            permits.release();
+                            drain();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // 批次已结束，线程池关闭
+                    permits.release();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static Method findVirtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static String hostKey(HttpRequestSpec spec) {
+        HttpUrl url = spec == null || spec.getUrl() == null ? null : HttpUrl.parse(spec.getUrl());
+        // 未指定配置与显式指定默认配置使用同一个客户端，共用同一个 host 并发配额
+        String profile = spec == null || StringUtil.isBlank(spec.getProfile()) ? HttpClientRegistry.DEFAULT_PROFILE
+                : spec.getProfile();
+        return profile + "|" + (url == null ? "" : url.host() + ":" + url.port());
+    }
+}
@@ -0,0 +1,99 @@
+package com.suxiaoshuai.util.httpclient;
+
+/**
+ * 批量请求中单个请求的结果
+ * 每个请求独立记录成功与否，单个请求失败不影响同批次其他请求
+ *
+ * @author sxs
+ */
+public class HttpBatchResult {
+
+    /**
+     * 请求在批次中的下标
+     */
+    private final int index;
+    /**
+     * 请求描述
+     */
+    private final HttpRequestSpec spec;
+    /**
+     * HTTP 状态码，请求未得到响应时为 -1
+     */
+    private final int statusCode;
+    /**
+     * 响应内容
+     */
+    private final String body;
+    /**
+     * 请求异常，请求得到响应时为 null
+     */
+    private final Throwable error;
+
+    HttpBatchResult(int index, HttpRequestSpec spec, int statusCode, String body, Throwable error) {
+        this.index = index;
+        this.spec = spec;
+        this.statusCode = statusCode;
+        this.body = body;
+        this.error = error;
+    }
+
+    /**
+     * 获取请求在批次中的下标
+     *
+     * @return 下标，与入参列表顺序一致
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * 获取请求描述
+     *
+     * @return 请求描述
+     */
+    public HttpRequestSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * 获取 HTTP 状态码
+     *
+     * @return HTTP 状态码，请求未得到响应时为 -1
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 获取响应内容
+     *
+     * @return 响应内容，请求未得到响应时为 null
+     */
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * 获取请求异常
+     *
+     * @return 请求异常，请求得到响应时为 null
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * 请求是否成功
+     *
+     * @return 无异常且状态码为 2xx 时返回 true
+     */
+    public boolean isSuccess() {
+        return error == null && statusCode >= 200 && statusCode < 300;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpBatchResult{index=" + index + ", url='" + (spec == null ? null : spec.getUrl()) + "', statusCode="
+                + statusCode + ", success=" + isSuccess() + (error == null ? "" : ", error=" + error) + '}';
+    }
+}
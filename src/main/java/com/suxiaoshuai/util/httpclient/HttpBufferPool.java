@@ -0,0 +1,97 @@
+package com.suxiaoshuai.util.httpclient;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * 按 2 的幂分级的堆内 ByteBuffer 池，用于接收二进制响应时复用缓冲区
+ * 从池中取出的缓冲区使用完毕后应调用 {@link #release(ByteBuffer)} 归还，未归还的缓冲区由 GC 回收
+ *
+ * @author sxs
+ */
+public class HttpBufferPool {
+
+    /**
+     * 最小分级容量，4KB
+     */
+    private static final int MIN_SHIFT = 12;
+    /**
+     * 最大分级容量，16MB，超过该容量的缓冲区不入池
+     */
+    private static final int MAX_SHIFT = 24;
+
+    private static final HttpBufferPool DEFAULT = new HttpBufferPool(16);
+
+    private final List<ArrayBlockingQueue<ByteBuffer>> pools;
+
+    /**
+     * 创建缓冲区池
+     *
+     * @param maxPooledPerSize 每个容量分级最多缓存的缓冲区数
+     */
+    public HttpBufferPool(int maxPooledPerSize) {
+        pools = new ArrayList<>(MAX_SHIFT - MIN_SHIFT + 1);
+        for (int shift = MIN_SHIFT; shift <= MAX_SHIFT; shift++) {
+            pools.add(new ArrayBlockingQueue<>(Math.max(1, maxPooledPerSize)));
+        }
+    }
+
+    /**
+     * 获取共享的默认缓冲区池，每个容量分级最多缓存 16 个缓冲区
+     *
+     * @return 默认缓冲区池
+     */
+    public static HttpBufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 取出容量不小于指定值的缓冲区
+     *
+     * @param minCapacity 最小容量
+     * @return 已清空的缓冲区，容量为不小于 minCapacity 的 2 的幂，超过 16MB 时为 minCapacity
+     */
+    public ByteBuffer acquire(int minCapacity) {
+        int shift = shift(minCapacity);
+        if (shift > MAX_SHIFT) {
+            return ByteBuffer.allocate(minCapacity);
+        }
+        ByteBuffer buffer = pools.get(shift - MIN_SHIFT).poll();
+        return buffer == null ? ByteBuffer.allocate(1 << shift) : buffer.clear();
+    }
+
+    /**
+     * 归还缓冲区，非本池分级容量或池已满时丢弃
+     *
+     * @param buffer 缓冲区
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.isDirect() || buffer.isReadOnly()) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        int shift = shift(capacity);
+        if (shift > MAX_SHIFT || capacity != 1 << shift) {
+            return;
+        }
+        buffer.clear();
+        pools.get(shift - MIN_SHIFT).offer(buffer);
+    }
+
+    /**
+     * 获取指定容量分级当前缓存的缓冲区数
+     *
+     * @param capacity 容量
+     * @return 缓存的缓冲区数
+     */
+    int pooledCount(int capacity) {
+        int shift = shift(capacity);
+        return shift > MAX_SHIFT ? 0 : pools.get(shift - MIN_SHIFT).size();
+    }
+
+    private static int shift(int capacity) {
+        return capacity <= 1 << MIN_SHIFT ? MIN_SHIFT : 32 - Integer.numberOfLeadingZeros(capacity - 1);
+    }
+}
@@ -0,0 +1,22 @@
+package com.suxiaoshuai.util.httpclient;
+
+import java.io.IOException;
+
+/**
+ * host 并发调用数达到舱壁上限时请求被拒绝的异常
+ * 继承自 IOException，以便经由 OkHttp 拦截器链传递给调用方
+ *
+ * @author sxs
+ */
+public class HttpBulkheadFullException extends IOException {
+
+    /**
+     * 构造舱壁已满异常
+     *
+     * @param host               host
+     * @param maxConcurrentCalls 并发上限
+     */
+    public HttpBulkheadFullException(String host, int maxConcurrentCalls) {
+        super("bulkhead is full for host: " + host + ", maxConcurrentCalls: " + maxConcurrentCalls);
+    }
+}
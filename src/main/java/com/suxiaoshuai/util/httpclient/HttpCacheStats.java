@@ -0,0 +1,149 @@
+package com.suxiaoshuai.util.httpclient;
+
+/**
+ * HTTP 响应缓存统计快照
+ *
+ * @author sxs
+ */
+public class HttpCacheStats {
+
+    /**
+     * 经过缓存层的请求数
+     */
+    private final long requestCount;
+    /**
+     * 内存缓存命中数
+     */
+    private final long memoryHitCount;
+    /**
+     * 内存缓存未命中数
+     */
+    private final long memoryMissCount;
+    /**
+     * 磁盘缓存命中数
+     */
+    private final long diskHitCount;
+    /**
+     * 条件请求确认缓存仍然有效（304）的次数
+     */
+    private final long revalidatedCount;
+    /**
+     * 从网络获取完整响应的次数
+     */
+    private final long networkCount;
+    /**
+     * 内存缓存条目数
+     */
+    private final int memoryEntryCount;
+    /**
+     * 磁盘缓存已用字节数，未启用磁盘缓存时为 -1
+     */
+    private final long diskSize;
+    /**
+     * 磁盘缓存最大字节数，未启用磁盘缓存时为 -1
+     */
+    private final long diskMaxSize;
+
+    HttpCacheStats(long requestCount, long memoryHitCount, long memoryMissCount, long diskHitCount,
+                   long revalidatedCount, long networkCount, int memoryEntryCount, long diskSize, long diskMaxSize) {
+        this.requestCount = requestCount;
+        this.memoryHitCount = memoryHitCount;
+        this.memoryMissCount = memoryMissCount;
+        this.diskHitCount = diskHitCount;
+        this.revalidatedCount = revalidatedCount;
+        this.networkCount = networkCount;
+        this.memoryEntryCount = memoryEntryCount;
+        this.diskSize = diskSize;
+        this.diskMaxSize = diskMaxSize;
+    }
+
+    /**
+     * 获取经过缓存层的请求数
+     *
+     * @return 请求数
+     */
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * 获取内存缓存命中数
+     *
+     * @return 内存缓存命中数
+     */
+    public long getMemoryHitCount() {
+        return memoryHitCount;
+    }
+
+    /**
+     * 获取内存缓存未命中数
+     *
+     * @return 内存缓存未命中数
+     */
+    public long getMemoryMissCount() {
+        return memoryMissCount;
+    }
+
+    /**
+     * 获取磁盘缓存命中数
+     *
+     * @return 磁盘缓存命中数
+     */
+    public long getDiskHitCount() {
+        return diskHitCount;
+    }
+
+    /**
+     * 获取条件请求确认缓存仍然有效（304）的次数
+     *
+     * @return 重新验证成功次数
+     */
+    public long getRevalidatedCount() {
+        return revalidatedCount;
+    }
+
+    /**
+     * 获取从网络获取完整响应的次数
+     *
+     * @return 网络请求次数
+     */
+    public long getNetworkCount() {
+        return networkCount;
+    }
+
+    /**
+     * 获取内存缓存条目数
+     *
+     * @return 内存缓存条目数
+     */
+    public int getMemoryEntryCount() {
+        return memoryEntryCount;
+    }
+
+    /**
+     * 获取磁盘缓存已用字节数
+     *
+     * @return 已用字节数，未启用磁盘缓存时为 -1
+     */
+    public long getDiskSize() {
+        return diskSize;
+    }
+
+    /**
+     * 获取磁盘缓存最大字节数
+     *
+     * @return 最大字节数，未启用磁盘缓存时为 -1
+     */
+    public long getDiskMaxSize() {
+        return diskMaxSize;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCacheStats{requestCount=" + requestCount + ", memoryHitCount=" + memoryHitCount
+                + ", memoryMissCount=" + memoryMissCount + ", diskHitCount=" + diskHitCount
+                + ", revalidatedCount=" + revalidatedCount + ", networkCount=" + networkCount
+                + ", memoryEntryCount=" + memoryEntryCount + ", diskSize=" + diskSize
+                + ", diskMaxSize=" + diskMaxSize + '}';
+    }
+}
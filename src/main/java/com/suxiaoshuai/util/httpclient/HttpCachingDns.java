@@ -0,0 +1,266 @@
+package com.suxiaoshuai.util.httpclient;
+
+import okhttp3.Dns;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 带内存缓存的 DNS 解析器，可通过 {@link HttpClientProfile#setDns(Dns)} 设置到客户端配置
+ * <p>
+ * 解析结果缓存 ttl 时长；缓存使用超过 refreshAhead 比例的时长后，下一次查询立即返回缓存并在后台刷新；
+ * 过期后同步解析，解析失败时在 staleTtl 内继续返回过期结果；
+ * 每次查询将地址列表轮转一位，使新建连接分散到各个地址。支持链式设置
+ *
+ * @author sxs
+ */
+public class HttpCachingDns implements Dns {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpCachingDns.class);
+
+    /**
+     * 后台刷新线程池，多个解析器共用
+     */
+    private static final Executor refreshExecutor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "sxs-okhttp-dns-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Dns delegate;
+    private final LongSupplier nanoClock;
+    private final Executor executor;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    /**
+     * 缓存有效时长，单位：纳秒
+     */
+    private long ttlNanos = TimeUnit.SECONDS.toNanos(60);
+    /**
+     * 触发后台刷新的时长比例
+     */
+    private double refreshAhead = 0.8;
+    /**
+     * 解析失败时过期结果的最长可用时长（自过期起算），单位：纳秒
+     */
+    private long staleTtlNanos = TimeUnit.MINUTES.toNanos(10);
+    /**
+     * 是否轮转地址
+     */
+    private boolean rotate = true;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder staleCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+
+    /**
+     * 创建以系统解析器为上游的缓存解析器
+     */
+    public HttpCachingDns() {
+        this(Dns.SYSTEM);
+    }
+
+    /**
+     * 创建缓存解析器
+     *
+     * @param delegate 上游解析器
+     */
+    public HttpCachingDns(Dns delegate) {
+        this(delegate, System::nanoTime, refreshExecutor);
+    }
+
+    HttpCachingDns(Dns delegate, LongSupplier nanoClock, Executor executor) {
+        this.delegate = delegate;
+        this.nanoClock = nanoClock;
+        this.executor = executor;
+    }
+
+    @Override
+    public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        long now = nanoClock.getAsLong();
+        Entry entry = entries.get(hostname);
+        if (entry != null) {
+            long age = now - entry.resolvedAt;
+            if (age < ttlNanos) {
+                hitCount.increment();
+                if (age >= ttlNanos * refreshAhead && entry.refreshing.compareAndSet(false, true)) {
+                    executor.execute(() -> refresh(hostname, entry));
+                }
+                return entry.addresses();
+            }
+        }
+        missCount.increment();
+        try {
+            return resolve(hostname, now).addresses();
+        } catch (UnknownHostException | RuntimeException e) {
+            failureCount.increment();
+            if (entry != null && now - entry.resolvedAt < ttlNanos + staleTtlNanos) {
+                staleCount.increment();
+                logger.warn("okhttp dns lookup host:{} failed, serve stale addresses:{}", hostname, entry.addresses);
+                return entry.addresses();
+            }
+            if (entry != null) {
+                entries.remove(hostname, entry);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private void refresh(String hostname, Entry entry) {
+        try {
+            resolve(hostname, nanoClock.getAsLong());
+            refreshCount.increment();
+        } catch (Exception e) {
+            failureCount.increment();
+            logger.warn("okhttp dns refresh host:{} error", hostname, e);
+        } finally {
+            entry.refreshing.set(false);
+        }
+    }
+
+    private Entry resolve(String hostname, long now) throws UnknownHostException {
+        List<InetAddress> addresses = delegate.lookup(hostname);
+        if (addresses == null || addresses.isEmpty()) {
+            throw new UnknownHostException("no address resolved for host: " + hostname);
+        }
+        Entry entry = new Entry(new ArrayList<>(addresses), now);
+        entries.put(hostname, entry);
+        return entry;
+    }
+
+    /**
+     * 设置缓存有效时长与后台刷新时机
+     *
+     * @param ttl          缓存有效时长
+     * @param unit         时间单位
+     * @param refreshAhead 缓存使用超过有效时长的该比例后触发后台刷新，取值 (0, 1]，为 1 时不提前刷新
+     * @return 当前对象，支持链式调用
+     */
+    public HttpCachingDns setTtl(long ttl, TimeUnit unit, double refreshAhead) {
+        this.ttlNanos = unit.toNanos(ttl);
+        this.refreshAhead = Math.min(1, Math.max(0.01, refreshAhead));
+        return this;
+    }
+
+    /**
+     * 设置解析失败时过期结果的最长可用时长
+     *
+     * @param staleTtl 自过期起算的最长可用时长，0 表示不使用过期结果
+     * @param unit     时间单位
+     * @return 当前对象，支持链式调用
+     */
+    public HttpCachingDns setStaleTtl(long staleTtl, TimeUnit unit) {
+        this.staleTtlNanos = unit.toNanos(staleTtl);
+        return this;
+    }
+
+    /**
+     * 设置是否轮转地址
+     *
+     * @param rotate 为 true 时每次查询将地址列表轮转一位
+     * @return 当前对象，支持链式调用
+     */
+    public HttpCachingDns setRotate(boolean rotate) {
+        this.rotate = rotate;
+        return this;
+    }
+
+    /**
+     * 获取缓存命中数
+     *
+     * @return 命中数
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * 获取缓存未命中或已过期需要同步解析的次数
+     *
+     * @return 未命中数
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 获取后台刷新成功的次数
+     *
+     * @return 刷新次数
+     */
+    public long getRefreshCount() {
+        return refreshCount.sum();
+    }
+
+    /**
+     * 获取解析失败时返回过期结果的次数
+     *
+     * @return 次数
+     */
+    public long getStaleCount() {
+        return staleCount.sum();
+    }
+
+    /**
+     * 获取上游解析失败的次数，包括后台刷新失败
+     *
+     * @return 失败次数
+     */
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCachingDns{delegate=" + delegate + ", ttlNanos=" + ttlNanos + ", refreshAhead=" + refreshAhead
+                + ", staleTtlNanos=" + staleTtlNanos + ", rotate=" + rotate + ", size=" + entries.size() + '}';
+    }
+
+    /**
+     * 缓存的解析结果
+     */
+    private final class Entry {
+        private final List<InetAddress> addresses;
+        private final long resolvedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private final AtomicInteger next = new AtomicInteger();
+
+        private Entry(List<InetAddress> addresses, long resolvedAt) {
+            this.addresses = addresses;
+            this.resolvedAt = resolvedAt;
+        }
+
+        private List<InetAddress> addresses() {
+            int size = addresses.size();
+            if (!rotate || size == 1) {
+                return Collections.unmodifiableList(addresses);
+            }
+            int offset = Math.floorMod(next.getAndIncrement(), size);
+            List<InetAddress> rotated = new ArrayList<>(size);
+            rotated.addAll(addresses.subList(offset, size));
+            rotated.addAll(addresses.subList(0, offset));
+            return rotated;
+        }
+    }
+}
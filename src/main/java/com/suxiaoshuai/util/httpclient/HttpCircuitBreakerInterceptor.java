@@ -0,0 +1,243 @@
+package com.suxiaoshuai.util.httpclient;
+
+import com.suxiaoshuai.callback.CircuitBreakerCallback;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按 {@link HttpCircuitBreakerPolicy} 对每个 host 做熔断与舱壁隔离的应用拦截器
+ * <p>
+ * 熔断器打开时只读取一次 volatile 状态与时间即拒绝请求，不加锁；
+ * 调用结果写入滑动窗口时对单个 host 加锁
+ *
+ * @author sxs
+ */
+class HttpCircuitBreakerInterceptor implements Interceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpCircuitBreakerInterceptor.class);
+
+    private final String profileName;
+    private final HttpCircuitBreakerPolicy policy;
+    private final Map<String, HostCircuit> circuits = new ConcurrentHashMap<>();
+
+    HttpCircuitBreakerInterceptor(String profileName, HttpCircuitBreakerPolicy policy) {
+        this.profileName = profileName;
+        this.policy = policy;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String host = request.url().host();
+        HostCircuit circuit = circuit(host);
+        if (!circuit.tryAcquirePermission()) {
+            throw new HttpCircuitOpenException(host);
+        }
+        if (!circuit.tryEnterBulkhead()) {
+            circuit.releasePermission();
+            throw new HttpBulkheadFullException(host, policy.getMaxConcurrentCalls());
+        }
+        long start = System.nanoTime();
+        try {
+            Response response = chain.proceed(request);
+            circuit.onResult(policy.isFailureStatus(response.code()), System.nanoTime() - start);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            if (chain.call().isCanceled()) {
+                // 主动取消（如对冲请求的落败方）不计入结果
+                circuit.releasePermission();
+            } else {
+                circuit.onResult(true, System.nanoTime() - start);
+            }
+            throw e;
+        } finally {
+            circuit.exitBulkhead();
+        }
+    }
+
+    /**
+     * 获取各 host 的熔断器状态
+     *
+     * @return host 到状态的映射，按 host 排序
+     */
+    Map<String, HttpCircuitState> states() {
+        Map<String, HttpCircuitState> states = new TreeMap<>();
+        circuits.forEach((host, circuit) -> states.put(host, circuit.currentState()));
+        return states;
+    }
+
+    private HostCircuit circuit(String host) {
+        HostCircuit circuit = circuits.get(host);
+        return circuit != null ? circuit : circuits.computeIfAbsent(host, HostCircuit::new);
+    }
+
+    /**
+     * 单个 host 的熔断器与舱壁
+     */
+    private final class HostCircuit {
+        private static final byte SUCCESS = 0;
+        private static final byte FAILURE = 1;
+        private static final byte SLOW = 2;
+
+        private final String host;
+        private final long openDurationNanos = TimeUnit.MILLISECONDS.toNanos(policy.getOpenDurationMillis());
+        private final long slowCallNanos = TimeUnit.MILLISECONDS.toNanos(policy.getSlowCallDurationMillis());
+        private final Semaphore bulkhead = policy.getMaxConcurrentCalls() > 0
+                ? new Semaphore(policy.getMaxConcurrentCalls()) : null;
+        private final AtomicInteger halfOpenPermits = new AtomicInteger();
+
+        private volatile HttpCircuitState state = HttpCircuitState.CLOSED;
+        private volatile long openedAtNanos;
+
+        /**
+         * 滑动窗口，以下字段均由 this 锁保护
+         */
+        private final byte[] outcomes = new byte[Math.max(1, policy.getSlidingWindowSize())];
+        private int next;
+        private int size;
+        private int failures;
+        private int slows;
+        private int halfOpenSuccesses;
+
+        private HostCircuit(String host) {
+            this.host = host;
+        }
+
+        private HttpCircuitState currentState() {
+            HttpCircuitState current = state;
+            if (current == HttpCircuitState.OPEN && System.nanoTime() - openedAtNanos >= openDurationNanos) {
+                return HttpCircuitState.HALF_OPEN;
+            }
+            return current;
+        }
+
+        private boolean tryAcquirePermission() {
+            HttpCircuitState current = state;
+            if (current == HttpCircuitState.CLOSED) {
+                return true;
+            }
+            if (current == HttpCircuitState.OPEN) {
+                if (System.nanoTime() - openedAtNanos < openDurationNanos) {
+                    return false;
+                }
+                synchronized (this) {
+                    if (state == HttpCircuitState.OPEN) {
+                        transition(HttpCircuitState.HALF_OPEN);
+                    }
+                }
+                if (state == HttpCircuitState.CLOSED) {
+                    return true;
+                }
+            }
+            int permits;
+            while ((permits = halfOpenPermits.get()) > 0) {
+                if (halfOpenPermits.compareAndSet(permits, permits - 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void releasePermission() {
+            if (state == HttpCircuitState.HALF_OPEN) {
+                halfOpenPermits.incrementAndGet();
+            }
+        }
+
+        private boolean tryEnterBulkhead() throws InterruptedIOException {
+            if (bulkhead == null) {
+                return true;
+            }
+            if (policy.getBulkheadMaxWaitMillis() <= 0) {
+                return bulkhead.tryAcquire();
+            }
+            try {
+                return bulkhead.tryAcquire(policy.getBulkheadMaxWaitMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while waiting for bulkhead");
+            }
+        }
+
+        private void exitBulkhead() {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+        }
+
+        private synchronized void onResult(boolean failed, long durationNanos) {
+            byte outcome = (byte) ((failed ? FAILURE : SUCCESS) | (durationNanos >= slowCallNanos ? SLOW : SUCCESS));
+            if (state == HttpCircuitState.HALF_OPEN) {
+                if (outcome != SUCCESS) {
+                    transition(HttpCircuitState.OPEN);
+                } else if (++halfOpenSuccesses >= policy.getHalfOpenProbes()) {
+                    transition(HttpCircuitState.CLOSED);
+                }
+                return;
+            }
+            if (state == HttpCircuitState.OPEN) {
+                // 打开前已放行的请求结果不再统计
+                return;
+            }
+            if (size == outcomes.length) {
+                byte evicted = outcomes[next];
+                failures -= evicted & FAILURE;
+                slows -= (evicted & SLOW) >> 1;
+            } else {
+                size++;
+            }
+            outcomes[next] = outcome;
+            next = (next + 1) % outcomes.length;
+            failures += outcome & FAILURE;
+            slows += (outcome & SLOW) >> 1;
+            if (size >= policy.getMinimumCalls()
+                    && (failures * 100f / size >= policy.getFailureRateThreshold()
+                    || slows * 100f / size >= policy.getSlowCallRateThreshold())) {
+                transition(HttpCircuitState.OPEN);
+            }
+        }
+
+        /**
+         * 切换状态，调用方需持有 this 锁
+         */
+        private void transition(HttpCircuitState to) {
+            HttpCircuitState from = state;
+            if (from == to) {
+                return;
+            }
+            if (to == HttpCircuitState.OPEN) {
+                openedAtNanos = System.nanoTime();
+            } else if (to == HttpCircuitState.HALF_OPEN) {
+                halfOpenSuccesses = 0;
+                halfOpenPermits.set(Math.max(1, policy.getHalfOpenProbes()));
+            } else {
+                next = 0;
+                size = 0;
+                failures = 0;
+                slows = 0;
+            }
+            state = to;
+            logger.warn("okhttp circuit breaker profile:{}, host:{}, {} -> {}", profileName, host, from, to);
+            CircuitBreakerCallback callback = policy.getCallback();
+            if (callback != null) {
+                try {
+                    callback.onStateTransition(profileName, host, from, to);
+                } catch (Exception e) {
+                    logger.error("circuit breaker callback error", e);
+                }
+            }
+        }
+    }
+}
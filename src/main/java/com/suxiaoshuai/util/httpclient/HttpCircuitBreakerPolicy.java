@@ -0,0 +1,303 @@
+package com.suxiaoshuai.util.httpclient;
+
+import com.suxiaoshuai.callback.CircuitBreakerCallback;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个 host 的熔断与舱壁策略
+ * <p>
+ * 熔断器以最近 slidingWindowSize 次调用为滑动窗口，调用数达到 minimumCalls 后，
+ * 失败率或慢调用率达到阈值即打开，打开期间请求直接抛出 {@link HttpCircuitOpenException}；
+ * 经过 openDuration 后进入半开状态，放行 halfOpenProbes 个探测请求，全部成功则关闭，任一失败或慢调用则重新打开。
+ * 舱壁限制单个 host 的并发调用数，超出时抛出 {@link HttpBulkheadFullException}。
+ * 支持链式设置
+ *
+ * @author sxs
+ */
+public class HttpCircuitBreakerPolicy {
+
+    /**
+     * 滑动窗口大小，单位：调用次数
+     */
+    private int slidingWindowSize = 100;
+    /**
+     * 计算失败率所需的最少调用数
+     */
+    private int minimumCalls = 20;
+    /**
+     * 失败率阈值，百分比
+     */
+    private float failureRateThreshold = 50;
+    /**
+     * 慢调用率阈值，百分比，大于100表示不按慢调用熔断
+     */
+    private float slowCallRateThreshold = 101;
+    /**
+     * 慢调用耗时阈值，单位：毫秒，从发出请求到收到响应头
+     */
+    private long slowCallDurationMillis = TimeUnit.SECONDS.toMillis(HttpUtils.TIME_OUT);
+    /**
+     * 打开状态持续时间，单位：毫秒
+     */
+    private long openDurationMillis = TimeUnit.SECONDS.toMillis(30);
+    /**
+     * 半开状态放行的探测请求数
+     */
+    private int halfOpenProbes = 3;
+    /**
+     * 计为失败的状态码
+     */
+    private Set<Integer> failureStatusCodes = new HashSet<>(Arrays.asList(500, 502, 503, 504));
+    /**
+     * 单个 host 的最大并发调用数，0 表示不限制
+     */
+    private int maxConcurrentCalls;
+    /**
+     * 舱壁已满时的最长等待时间，单位：毫秒，0 表示直接拒绝
+     */
+    private long bulkheadMaxWaitMillis;
+    /**
+     * 状态变化回调
+     */
+    private CircuitBreakerCallback callback;
+
+    /**
+     * 复制当前策略
+     *
+     * @return 新的策略对象
+     */
+    public HttpCircuitBreakerPolicy copy() {
+        HttpCircuitBreakerPolicy copy = new HttpCircuitBreakerPolicy();
+        copy.slidingWindowSize = slidingWindowSize;
+        copy.minimumCalls = minimumCalls;
+        copy.failureRateThreshold = failureRateThreshold;
+        copy.slowCallRateThreshold = slowCallRateThreshold;
+        copy.slowCallDurationMillis = slowCallDurationMillis;
+        copy.openDurationMillis = openDurationMillis;
+        copy.halfOpenProbes = halfOpenProbes;
+        copy.failureStatusCodes = new HashSet<>(failureStatusCodes);
+        copy.maxConcurrentCalls = maxConcurrentCalls;
+        copy.bulkheadMaxWaitMillis = bulkheadMaxWaitMillis;
+        copy.callback = callback;
+        return copy;
+    }
+
+    /**
+     * 状态码是否计为失败
+     *
+     * @param code 状态码
+     * @return 计为失败返回 true
+     */
+    public boolean isFailureStatus(int code) {
+        return failureStatusCodes.contains(code);
+    }
+
+    /**
+     * 获取滑动窗口大小
+     *
+     * @return 滑动窗口大小，默认为100次调用
+     */
+    public int getSlidingWindowSize() {
+        return slidingWindowSize;
+    }
+
+    /**
+     * 获取计算失败率所需的最少调用数
+     *
+     * @return 最少调用数，默认为20
+     */
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    /**
+     * 设置滑动窗口
+     *
+     * @param slidingWindowSize 滑动窗口大小，单位：调用次数
+     * @param minimumCalls      计算失败率所需的最少调用数
+     * @return 当前对象，支持链式调用
+     */
+    public HttpCircuitBreakerPolicy setSlidingWindow(int slidingWindowSize, int minimumCalls) {
+        this.slidingWindowSize = slidingWindowSize;
+        this.minimumCalls = minimumCalls;
+        return this;
+    }
+
+    /**
+     * 获取失败率阈值
+     *
+     * @return 失败率阈值，百分比，默认为50
+     */
+    public float getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    /**
+     * 设置失败率阈值
+     *
+     * @param failureRateThreshold 失败率阈值，百分比
+     * @return 当前对象，支持链式调用
+     */
+    public HttpCircuitBreakerPolicy setFailureRateThreshold(float failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+        return this;
+    }
+
+    /**
+     * 获取慢调用率阈值
+     *
+     * @return 慢调用率阈值，百分比，默认不按慢调用熔断
+     */
+    public float getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    /**
+     * 获取慢调用耗时阈值
+     *
+     * @return 慢调用耗时阈值，单位：毫秒
+     */
+    public long getSlowCallDurationMillis() {
+        return slowCallDurationMillis;
+    }
+
+    /**
+     * 设置慢调用熔断
+     *
+     * @param slowCallRateThreshold 慢调用率阈值，百分比
+     * @param slowCallDuration      慢调用耗时阈值，从发出请求到收到响应头
+     * @param unit                  时间单位
+     * @return 当前对象，支持链式调用
+     */
+    public HttpCircuitBreakerPolicy setSlowCall(float slowCallRateThreshold, long slowCallDuration, TimeUnit unit) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallDurationMillis = unit.toMillis(slowCallDuration);
+        return this;
+    }
+
+    /**
+     * 获取打开状态持续时间
+     *
+     * @return 打开状态持续时间，单位：毫秒，默认为30秒
+     */
+    public long getOpenDurationMillis() {
+        return openDurationMillis;
+    }
+
+    /**
+     * 设置打开状态持续时间
+     *
+     * @param openDuration 打开状态持续时间
+     * @param unit         时间单位
+     * @return 当前对象，支持链式调用
+     */
+    public HttpCircuitBreakerPolicy setOpenDuration(long openDuration, TimeUnit unit) {
+        this.openDurationMillis = unit.toMillis(openDuration);
+        return this;
+    }
+
+    /**
+     * 获取半开状态放行的探测请求数
+     *
+     * @return 探测请求数，默认为3
+     */
+    public int getHalfOpenProbes() {
+        return halfOpenProbes;
+    }
+
+    /**
+     * 设置半开状态放行的探测请求数
+     *
+     * @param halfOpenProbes 探测请求数
+     * @return 当前对象，支持链式调用
+     */
+    public HttpCircuitBreakerPolicy setHalfOpenProbes(int halfOpenProbes) {
+        this.halfOpenProbes = halfOpenProbes;
+        return this;
+    }
+
+    /**
+     * 获取计为失败的状态码
+     *
+     * @return 状态码集合，默认为 500、502、503、504
+     */
+    public Set<Integer> getFailureStatusCodes() {
+        return failureStatusCodes;
+    }
+
+    /**
+     * 设置计为失败的状态码，IO 异常总是计为失败
+     *
+     * @param failureStatusCodes 状态码
+     * @return 当前对象，支持链式调用
+     */
+    public HttpCircuitBreakerPolicy setFailureStatusCodes(Integer... failureStatusCodes) {
+        this.failureStatusCodes = new HashSet<>(Arrays.asList(failureStatusCodes));
+        return this;
+    }
+
+    /**
+     * 获取单个 host 的最大并发调用数
+     *
+     * @return 最大并发调用数，0 表示不限制
+     */
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * 获取舱壁已满时的最长等待时间
+     *
+     * @return 最长等待时间，单位：毫秒，0 表示直接拒绝
+     */
+    public long getBulkheadMaxWaitMillis() {
+        return bulkheadMaxWaitMillis;
+    }
+
+    /**
+     * 设置舱壁
+     *
+     * @param maxConcurrentCalls 单个 host 的最大并发调用数，0 表示不限制
+     * @param maxWait            舱壁已满时的最长等待时间，0 表示直接拒绝
+     * @param unit               时间单位
+     * @return 当前对象，支持链式调用
+     */
+    public HttpCircuitBreakerPolicy setBulkhead(int maxConcurrentCalls, long maxWait, TimeUnit unit) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.bulkheadMaxWaitMillis = unit.toMillis(maxWait);
+        return this;
+    }
+
+    /**
+     * 获取状态变化回调
+     *
+     * @return 状态变化回调
+     */
+    public CircuitBreakerCallback getCallback() {
+        return callback;
+    }
+
+    /**
+     * 设置状态变化回调
+     *
+     * @param callback 状态变化回调
+     * @return 当前对象，支持链式调用
+     */
+    public HttpCircuitBreakerPolicy setCallback(CircuitBreakerCallback callback) {
+        this.callback = callback;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCircuitBreakerPolicy{slidingWindowSize=" + slidingWindowSize + ", minimumCalls=" + minimumCalls
+                + ", failureRateThreshold=" + failureRateThreshold + ", slowCallRateThreshold=" + slowCallRateThreshold
+                + ", slowCallDurationMillis=" + slowCallDurationMillis + ", openDurationMillis=" + openDurationMillis
+                + ", halfOpenProbes=" + halfOpenProbes + ", failureStatusCodes=" + failureStatusCodes
+                + ", maxConcurrentCalls=" + maxConcurrentCalls + ", bulkheadMaxWaitMillis=" + bulkheadMaxWaitMillis + '}';
+    }
+}
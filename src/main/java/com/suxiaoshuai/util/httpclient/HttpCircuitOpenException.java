@@ -0,0 +1,21 @@
+package com.suxiaoshuai.util.httpclient;
+
+import java.io.IOException;
+
+/**
+ * 熔断器打开时请求被直接拒绝的异常
+ * 继承自 IOException，以便经由 OkHttp 拦截器链传递给调用方
+ *
+ * @author sxs
+ */
+public class HttpCircuitOpenException extends IOException {
+
+    /**
+     * 构造熔断异常
+     *
+     * @param host 被熔断的 host
+     */
+    public HttpCircuitOpenException(String host) {
+        super("circuit breaker is open for host: " + host);
+    }
+}
@@ -0,0 +1,21 @@
+package com.suxiaoshuai.util.httpclient;
+
+/**
+ * 熔断器状态
+ *
+ * @author sxs
+ */
+public enum HttpCircuitState {
+    /**
+     * 关闭，请求正常放行并统计结果
+     */
+    CLOSED,
+    /**
+     * 打开，请求直接失败
+     */
+    OPEN,
+    /**
+     * 半开，放行少量探测请求以决定恢复或重新打开
+     */
+    HALF_OPEN,
+}
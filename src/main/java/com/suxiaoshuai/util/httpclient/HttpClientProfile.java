@@ -0,0 +1,669 @@
+package com.suxiaoshuai.util.httpclient;
+
+import okhttp3.Dns;
+import okhttp3.Protocol;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP 客户端配置
+ * 每个配置以名称区分，注册到 {@link HttpClientRegistry} 后生成独立的连接池与调度器，
+ * 不同配置之间的请求互不影响，支持链式设置
+ *
+ * @author sxs
+ */
+public class HttpClientProfile {
+
+    /**
+     * 配置名称
+     */
+    private final String name;
+    /**
+     * 连接池最大空闲连接数
+     */
+    private int maxIdleConnections = HttpUtils.MAX_IDLE_CONNECTIONS;
+    /**
+     * 空闲连接保持时间，单位：毫秒
+     */
+    private long keepAliveMillis = TimeUnit.SECONDS.toMillis(10);
+    /**
+     * 连接超时时间，单位：毫秒
+     */
+    private long connectTimeoutMillis = TimeUnit.SECONDS.toMillis(HttpUtils.TIME_OUT);
+    /**
+     * 读超时时间，单位：毫秒
+     */
+    private long readTimeoutMillis = TimeUnit.SECONDS.toMillis(HttpUtils.TIME_OUT);
+    /**
+     * 写超时时间，单位：毫秒
+     */
+    private long writeTimeoutMillis = TimeUnit.SECONDS.toMillis(HttpUtils.TIME_OUT);
+    /**
+     * 整个调用的超时时间，单位：毫秒，0 表示不限制
+     */
+    private long callTimeoutMillis = 0;
+    /**
+     * 异步请求的最大并发数
+     */
+    private int maxRequests = 64;
+    /**
+     * 异步请求单个 host 的最大并发数
+     */
+    private int maxRequestsPerHost = 5;
+    /**
+     * 支持的协议，为空时使用 OkHttp 默认协议
+     */
+    private List<Protocol> protocols;
+    /**
+     * DNS 解析器，为 null 时使用系统解析器
+     */
+    private Dns dns;
+    /**
+     * 连接失败时是否重试
+     */
+    private boolean retryOnConnectionFailure = true;
+    /**
+     * 磁盘缓存目录，为 null 时不启用磁盘缓存
+     */
+    private Path diskCacheDirectory;
+    /**
+     * 磁盘缓存最大字节数
+     */
+    private long diskCacheMaxBytes;
+    /**
+     * 内存缓存最大条目数，0 表示不启用内存缓存
+     */
+    private int memoryCacheMaxEntries;
+    /**
+     * 内存缓存单个条目最大字节数
+     */
+    private long memoryCacheMaxEntryBytes = 64 * 1024;
+    /**
+     * 是否合并并发的相同同步 get 请求
+     */
+    private boolean coalesceGet;
+    /**
+     * 参与合并键计算的请求头名称，小写
+     */
+    private Set<String> coalesceKeyHeaders = Collections.emptySet();
+    /**
+     * 重试策略，为 null 时不重试
+     */
+    private HttpRetryPolicy retryPolicy;
+    /**
+     * 熔断与舱壁策略，为 null 时不启用
+     */
+    private HttpCircuitBreakerPolicy circuitBreakerPolicy;
+    /**
+     * 限流策略，为 null 时不限流
+     */
+    private HttpRateLimitPolicy rateLimitPolicy;
+    /**
+     * 响应体大小上限，单位：字节，0 表示不限制
+     */
+    private long maxResponseBytes;
+    /**
+     * 响应体超过上限时的处理方式
+     */
+    private HttpResponseLimitMode responseLimitMode = HttpResponseLimitMode.ABORT;
+    /**
+     * 请求体压缩编码，为 null 时不压缩
+     */
+    private HttpContentEncoding requestEncoding;
+    /**
+     * 请求体压缩阈值，单位：字节，请求体不小于该值时才压缩
+     */
+    private long requestCompressionThresholdBytes = 8 * 1024;
+
+    /**
+     * 创建指定名称的配置，其余参数与 HttpUtils 默认客户端一致
+     *
+     * @param name 配置名称
+     */
+    public HttpClientProfile(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 复制当前配置
+     *
+     * @return 新的配置对象
+     */
+    public HttpClientProfile copy() {
+        HttpClientProfile copy = new HttpClientProfile(name);
+        copy.maxIdleConnections = maxIdleConnections;
+        copy.keepAliveMillis = keepAliveMillis;
+        copy.connectTimeoutMillis = connectTimeoutMillis;
+        copy.readTimeoutMillis = readTimeoutMillis;
+        copy.writeTimeoutMillis = writeTimeoutMillis;
+        copy.callTimeoutMillis = callTimeoutMillis;
+        copy.maxRequests = maxRequests;
+        copy.maxRequestsPerHost = maxRequestsPerHost;
+        copy.protocols = protocols == null ? null : new ArrayList<>(protocols);
+        copy.dns = dns;
+        copy.retryOnConnectionFailure = retryOnConnectionFailure;
+        copy.diskCacheDirectory = diskCacheDirectory;
+        copy.diskCacheMaxBytes = diskCacheMaxBytes;
+        copy.memoryCacheMaxEntries = memoryCacheMaxEntries;
+        copy.memoryCacheMaxEntryBytes = memoryCacheMaxEntryBytes;
+        copy.coalesceGet = coalesceGet;
+        copy.coalesceKeyHeaders = coalesceKeyHeaders;
+        copy.retryPolicy = retryPolicy == null ? null : retryPolicy.copy();
+        copy.circuitBreakerPolicy = circuitBreakerPolicy == null ? null : circuitBreakerPolicy.copy();
+        copy.rateLimitPolicy = rateLimitPolicy == null ? null : rateLimitPolicy.copy();
+        copy.maxResponseBytes = maxResponseBytes;
+        copy.responseLimitMode = responseLimitMode;
+        copy.requestEncoding = requestEncoding;
+        copy.requestCompressionThresholdBytes = requestCompressionThresholdBytes;
+        return copy;
+    }
+
+    /**
+     * 获取配置名称
+     *
+     * @return 配置名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取连接池最大空闲连接数
+     *
+     * @return 最大空闲连接数，默认为 {@link HttpUtils#MAX_IDLE_CONNECTIONS}
+     */
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    /**
+     * 设置连接池最大空闲连接数
+     *
+     * @param maxIdleConnections 最大空闲连接数
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setMaxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+        return this;
+    }
+
+    /**
+     * 获取空闲连接保持时间
+     *
+     * @return 空闲连接保持时间，单位：毫秒，默认为10秒
+     */
+    public long getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    /**
+     * 设置空闲连接保持时间
+     *
+     * @param keepAlive 空闲连接保持时间
+     * @param unit      时间单位
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setKeepAlive(long keepAlive, TimeUnit unit) {
+        this.keepAliveMillis = unit.toMillis(keepAlive);
+        return this;
+    }
+
+    /**
+     * 获取连接超时时间
+     *
+     * @return 连接超时时间，单位：毫秒
+     */
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    /**
+     * 设置连接超时时间
+     *
+     * @param timeout 超时时间
+     * @param unit    时间单位
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setConnectTimeout(long timeout, TimeUnit unit) {
+        this.connectTimeoutMillis = unit.toMillis(timeout);
+        return this;
+    }
+
+    /**
+     * 获取读超时时间
+     *
+     * @return 读超时时间，单位：毫秒
+     */
+    public long getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    /**
+     * 设置读超时时间
+     *
+     * @param timeout 超时时间
+     * @param unit    时间单位
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setReadTimeout(long timeout, TimeUnit unit) {
+        this.readTimeoutMillis = unit.toMillis(timeout);
+        return this;
+    }
+
+    /**
+     * 获取写超时时间
+     *
+     * @return 写超时时间，单位：毫秒
+     */
+    public long getWriteTimeoutMillis() {
+        return writeTimeoutMillis;
+    }
+
+    /**
+     * 设置写超时时间
+     *
+     * @param timeout 超时时间
+     * @param unit    时间单位
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setWriteTimeout(long timeout, TimeUnit unit) {
+        this.writeTimeoutMillis = unit.toMillis(timeout);
+        return this;
+    }
+
+    /**
+     * 获取整个调用的超时时间
+     *
+     * @return 调用超时时间，单位：毫秒，0 表示不限制
+     */
+    public long getCallTimeoutMillis() {
+        return callTimeoutMillis;
+    }
+
+    /**
+     * 设置整个调用的超时时间，包括 DNS、连接、写请求体、服务端处理与读响应体
+     *
+     * @param timeout 超时时间，0 表示不限制
+     * @param unit    时间单位
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setCallTimeout(long timeout, TimeUnit unit) {
+        this.callTimeoutMillis = unit.toMillis(timeout);
+        return this;
+    }
+
+    /**
+     * 获取异步请求的最大并发数
+     *
+     * @return 最大并发数，默认为64
+     */
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    /**
+     * 设置异步请求的最大并发数，超出的请求在调度器中排队
+     *
+     * @param maxRequests 最大并发数
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setMaxRequests(int maxRequests) {
+        this.maxRequests = maxRequests;
+        return this;
+    }
+
+    /**
+     * 获取异步请求单个 host 的最大并发数
+     *
+     * @return 单 host 最大并发数，默认为5
+     */
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    /**
+     * 设置异步请求单个 host 的最大并发数
+     *
+     * @param maxRequestsPerHost 单 host 最大并发数
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setMaxRequestsPerHost(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        return this;
+    }
+
+    /**
+     * 获取支持的协议
+     *
+     * @return 协议列表，为 null 时使用 OkHttp 默认协议
+     */
+    public List<Protocol> getProtocols() {
+        return protocols;
+    }
+
+    /**
+     * 设置支持的协议
+     *
+     * @param protocols 协议列表
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setProtocols(List<Protocol> protocols) {
+        this.protocols = protocols;
+        return this;
+    }
+
+    /**
+     * 按协议模式设置支持的协议
+     *
+     * @param mode 协议模式，为 null 时恢复 OkHttp 默认协议
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setProtocolMode(HttpProtocolMode mode) {
+        this.protocols = mode == null ? null : new ArrayList<>(mode.getProtocols());
+        return this;
+    }
+
+    /**
+     * 获取 DNS 解析器
+     *
+     * @return DNS 解析器，为 null 时使用系统解析器
+     */
+    public Dns getDns() {
+        return dns;
+    }
+
+    /**
+     * 设置 DNS 解析器，如 {@link HttpCachingDns}；解析器实例在复制配置时共享
+     *
+     * @param dns DNS 解析器，为 null 时使用系统解析器
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setDns(Dns dns) {
+        this.dns = dns;
+        return this;
+    }
+
+    /**
+     * 连接失败时是否重试
+     *
+     * @return 重试返回 true，默认为 true
+     */
+    public boolean isRetryOnConnectionFailure() {
+        return retryOnConnectionFailure;
+    }
+
+    /**
+     * 设置连接失败时是否重试
+     *
+     * @param retryOnConnectionFailure 是否重试
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setRetryOnConnectionFailure(boolean retryOnConnectionFailure) {
+        this.retryOnConnectionFailure = retryOnConnectionFailure;
+        return this;
+    }
+
+    /**
+     * 获取磁盘缓存目录
+     *
+     * @return 磁盘缓存目录，为 null 时不启用磁盘缓存
+     */
+    public Path getDiskCacheDirectory() {
+        return diskCacheDirectory;
+    }
+
+    /**
+     * 获取磁盘缓存最大字节数
+     *
+     * @return 磁盘缓存最大字节数
+     */
+    public long getDiskCacheMaxBytes() {
+        return diskCacheMaxBytes;
+    }
+
+    /**
+     * 启用磁盘缓存
+     * 遵循 Cache-Control、ETag、Last-Modified，过期后以条件请求重新验证。
+     * 同一目录只能被一个配置使用
+     *
+     * @param directory 缓存目录
+     * @param maxBytes  最大字节数，超出后按 LRU 淘汰
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setDiskCache(Path directory, long maxBytes) {
+        this.diskCacheDirectory = directory;
+        this.diskCacheMaxBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * 获取内存缓存最大条目数
+     *
+     * @return 内存缓存最大条目数，0 表示不启用内存缓存
+     */
+    public int getMemoryCacheMaxEntries() {
+        return memoryCacheMaxEntries;
+    }
+
+    /**
+     * 获取内存缓存单个条目最大字节数
+     *
+     * @return 单个条目最大字节数，默认为64KB
+     */
+    public long getMemoryCacheMaxEntryBytes() {
+        return memoryCacheMaxEntryBytes;
+    }
+
+    /**
+     * 启用内存缓存，位于磁盘缓存之前，按 LRU 淘汰
+     *
+     * @param maxEntries    最大条目数
+     * @param maxEntryBytes 单个条目最大字节数，超过的响应不进入内存缓存
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setMemoryCache(int maxEntries, long maxEntryBytes) {
+        this.memoryCacheMaxEntries = maxEntries;
+        this.memoryCacheMaxEntryBytes = maxEntryBytes;
+        return this;
+    }
+
+    /**
+     * 是否启用了响应缓存
+     *
+     * @return 启用了内存缓存或磁盘缓存时返回 true
+     */
+    public boolean isCacheEnabled() {
+        return memoryCacheMaxEntries > 0 || diskCacheDirectory != null;
+    }
+
+    /**
+     * 是否合并并发的相同同步 get 请求
+     *
+     * @return 合并返回 true，默认为 false
+     */
+    public boolean isCoalesceGet() {
+        return coalesceGet;
+    }
+
+    /**
+     * 获取参与合并键计算的请求头名称
+     *
+     * @return 请求头名称，小写
+     */
+    public Set<String> getCoalesceKeyHeaders() {
+        return coalesceKeyHeaders;
+    }
+
+    /**
+     * 设置是否合并并发的相同同步 get 请求
+     * <p>
+     * 开启后，最终请求地址（含拼接的参数）与 keyHeaders 中请求头取值都相同的并发 get 请求只发出一次，
+     * 所有调用方共享同一结果，用于缓存失效时防止大量相同请求同时打到下游。
+     * 未列入 keyHeaders 的请求头不参与比较，合并后以首个调用方的请求头发出
+     *
+     * @param coalesceGet 是否合并
+     * @param keyHeaders  参与合并键计算的请求头名称，忽略大小写
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setCoalesceGet(boolean coalesceGet, String... keyHeaders) {
+        this.coalesceGet = coalesceGet;
+        Set<String> headers = new HashSet<>();
+        for (String keyHeader : keyHeaders) {
+            headers.add(keyHeader.toLowerCase(Locale.ROOT));
+        }
+        this.coalesceKeyHeaders = Collections.unmodifiableSet(headers);
+        return this;
+    }
+
+    /**
+     * 获取重试策略
+     *
+     * @return 重试策略，为 null 时不重试
+     */
+    public HttpRetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * 设置重试策略
+     * 重试发生在 OkHttp 自身的连接失败重试之外，覆盖按状态码与异常类型的重试以及对冲请求
+     *
+     * @param retryPolicy 重试策略，为 null 时不重试
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setRetryPolicy(HttpRetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * 获取熔断与舱壁策略
+     *
+     * @return 熔断与舱壁策略，为 null 时不启用
+     */
+    public HttpCircuitBreakerPolicy getCircuitBreakerPolicy() {
+        return circuitBreakerPolicy;
+    }
+
+    /**
+     * 设置熔断与舱壁策略
+     * 熔断器位于重试之外，一次调用的多次重试只计一次结果
+     *
+     * @param circuitBreakerPolicy 熔断与舱壁策略，为 null 时不启用
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setCircuitBreakerPolicy(HttpCircuitBreakerPolicy circuitBreakerPolicy) {
+        this.circuitBreakerPolicy = circuitBreakerPolicy;
+        return this;
+    }
+
+    /**
+     * 获取限流策略
+     *
+     * @return 限流策略，为 null 时不限流
+     */
+    public HttpRateLimitPolicy getRateLimitPolicy() {
+        return rateLimitPolicy;
+    }
+
+    /**
+     * 设置限流策略
+     * 限流位于重试之内，每次重试同样消耗令牌
+     *
+     * @param rateLimitPolicy 限流策略，为 null 时不限流
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setRateLimitPolicy(HttpRateLimitPolicy rateLimitPolicy) {
+        this.rateLimitPolicy = rateLimitPolicy;
+        return this;
+    }
+
+    /**
+     * 获取响应体大小上限
+     *
+     * @return 大小上限，单位：字节，0 表示不限制
+     */
+    public long getMaxResponseBytes() {
+        return maxResponseBytes;
+    }
+
+    /**
+     * 获取响应体超过上限时的处理方式
+     *
+     * @return 处理方式
+     */
+    public HttpResponseLimitMode getResponseLimitMode() {
+        return responseLimitMode;
+    }
+
+    /**
+     * 设置响应体大小上限，读取响应体时逐段检查，超过上限立即中止，不会把超大响应整体读入内存
+     *
+     * @param maxResponseBytes 大小上限，单位：字节，0 表示不限制
+     * @param mode             超过上限时的处理方式，为 null 时中止读取
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setMaxResponseBytes(long maxResponseBytes, HttpResponseLimitMode mode) {
+        this.maxResponseBytes = Math.max(0, maxResponseBytes);
+        this.responseLimitMode = mode == null ? HttpResponseLimitMode.ABORT : mode;
+        return this;
+    }
+
+    /**
+     * 获取请求体压缩编码
+     *
+     * @return 压缩编码，为 null 时不压缩
+     */
+    public HttpContentEncoding getRequestEncoding() {
+        return requestEncoding;
+    }
+
+    /**
+     * 获取请求体压缩阈值
+     *
+     * @return 阈值，单位：字节
+     */
+    public long getRequestCompressionThresholdBytes() {
+        return requestCompressionThresholdBytes;
+    }
+
+    /**
+     * 设置请求体压缩，仅对不小于阈值的请求体生效，需确认服务端支持对应的 Content-Encoding
+     * 长度未知的请求体（如 {@code HttpUtils.postJson} 的序列化请求体）先序列化至多阈值大小的内容判断是否压缩，
+     * 超过阈值时重新序列化并边序列化边压缩，不生成完整的中间数据
+     *
+     * @param encoding       压缩编码，为 null 时不压缩
+     * @param thresholdBytes 压缩阈值，单位：字节
+     * @return 当前对象，支持链式调用
+     */
+    public HttpClientProfile setRequestCompression(HttpContentEncoding encoding, long thresholdBytes) {
+        this.requestEncoding = encoding;
+        this.requestCompressionThresholdBytes = Math.max(0, thresholdBytes);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpClientProfile{name='" + name + "', maxIdleConnections=" + maxIdleConnections
+                + ", keepAliveMillis=" + keepAliveMillis + ", connectTimeoutMillis=" + connectTimeoutMillis
+                + ", readTimeoutMillis=" + readTimeoutMillis + ", writeTimeoutMillis=" + writeTimeoutMillis
+                + ", callTimeoutMillis=" + callTimeoutMillis + ", maxRequests=" + maxRequests
+                + ", maxRequestsPerHost=" + maxRequestsPerHost + ", protocols=" + protocols + ", dns=" + dns
+                + ", retryOnConnectionFailure=" + retryOnConnectionFailure
+                + ", diskCacheDirectory=" + diskCacheDirectory + ", diskCacheMaxBytes=" + diskCacheMaxBytes
+                + ", memoryCacheMaxEntries=" + memoryCacheMaxEntries
+                + ", memoryCacheMaxEntryBytes=" + memoryCacheMaxEntryBytes + ", coalesceGet=" + coalesceGet
+                + ", coalesceKeyHeaders=" + coalesceKeyHeaders + ", retryPolicy=" + retryPolicy
+                + ", circuitBreakerPolicy=" + circuitBreakerPolicy + ", rateLimitPolicy=" + rateLimitPolicy
+                + ", maxResponseBytes=" + maxResponseBytes + ", responseLimitMode=" + responseLimitMode
+                + ", requestEncoding=" + requestEncoding
+                + ", requestCompressionThresholdBytes=" + requestCompressionThresholdBytes + '}';
+    }
+}
@@ -0,0 +1,475 @@
+package com.suxiaoshuai.util.httpclient;
+
+import com.suxiaoshuai.exception.SxsToolsException;
+import com.suxiaoshuai.util.string.StringUtil;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.File;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP 客户端注册中心
+ * <p>
+ * 按名称管理 {@link HttpClientProfile}，每个配置对应一个独立连接池与调度器的 OkHttpClient，
+ * 所有配置共享同一个调度线程池，每个客户端都内置按 host 统计的调用指标。未指定配置名称的请求使用 {@link #DEFAULT_PROFILE}，
+ * 其参数与 HttpUtils 原有的单例客户端一致，可通过重新注册同名配置覆盖
+ *
+ * @author sxs
+ */
+public final class HttpClientRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientRegistry.class);
+
+    /**
+     * 默认配置名称
+     */
+    public static final String DEFAULT_PROFILE = "default";
+
+    /**
+     * 所有配置共享的异步调度线程池，与 OkHttp 默认调度线程池参数一致
+     */
+    private static final ExecutorService dispatcherExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+            60, TimeUnit.SECONDS, new SynchronousQueue<>(), new DispatcherThreadFactory());
+
+    /**
+     * 已注册的配置与客户端
+     */
+    private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 基础客户端，保存各配置共用的 SSL 设置
+     */
+    private static final OkHttpClient baseClient;
+
+    static {
+        TrustManager[] trustManagers = buildTrustManagers();
+        baseClient = new OkHttpClient.Builder()
+                .sslSocketFactory(createSSLSocketFactory(trustManagers), (X509TrustManager) trustManagers[0])
+                .hostnameVerifier((hostName, session) -> true)
+                .build();
+        register(new HttpClientProfile(DEFAULT_PROFILE));
+    }
+
+    private HttpClientRegistry() {
+    }
+
+    /**
+     * 注册配置，同名配置已存在时替换，被替换客户端的空闲连接会被关闭
+     * 磁盘缓存目录不变时新客户端沿用已打开的磁盘缓存（容量保持不变），目录变化时旧缓存在旧客户端执行中的调用结束后关闭
+     *
+     * @param profile 客户端配置，注册时复制一份，之后修改入参不影响已注册的配置
+     */
+    public static void register(HttpClientProfile profile) {
+        if (profile == null || StringUtil.isBlank(profile.getName())) {
+            throw new SxsToolsException("http client profile name must not be blank");
+        }
+        HttpClientProfile snapshot = profile.copy();
+        // 先替换再释放，替换期间并发获取的始终是可用的客户端；
+        // 同名配置的替换串行执行，同一磁盘缓存目录始终只有一个打开的缓存实例
+        Entry[] replaced = new Entry[1];
+        Entry current = entries.compute(snapshot.getName(), (name, old) -> {
+            replaced[0] = old;
+            return buildEntry(snapshot, old);
+        });
+        if (replaced[0] != null) {
+            release(replaced[0], current);
+        }
+        logger.info("register http client profile:{}", snapshot);
+    }
+
+    /**
+     * 移除配置，默认配置不可移除
+     *
+     * @param name 配置名称
+     * @return 配置存在且被移除返回 true
+     */
+    public static boolean remove(String name) {
+        if (DEFAULT_PROFILE.equals(name)) {
+            throw new SxsToolsException("default http client profile can not be removed");
+        }
+        Entry old = name == null ? null : entries.remove(name);
+        if (old == null) {
+            return false;
+        }
+        release(old, null);
+        return true;
+    }
+
+    /**
+     * 获取配置对应的客户端
+     *
+     * @param name 配置名称，为空时返回默认配置的客户端
+     * @return OkHttpClient
+     * @throws SxsToolsException 配置不存在
+     */
+    public static OkHttpClient getClient(String name) {
+        return getEntry(name).client;
+    }
+
+    /**
+     * 获取已注册的配置
+     *
+     * @param name 配置名称，为空时返回默认配置
+     * @return 配置副本
+     * @throws SxsToolsException 配置不存在
+     */
+    public static HttpClientProfile getProfile(String name) {
+        return getEntry(name).profile.copy();
+    }
+
+    /**
+     * 获取所有已注册的配置名称
+     *
+     * @return 配置名称集合
+     */
+    public static Set<String> getProfileNames() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * 获取配置的响应缓存统计
+     *
+     * @param name 配置名称，为空时返回默认配置的统计
+     * @return 缓存统计快照，配置未启用缓存时返回 null
+     * @throws SxsToolsException 配置不存在
+     */
+    public static HttpCacheStats getCacheStats(String name) {
+        HttpResponseCache responseCache = getEntry(name).responseCache;
+        return responseCache == null ? null : responseCache.stats();
+    }
+
+    /**
+     * 获取配置的调用指标，包括各阶段耗时分布、调用数、执行中调用数与连接复用情况
+     *
+     * @param name 配置名称，为空时返回默认配置的指标
+     * @return host 到指标快照的映射，按 host 排序
+     * @throws SxsToolsException 配置不存在
+     */
+    public static Map<String, HttpHostMetrics> getMetrics(String name) {
+        return Collections.unmodifiableMap(getEntry(name).metrics.snapshot());
+    }
+
+    /**
+     * 获取配置下各 host 的熔断器状态
+     *
+     * @param name 配置名称，为空时返回默认配置的状态
+     * @return host 到熔断器状态的映射，按 host 排序，配置未启用熔断时为空
+     * @throws SxsToolsException 配置不存在
+     */
+    public static Map<String, HttpCircuitState> getCircuitStates(String name) {
+        HttpCircuitBreakerInterceptor circuitBreaker = getEntry(name).circuitBreaker;
+        return circuitBreaker == null ? Collections.emptyMap() : Collections.unmodifiableMap(circuitBreaker.states());
+    }
+
+    /**
+     * 获取配置的请求体压缩统计
+     *
+     * @param name 配置名称，为空时返回默认配置的统计
+     * @return 压缩统计快照，配置未启用请求体压缩时返回 null
+     * @throws SxsToolsException 配置不存在
+     */
+    public static HttpCompressionStats getCompressionStats(String name) {
+        HttpRequestCompressor compressor = getEntry(name).compressor;
+        return compressor == null ? null : compressor.stats();
+    }
+
+    /**
+     * 获取配置的响应体大小限制统计
+     *
+     * @param name 配置名称，为空时返回默认配置的统计
+     * @return 统计快照，配置未限制响应体大小时返回 null
+     * @throws SxsToolsException 配置不存在
+     */
+    public static HttpResponseLimitStats getResponseLimitStats(String name) {
+        HttpResponseLimiter responseLimiter = getEntry(name).responseLimiter;
+        return responseLimiter == null ? null : responseLimiter.stats();
+    }
+
+    /**
+     * 异步预热配置的连接池，对每个目标建立指定数量的空闲连接，以 HEAD / 请求建立连接
+     * 空闲连接在配置的 keepAlive 时长后被回收，预热后应尽快接入流量或调大 keepAlive
+     *
+     * @param name                 配置名称，为空时预热默认配置
+     * @param targets              目标列表，如 api.example.com:443，端口为 443 时使用 https，否则使用 http；也可传入完整地址
+     * @param connectionsPerTarget 每个目标建立的连接数，所有目标的连接总数不应超过配置的最大空闲连接数
+     * @return 预热结果的 CompletableFuture，所有预热请求结束后完成
+     * @throws SxsToolsException 配置不存在或连接数不大于0
+     */
+    public static CompletableFuture<HttpWarmUpResult> warmUp(String name, List<String> targets, int connectionsPerTarget) {
+        return warmUp(name, targets, connectionsPerTarget, "/");
+    }
+
+    /**
+     * 异步预热配置的连接池，对每个目标建立指定数量的空闲连接
+     *
+     * @param name                 配置名称，为空时预热默认配置
+     * @param targets              目标列表，如 api.example.com:443，端口为 443 时使用 https，否则使用 http；也可传入完整地址
+     * @param connectionsPerTarget 每个目标建立的连接数，所有目标的连接总数不应超过配置的最大空闲连接数
+     * @param path                 预热 HEAD 请求的路径
+     * @return 预热结果的 CompletableFuture，所有预热请求结束后完成
+     * @throws SxsToolsException 配置不存在或连接数不大于0
+     */
+    public static CompletableFuture<HttpWarmUpResult> warmUp(String name, List<String> targets, int connectionsPerTarget,
+                                                             String path) {
+        Entry entry = getEntry(name);
+        return HttpConnectionWarmer.warmUp(entry.profile, entry.client, targets, connectionsPerTarget, path);
+    }
+
+    /**
+     * 获取已注册的配置，不复制，仅供内部只读使用
+     *
+     * @param name 配置名称，为空时返回默认配置
+     * @return 配置
+     */
+    static HttpClientProfile profile(String name) {
+        return getEntry(name).profile;
+    }
+
+    /**
+     * 获取配置的指标采集器，仅供内部使用
+     *
+     * @param name 配置名称，为空时返回默认配置的采集器
+     * @return 指标采集器
+     */
+    static HttpMetrics metrics(String name) {
+        return getEntry(name).metrics;
+    }
+
+    /**
+     * 获取配置的重试拦截器，仅供内部使用
+     *
+     * @param name 配置名称，为空时返回默认配置的拦截器
+     * @return 重试拦截器，未设置重试策略时为 null
+     */
+    static HttpRetryInterceptor retryInterceptor(String name) {
+        return getEntry(name).retryInterceptor;
+    }
+
+    /**
+     * 获取配置的限流拦截器，仅供内部使用
+     *
+     * @param name 配置名称，为空时返回默认配置的拦截器
+     * @return 限流拦截器，未设置限流策略时为 null
+     */
+    static HttpRateLimiter rateLimiter(String name) {
+        return getEntry(name).rateLimiter;
+    }
+
+    private static Entry getEntry(String name) {
+        Entry entry = entries.get(StringUtil.isBlank(name) ? DEFAULT_PROFILE : name);
+        if (entry == null) {
+            throw new SxsToolsException("http client profile not found: " + name);
+        }
+        return entry;
+    }
+
+    private static Entry buildEntry(HttpClientProfile profile, Entry old) {
+        HttpMetrics metrics = new HttpMetrics();
+        Dispatcher dispatcher = new Dispatcher(dispatcherExecutor);
+        dispatcher.setMaxRequests(profile.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(profile.getMaxRequestsPerHost());
+        OkHttpClient.Builder builder = baseClient.newBuilder()
+                .connectTimeout(profile.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(profile.getReadTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .writeTimeout(profile.getWriteTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .callTimeout(profile.getCallTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .retryOnConnectionFailure(profile.isRetryOnConnectionFailure())
+                .connectionPool(new ConnectionPool(profile.getMaxIdleConnections(), profile.getKeepAliveMillis(),
+                        TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .eventListenerFactory(metrics);
+        if (profile.getDns() != null) {
+            builder.dns(profile.getDns());
+        }
+        if (profile.getProtocols() != null && !profile.getProtocols().isEmpty()) {
+            builder.protocols(profile.getProtocols());
+        }
+        HttpResponseLimiter responseLimiter = null;
+        if (profile.getMaxResponseBytes() > 0) {
+            // 位于最外层，缓存命中的响应同样受限制
+            responseLimiter = new HttpResponseLimiter(profile.getMaxResponseBytes(), profile.getResponseLimitMode());
+            builder.addInterceptor(responseLimiter);
+        }
+        HttpResponseCache responseCache = null;
+        if (profile.isCacheEnabled()) {
+            Cache diskCache = null;
+            if (profile.getDiskCacheDirectory() != null) {
+                File directory = profile.getDiskCacheDirectory().toFile();
+                Cache previous = old == null ? null : old.client.cache();
+                // OkHttp 不支持同一目录同时打开多个缓存实例，目录不变时沿用被替换客户端的缓存
+                diskCache = previous != null && previous.directory().equals(directory) ? previous
+                        : new Cache(directory, profile.getDiskCacheMaxBytes());
+                builder.cache(diskCache);
+            }
+            responseCache = new HttpResponseCache(profile.getMemoryCacheMaxEntries(),
+                    profile.getMemoryCacheMaxEntryBytes(), diskCache);
+            builder.addInterceptor(responseCache);
+        }
+        HttpCircuitBreakerInterceptor circuitBreaker = null;
+        if (profile.getCircuitBreakerPolicy() != null) {
+            circuitBreaker = new HttpCircuitBreakerInterceptor(profile.getName(), profile.getCircuitBreakerPolicy());
+            builder.addInterceptor(circuitBreaker);
+        }
+        HttpRetryInterceptor retryInterceptor = null;
+        if (profile.getRetryPolicy() != null) {
+            // 位于缓存之后，只重试真正访问网络的请求
+            retryInterceptor = new HttpRetryInterceptor(profile.getRetryPolicy());
+            builder.addInterceptor(retryInterceptor);
+        }
+        HttpRateLimiter rateLimiter = null;
+        if (profile.getRateLimitPolicy() != null) {
+            // 位于重试之后，每次访问网络都消耗令牌
+            rateLimiter = new HttpRateLimiter(profile.getName(), profile.getRateLimitPolicy());
+            builder.addInterceptor(rateLimiter);
+        }
+        HttpRequestCompressor compressor = null;
+        if (profile.getRequestEncoding() != null) {
+            // 位于重试之后，每次重试重新压缩并计入统计
+            compressor = new HttpRequestCompressor(profile.getRequestEncoding(),
+                    profile.getRequestCompressionThresholdBytes());
+            builder.addInterceptor(compressor);
+        }
+        return new Entry(profile, builder.build(), responseCache, metrics, retryInterceptor, circuitBreaker,
+                rateLimiter, compressor, responseLimiter);
+    }
+
+    /**
+     * 释放被替换或移除的客户端，磁盘缓存未被新客户端沿用时，在旧客户端执行中的调用结束后关闭
+     *
+     * @param entry   被替换或移除的客户端
+     * @param current 替换后的客户端，移除时为 null
+     */
+    private static void release(Entry entry, Entry current) {
+        entry.client.connectionPool().evictAll();
+        Cache cache = entry.client.cache();
+        if (cache == null || (current != null && current.client.cache() == cache)) {
+            return;
+        }
+        AtomicBoolean closed = new AtomicBoolean();
+        Runnable close = () -> {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                cache.close();
+            } catch (IOException e) {
+                logger.warn("close http cache of profile:{} error", entry.profile.getName(), e);
+            }
+        };
+        Dispatcher dispatcher = entry.client.dispatcher();
+        dispatcher.setIdleCallback(close);
+        if (dispatcher.runningCallsCount() == 0) {
+            close.run();
+        }
+    }
+
+    /**
+     * 生成安全套接字工厂，用于 HTTPS 请求的证书跳过
+     *
+     * @param trustAllCerts 信任管理器数组
+     * @return SSL 套接字工厂
+     */
+    private static SSLSocketFactory createSSLSocketFactory(TrustManager[] trustAllCerts) {
+        SSLSocketFactory ssfFactory = null;
+        try {
+            SSLContext sc = SSLContext.getInstance("TLS");
+            sc.init(null, trustAllCerts, new SecureRandom());
+            ssfFactory = sc.getSocketFactory();
+        } catch (Exception e) {
+            logger.warn("create SSL Socket Factory exception", e);
+        }
+        return ssfFactory;
+    }
+
+    /**
+     * 构建信任所有证书的信任管理器
+     *
+     * @return 信任管理器数组
+     */
+    private static TrustManager[] buildTrustManagers() {
+        return new TrustManager[]{
+                new X509TrustManager() {
+                    @Override
+                    public void checkClientTrusted(X509Certificate[] chain, String authType) {
+                    }
+
+                    @Override
+                    public void checkServerTrusted(X509Certificate[] chain, String authType) {
+                    }
+
+                    @Override
+                    public X509Certificate[] getAcceptedIssuers() {
+                        return new X509Certificate[]{};
+                    }
+                }
+        };
+    }
+
+    /**
+     * 已注册的配置及其客户端
+     */
+    private static final class Entry {
+        private final HttpClientProfile profile;
+        private final OkHttpClient client;
+        private final HttpResponseCache responseCache;
+        private final HttpMetrics metrics;
+        private final HttpRetryInterceptor retryInterceptor;
+        private final HttpCircuitBreakerInterceptor circuitBreaker;
+        private final HttpRateLimiter rateLimiter;
+        private final HttpRequestCompressor compressor;
+        private final HttpResponseLimiter responseLimiter;
+
+        private Entry(HttpClientProfile profile, OkHttpClient client, HttpResponseCache responseCache,
+                      HttpMetrics metrics, HttpRetryInterceptor retryInterceptor,
+                      HttpCircuitBreakerInterceptor circuitBreaker, HttpRateLimiter rateLimiter,
+                      HttpRequestCompressor compressor, HttpResponseLimiter responseLimiter) {
+            this.profile = profile;
+            this.client = client;
+            this.responseCache = responseCache;
+            this.metrics = metrics;
+            this.retryInterceptor = retryInterceptor;
+            this.circuitBreaker = circuitBreaker;
+            this.rateLimiter = rateLimiter;
+            this.compressor = compressor;
+            this.responseLimiter = responseLimiter;
+        }
+    }
+
+    /**
+     * 调度线程工厂，创建守护线程，不阻止 JVM 退出
+     */
+    private static final class DispatcherThreadFactory implements ThreadFactory {
+        private final AtomicInteger index = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "sxs-okhttp-dispatcher-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.suxiaoshuai.util.httpclient;
+
+/**
+ * 请求体压缩统计快照
+ *
+ * @author sxs
+ */
+public class HttpCompressionStats {
+
+    /**
+     * 已压缩发送的请求体数，重试重复发送时重复计数
+     */
+    private final long compressedCount;
+    /**
+     * 低于阈值未压缩的请求体数
+     */
+    private final long skippedCount;
+    /**
+     * 已压缩请求体的原始字节数
+     */
+    private final long rawBytes;
+    /**
+     * 已压缩请求体压缩后的字节数
+     */
+    private final long compressedBytes;
+
+    HttpCompressionStats(long compressedCount, long skippedCount, long rawBytes, long compressedBytes) {
+        this.compressedCount = compressedCount;
+        this.skippedCount = skippedCount;
+        this.rawBytes = rawBytes;
+        this.compressedBytes = compressedBytes;
+    }
+
+    /**
+     * 获取已压缩发送的请求体数
+     *
+     * @return 请求体数
+     */
+    public long getCompressedCount() {
+        return compressedCount;
+    }
+
+    /**
+     * 获取低于阈值未压缩的请求体数
+     *
+     * @return 请求体数
+     */
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * 获取已压缩请求体的原始字节数
+     *
+     * @return 原始字节数
+     */
+    public long getRawBytes() {
+        return rawBytes;
+    }
+
+    /**
+     * 获取已压缩请求体压缩后的字节数
+     *
+     * @return 压缩后字节数
+     */
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    /**
+     * 获取压缩率，即压缩后字节数与原始字节数之比
+     *
+     * @return 压缩率，尚未压缩过请求体时为 1
+     */
+    public double getRatio() {
+        return rawBytes == 0 ? 1 : (double) compressedBytes / rawBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCompressionStats{compressedCount=" + compressedCount + ", skippedCount=" + skippedCount
+                + ", rawBytes=" + rawBytes + ", compressedBytes=" + compressedBytes + ", ratio=" + getRatio() + '}';
+    }
+}
@@ -0,0 +1,134 @@
+package com.suxiaoshuai.util.httpclient;
+
+import com.suxiaoshuai.exception.SxsToolsException;
+import okhttp3.Connection;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接预热
+ * <p>
+ * OkHttp 4 没有直接建立空闲连接的接口，这里对每个目标并发发出 N 个 HEAD 请求，
+ * 请求在网络拦截器中等待同一目标的其余请求都拿到连接后才发出，保证建立 N 条不同的连接，
+ * 响应结束后连接回到配置的连接池中成为空闲连接。预热请求不经过配置的缓存、熔断、重试与限流
+ *
+ * @author sxs
+ */
+class HttpConnectionWarmer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpConnectionWarmer.class);
+
+    private HttpConnectionWarmer() {
+    }
+
+    /**
+     * 异步预热连接
+     *
+     * @param profile              配置
+     * @param client               配置的客户端
+     * @param targets              目标列表，host:port 或完整地址
+     * @param connectionsPerTarget 每个目标建立的连接数
+     * @param path                 预热请求的路径
+     * @return 预热结果
+     */
+    static CompletableFuture<HttpWarmUpResult> warmUp(HttpClientProfile profile, OkHttpClient client,
+                                                      List<String> targets, int connectionsPerTarget, String path) {
+        if (connectionsPerTarget <= 0) {
+            throw new SxsToolsException("connectionsPerTarget must be positive: " + connectionsPerTarget);
+        }
+        long start = System.nanoTime();
+        int total = targets.size() * connectionsPerTarget;
+        if (total > profile.getMaxIdleConnections()) {
+            logger.warn("okhttp warm up {} connections exceeds maxIdleConnections of profile:{}, extra connections will be evicted",
+                    total, profile.getName());
+        }
+        // 等待同一目标其余请求拿到连接的最长时间
+        long timeoutMillis = profile.getConnectTimeoutMillis();
+        ExecutorService executor = HttpBatchExecutor.newExecutor(Math.max(1, total));
+        Map<String, Set<Connection>> connections = new LinkedHashMap<>();
+        Map<String, String> failures = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(total);
+        for (String target : targets) {
+            Set<Connection> acquired = ConcurrentHashMap.newKeySet();
+            connections.put(target, acquired);
+            HttpUrl url;
+            try {
+                url = toUrl(target, path);
+            } catch (Exception e) {
+                failures.put(target, String.valueOf(e.getMessage()));
+                continue;
+            }
+            CountDownLatch barrier = new CountDownLatch(connectionsPerTarget);
+            OkHttpClient warmClient = warmClient(client, acquired, barrier, timeoutMillis);
+            Request request = new Request.Builder().url(url).head().build();
+            for (int i = 0; i < connectionsPerTarget; i++) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        // 只需要建立连接，直接关闭响应
+                        warmClient.newCall(request).execute().close();
+                    } catch (Exception e) {
+                        barrier.countDown();
+                        failures.putIfAbsent(target, String.valueOf(e.getMessage()));
+                    }
+                }, executor));
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .handle((v, t) -> {
+                    executor.shutdown();
+                    Map<String, Integer> counts = new LinkedHashMap<>();
+                    boolean ready = true;
+                    for (Map.Entry<String, Set<Connection>> entry : connections.entrySet()) {
+                        Set<Connection> acquired = entry.getValue();
+                        boolean multiplexed = acquired.stream().anyMatch(c -> c.protocol() == Protocol.HTTP_2
+                                || c.protocol() == Protocol.H2_PRIOR_KNOWLEDGE);
+                        counts.put(entry.getKey(), acquired.size());
+                        ready &= multiplexed ? !acquired.isEmpty() : acquired.size() >= connectionsPerTarget;
+                    }
+                    HttpWarmUpResult result = new HttpWarmUpResult(profile.getName(), connectionsPerTarget, counts, failures,
+                            ready, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    logger.info("okhttp warm up finished, result:{}", result);
+                    return result;
+                });
+    }
+
+    private static OkHttpClient warmClient(OkHttpClient client, Set<Connection> acquired, CountDownLatch barrier,
+                                           long timeoutMillis) {
+        OkHttpClient.Builder builder = client.newBuilder().cache(null);
+        builder.interceptors().clear();
+        return builder.addNetworkInterceptor(chain -> {
+            acquired.add(chain.connection());
+            barrier.countDown();
+            try {
+                // 持有连接直到同一目标的其余请求都拿到连接，迫使它们新建连接而不是复用
+                barrier.await(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while warming up connections");
+            }
+            return chain.proceed(chain.request());
+        }).build();
+    }
+
+    private static HttpUrl toUrl(String target, String path) {
+        String base = target.contains("://") ? target : (target.endsWith(":443") ? "https://" : "http://") + target;
+        HttpUrl url = HttpUrl.get(base);
+        return url.newBuilder().encodedPath(path == null || path.isEmpty() ? "/" : path).build();
+    }
+}
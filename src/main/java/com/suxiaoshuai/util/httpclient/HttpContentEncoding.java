@@ -0,0 +1,33 @@
+package com.suxiaoshuai.util.httpclient;
+
+/**
+ * 请求体压缩编码
+ *
+ * @author sxs
+ */
+public enum HttpContentEncoding {
+    /**
+     * gzip 格式
+     */
+    GZIP("gzip"),
+    /**
+     * zlib 格式，即 HTTP 中的 deflate 编码
+     */
+    DEFLATE("deflate"),
+    ;
+
+    private final String headerValue;
+
+    HttpContentEncoding(String headerValue) {
+        this.headerValue = headerValue;
+    }
+
+    /**
+     * 获取 Content-Encoding 请求头的值
+     *
+     * @return 请求头的值
+     */
+    public String getHeaderValue() {
+        return headerValue;
+    }
+}
@@ -0,0 +1,144 @@
+package com.suxiaoshuai.util.httpclient;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 单个 host 的调用指标快照
+ *
+ * @author sxs
+ */
+public class HttpHostMetrics {
+
+    /**
+     * host，超出统计上限的 host 合并计入 "_other"
+     */
+    private final String host;
+    /**
+     * 已结束的调用数
+     */
+    private final long callCount;
+    /**
+     * 失败的调用数
+     */
+    private final long failedCount;
+    /**
+     * 执行中的调用数
+     */
+    private final long inFlight;
+    /**
+     * 获取连接的次数
+     */
+    private final long connectionAcquiredCount;
+    /**
+     * 新建连接的次数
+     */
+    private final long newConnectionCount;
+    /**
+     * 各阶段耗时分布
+     */
+    private final Map<HttpPhase, HttpLatencySnapshot> latencies;
+
+    HttpHostMetrics(String host, long callCount, long failedCount, long inFlight, long connectionAcquiredCount,
+                    long newConnectionCount, Map<HttpPhase, HttpLatencySnapshot> latencies) {
+        this.host = host;
+        this.callCount = callCount;
+        this.failedCount = failedCount;
+        this.inFlight = inFlight;
+        this.connectionAcquiredCount = connectionAcquiredCount;
+        this.newConnectionCount = newConnectionCount;
+        this.latencies = Collections.unmodifiableMap(latencies);
+    }
+
+    /**
+     * 获取 host
+     *
+     * @return host
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 获取已结束的调用数
+     *
+     * @return 调用数，含失败的调用
+     */
+    public long getCallCount() {
+        return callCount;
+    }
+
+    /**
+     * 获取失败的调用数
+     *
+     * @return 失败的调用数
+     */
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * 获取执行中的调用数
+     *
+     * @return 执行中的调用数
+     */
+    public long getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * 获取获取连接的次数
+     *
+     * @return 获取连接的次数，包括复用连接与新建连接
+     */
+    public long getConnectionAcquiredCount() {
+        return connectionAcquiredCount;
+    }
+
+    /**
+     * 获取新建连接的次数
+     *
+     * @return 新建连接的次数
+     */
+    public long getNewConnectionCount() {
+        return newConnectionCount;
+    }
+
+    /**
+     * 获取连接复用率
+     *
+     * @return 复用连接的获取次数占比，尚未获取过连接时为 0
+     */
+    public double getConnectionReuseRatio() {
+        if (connectionAcquiredCount == 0) {
+            return 0;
+        }
+        return Math.max(0, connectionAcquiredCount - newConnectionCount) / (double) connectionAcquiredCount;
+    }
+
+    /**
+     * 获取指定阶段的耗时分布
+     *
+     * @param phase 阶段
+     * @return 耗时分布
+     */
+    public HttpLatencySnapshot getLatency(HttpPhase phase) {
+        return latencies.get(phase);
+    }
+
+    /**
+     * 获取各阶段耗时分布
+     *
+     * @return 阶段到耗时分布的映射
+     */
+    public Map<HttpPhase, HttpLatencySnapshot> getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpHostMetrics{host='" + host + "', callCount=" + callCount + ", failedCount=" + failedCount
+                + ", inFlight=" + inFlight + ", connectionAcquiredCount=" + connectionAcquiredCount
+                + ", newConnectionCount=" + newConnectionCount + ", latencies=" + latencies + '}';
+    }
+}
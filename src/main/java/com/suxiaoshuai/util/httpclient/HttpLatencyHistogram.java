@@ -0,0 +1,129 @@
+package com.suxiaoshuai.util.httpclient;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntToLongFunction;
+
+/**
+ * 无锁耗时直方图，单位：微秒
+ * <p>
+ * 采用对数分桶，每个 2 的幂区间再等分为 8 个子桶，相对误差不超过 12.5%，
+ * 可记录的最大值约为 25 天。记录过程只做原子自增，不分配对象
+ *
+ * @author sxs
+ */
+class HttpLatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    private final IntToLongFunction liveBuckets = buckets::get;
+
+    /**
+     * 记录一次耗时
+     *
+     * @param micros 耗时，单位：微秒，负数按 0 记录
+     */
+    void record(long micros) {
+        long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+        buckets.incrementAndGet(index(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // 自旋直至更新成功或已有更大值
+        }
+    }
+
+    /**
+     * 获取记录次数
+     *
+     * @return 记录次数
+     */
+    long count() {
+        return count.get();
+    }
+
+    /**
+     * 直接在当前分桶上计算分位值，不生成快照，不分配对象
+     *
+     * @param percentile 分位，如 0.95
+     * @return 分位值，单位：微秒，尚无记录时为 0
+     */
+    long percentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += buckets.get(i);
+        }
+        return percentile(liveBuckets, total, percentile, max.get());
+    }
+
+    /**
+     * 生成快照，快照期间的并发记录可能只被部分计入
+     *
+     * @return 耗时快照
+     */
+    HttpLatencySnapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = buckets.get(i);
+            total += copy[i];
+        }
+        long maxValue = max.get();
+        long mean = total == 0 ? 0 : sum.get() / total;
+        IntToLongFunction bucket = i -> copy[i];
+        return new HttpLatencySnapshot(total, mean, maxValue, percentile(bucket, total, 0.5, maxValue),
+                percentile(bucket, total, 0.99, maxValue), percentile(bucket, total, 0.999, maxValue));
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        int sub = index % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + sub) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * 按累计计数查找分位值所在分桶，返回该分桶上界与最大值中的较小者
+     *
+     * @param bucket     分桶计数
+     * @param total      总计数
+     * @param percentile 分位
+     * @param maxValue   记录过的最大值
+     * @return 分位值，总计数为 0 时为 0
+     */
+    private static long percentile(IntToLongFunction bucket, long total, double percentile, long maxValue) {
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile * total));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += bucket.applyAsLong(i);
+            if (cumulative >= target) {
+                return Math.min(upperBound(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+}
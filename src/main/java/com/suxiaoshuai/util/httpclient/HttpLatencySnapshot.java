@@ -0,0 +1,104 @@
+package com.suxiaoshuai.util.httpclient;
+
+/**
+ * 耗时分布快照，单位：微秒
+ * 分位值为所在分桶的上界，相对误差不超过 12.5%
+ *
+ * @author sxs
+ */
+public class HttpLatencySnapshot {
+
+    /**
+     * 记录次数
+     */
+    private final long count;
+    /**
+     * 平均耗时
+     */
+    private final long meanMicros;
+    /**
+     * 最大耗时
+     */
+    private final long maxMicros;
+    /**
+     * 50 分位耗时
+     */
+    private final long p50Micros;
+    /**
+     * 99 分位耗时
+     */
+    private final long p99Micros;
+    /**
+     * 99.9 分位耗时
+     */
+    private final long p999Micros;
+
+    HttpLatencySnapshot(long count, long meanMicros, long maxMicros, long p50Micros, long p99Micros, long p999Micros) {
+        this.count = count;
+        this.meanMicros = meanMicros;
+        this.maxMicros = maxMicros;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.p999Micros = p999Micros;
+    }
+
+    /**
+     * 获取记录次数
+     *
+     * @return 记录次数
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * 获取平均耗时
+     *
+     * @return 平均耗时，单位：微秒
+     */
+    public long getMeanMicros() {
+        return meanMicros;
+    }
+
+    /**
+     * 获取最大耗时
+     *
+     * @return 最大耗时，单位：微秒
+     */
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    /**
+     * 获取 50 分位耗时
+     *
+     * @return 50 分位耗时，单位：微秒
+     */
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    /**
+     * 获取 99 分位耗时
+     *
+     * @return 99 分位耗时，单位：微秒
+     */
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    /**
+     * 获取 99.9 分位耗时
+     *
+     * @return 99.9 分位耗时，单位：微秒
+     */
+    public long getP999Micros() {
+        return p999Micros;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpLatencySnapshot{count=" + count + ", meanMicros=" + meanMicros + ", maxMicros=" + maxMicros
+                + ", p50Micros=" + p50Micros + ", p99Micros=" + p99Micros + ", p999Micros=" + p999Micros + '}';
+    }
+}
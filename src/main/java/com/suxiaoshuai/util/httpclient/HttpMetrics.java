@@ -0,0 +1,234 @@
+package com.suxiaoshuai.util.httpclient;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于 OkHttp {@link EventListener} 的调用指标采集
+ * <p>
+ * 按 host 记录 DNS、建连、TLS、首字节、响应体传输与整个调用的耗时分布，以及调用数、执行中调用数和连接复用情况。
+ * 每次调用只分配一个监听器对象，各事件的记录均为原子自增，不再分配对象
+ *
+ * @author sxs
+ */
+class HttpMetrics implements EventListener.Factory {
+
+    /**
+     * 最多单独统计的 host 数
+     */
+    static final int MAX_HOSTS = 1024;
+    /**
+     * 超出统计上限的 host 合并计入的名称
+     */
+    static final String OTHER_HOST = "_other";
+
+    private final Map<String, HostRecorder> hosts = new ConcurrentHashMap<>();
+
+    @Override
+    public EventListener create(Call call) {
+        return new CallListener(host(call.request().url().host()));
+    }
+
+    /**
+     * 生成各 host 的指标快照
+     *
+     * @return host 到指标快照的映射，按 host 排序
+     */
+    Map<String, HttpHostMetrics> snapshot() {
+        Map<String, HttpHostMetrics> result = new TreeMap<>();
+        hosts.forEach((host, recorder) -> result.put(host, recorder.snapshot()));
+        return result;
+    }
+
+    /**
+     * 获取 host 某阶段的耗时分位值
+     *
+     * @param host       host
+     * @param phase      阶段
+     * @param percentile 分位，如 0.95
+     * @param minSamples 最少记录次数
+     * @return 分位值，单位：微秒，host 未统计或记录次数不足时返回 -1
+     */
+    long percentileMicros(String host, HttpPhase phase, double percentile, int minSamples) {
+        HostRecorder recorder = hosts.get(host);
+        if (recorder == null) {
+            return -1;
+        }
+        HttpLatencyHistogram histogram = recorder.histograms[phase.ordinal()];
+        return histogram.count() < minSamples ? -1 : histogram.percentile(percentile);
+    }
+
+    private HostRecorder host(String host) {
+        HostRecorder recorder = hosts.get(host);
+        if (recorder != null) {
+            return recorder;
+        }
+        return hosts.computeIfAbsent(hosts.size() >= MAX_HOSTS ? OTHER_HOST : host, HostRecorder::new);
+    }
+
+    /**
+     * 单个 host 的指标记录
+     */
+    private static final class HostRecorder {
+        private final String host;
+        private final HttpLatencyHistogram[] histograms = new HttpLatencyHistogram[HttpPhase.values().length];
+        private final AtomicLong callCount = new AtomicLong();
+        private final AtomicLong failedCount = new AtomicLong();
+        private final AtomicLong inFlight = new AtomicLong();
+        private final AtomicLong connectionAcquiredCount = new AtomicLong();
+        private final AtomicLong newConnectionCount = new AtomicLong();
+
+        private HostRecorder(String host) {
+            this.host = host;
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new HttpLatencyHistogram();
+            }
+        }
+
+        private void record(HttpPhase phase, long startNanos, long endNanos) {
+            if (startNanos == 0 || endNanos < startNanos) {
+                return;
+            }
+            histograms[phase.ordinal()].record(TimeUnit.NANOSECONDS.toMicros(endNanos - startNanos));
+        }
+
+        private HttpHostMetrics snapshot() {
+            Map<HttpPhase, HttpLatencySnapshot> latencies = new EnumMap<>(HttpPhase.class);
+            for (HttpPhase phase : HttpPhase.values()) {
+                latencies.put(phase, histograms[phase.ordinal()].snapshot());
+            }
+            return new HttpHostMetrics(host, callCount.get(), failedCount.get(), inFlight.get(),
+                    connectionAcquiredCount.get(), newConnectionCount.get(), latencies);
+        }
+    }
+
+    /**
+     * 单次调用的监听器，只在调用线程与 OkHttp 内部线程间顺序访问
+     */
+    private static final class CallListener extends EventListener {
+        private final HostRecorder recorder;
+        private long callStart;
+        private long dnsStart;
+        private long connectStart;
+        private long secureConnectStart;
+        private long requestEnd;
+        private long responseBodyStart;
+
+        private CallListener(HostRecorder recorder) {
+            this.recorder = recorder;
+        }
+
+        @Override
+        public void callStart(Call call) {
+            callStart = System.nanoTime();
+            recorder.inFlight.incrementAndGet();
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            recorder.record(HttpPhase.DNS, dnsStart, System.nanoTime());
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectStart = System.nanoTime();
+            secureConnectStart = 0;
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            secureConnectStart = System.nanoTime();
+            recorder.record(HttpPhase.CONNECT, connectStart, secureConnectStart);
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            recorder.record(HttpPhase.TLS, secureConnectStart, System.nanoTime());
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            if (secureConnectStart == 0) {
+                recorder.record(HttpPhase.CONNECT, connectStart, System.nanoTime());
+            }
+            recorder.newConnectionCount.incrementAndGet();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            recorder.connectionAcquiredCount.incrementAndGet();
+        }
+
+        @Override
+        public void requestHeadersEnd(Call call, Request request) {
+            requestEnd = System.nanoTime();
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            requestEnd = System.nanoTime();
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            recorder.record(HttpPhase.TIME_TO_FIRST_BYTE, requestEnd, System.nanoTime());
+        }
+
+        @Override
+        public void responseBodyStart(Call call) {
+            responseBodyStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            recorder.record(HttpPhase.BODY, responseBodyStart, System.nanoTime());
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            end(false, true);
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            // 主动取消的调用（如对冲请求中落后的一方）不计入耗时与失败数
+            end(true, !call.isCanceled());
+        }
+
+        private void end(boolean failed, boolean record) {
+            if (callStart == 0) {
+                return;
+            }
+            if (record) {
+                recorder.record(HttpPhase.TOTAL, callStart, System.nanoTime());
+                recorder.callCount.incrementAndGet();
+                if (failed) {
+                    recorder.failedCount.incrementAndGet();
+                }
+            }
+            recorder.inFlight.decrementAndGet();
+            callStart = 0;
+        }
+    }
+}
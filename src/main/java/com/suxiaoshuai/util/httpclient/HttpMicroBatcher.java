@@ -0,0 +1,407 @@
+package com.suxiaoshuai.util.httpclient;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.suxiaoshuai.exception.SxsToolsException;
+import com.suxiaoshuai.util.json.JsonUtil;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * 合并小请求的批量 POST 客户端
+ * <p>
+ * 按目标地址缓冲提交的元素，元素数达到 maxBatchSize、序列化字节数达到 maxBatchBytes
+ * 或最早的元素等待超过 maxDelay 时，将缓冲的元素以 {@link JsonUtil} 序列化为一个 Json 数组异步发送。
+ * 每个元素对应一个 CompletableFuture，由批量响应拆分后完成。
+ * 每个地址已提交未完成的元素数不超过 maxPendingItems，超过时提交方阻塞等待，等待超时则以异常完成。
+ * 支持链式设置，使用完毕后应调用 {@link #close()} 发送剩余元素
+ *
+ * @author sxs
+ */
+public class HttpMicroBatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpMicroBatcher.class);
+
+    private static final byte[] COMMA = {','};
+    private static final byte[] OPEN = {'['};
+    private static final byte[] CLOSE = {']'};
+
+    /**
+     * 单批最大元素数
+     */
+    private int maxBatchSize = 100;
+    /**
+     * 单批最大字节数
+     */
+    private long maxBatchBytes = 1024 * 1024;
+    /**
+     * 元素最长等待时间，单位：毫秒
+     */
+    private long maxDelayMillis = 50;
+    /**
+     * 每个地址已提交未完成的最大元素数
+     */
+    private int maxPendingItems = 10_000;
+    /**
+     * 缓冲已满时提交方的最长等待时间，单位：毫秒
+     */
+    private long submitTimeoutMillis = TimeUnit.SECONDS.toMillis(HttpUtils.TIME_OUT);
+    /**
+     * 客户端配置名称
+     */
+    private String profile;
+    /**
+     * 请求头
+     */
+    private Map<String, String> headerMap;
+    /**
+     * 将批量响应拆分为每个元素的结果，入参为响应内容与批次元素数
+     */
+    private BiFunction<String, Integer, List<String>> responseSplitter = HttpMicroBatcher::splitJsonArray;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "sxs-okhttp-micro-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder itemCount = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * 提交元素
+     *
+     * @param url  目标地址，接收 Json 数组
+     * @param item 元素，以 {@link JsonUtil#toJson(Object)} 序列化，字符串视为 Json 原样发送
+     * @return 元素结果的 CompletableFuture，批次发送失败、响应状态码非 2xx 或提交等待超时时以异常完成
+     */
+    public CompletableFuture<String> submit(String url, Object item) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new SxsToolsException("micro batcher is closed"));
+        }
+        String json = JsonUtil.toJson(item);
+        if (json == null) {
+            return CompletableFuture.failedFuture(new SxsToolsException("serialize item to json failed"));
+        }
+        Endpoint endpoint = endpoints.computeIfAbsent(url, Endpoint::new);
+        try {
+            if (!endpoint.pending.tryAcquire(submitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(new SxsToolsException("micro batcher buffer is full, url:" + url));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        Item pending = new Item(json.getBytes(StandardCharsets.UTF_8));
+        endpoint.add(pending);
+        return pending.future;
+    }
+
+    /**
+     * 立即发送所有地址缓冲的元素
+     */
+    public void flush() {
+        endpoints.values().forEach(Endpoint::flush);
+    }
+
+    /**
+     * 发送剩余元素并停止定时发送，之后提交的元素直接以异常完成；已发出的批次仍会正常完成
+     */
+    @Override
+    public void close() {
+        closed = true;
+        flush();
+        scheduler.shutdown();
+    }
+
+    /**
+     * 获取已发送的批次数
+     *
+     * @return 批次数
+     */
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    /**
+     * 获取已发送的元素数
+     *
+     * @return 元素数
+     */
+    public long getItemCount() {
+        return itemCount.sum();
+    }
+
+    /**
+     * 设置发送时机
+     *
+     * @param maxBatchSize  单批最大元素数
+     * @param maxBatchBytes 单批最大字节数，单个元素超过该值时单独成批
+     * @param maxDelay      元素最长等待时间
+     * @param unit          时间单位
+     * @return 当前对象，支持链式调用
+     */
+    public HttpMicroBatcher setFlushPolicy(int maxBatchSize, long maxBatchBytes, long maxDelay, TimeUnit unit) {
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxBatchBytes = Math.max(1, maxBatchBytes);
+        this.maxDelayMillis = Math.max(0, unit.toMillis(maxDelay));
+        return this;
+    }
+
+    /**
+     * 设置缓冲上限，需在首次提交前设置
+     *
+     * @param maxPendingItems 每个地址已提交未完成的最大元素数
+     * @param submitTimeout   缓冲已满时提交方的最长等待时间
+     * @param unit            时间单位
+     * @return 当前对象，支持链式调用
+     */
+    public HttpMicroBatcher setBackpressure(int maxPendingItems, long submitTimeout, TimeUnit unit) {
+        this.maxPendingItems = Math.max(1, maxPendingItems);
+        this.submitTimeoutMillis = unit.toMillis(submitTimeout);
+        return this;
+    }
+
+    /**
+     * 设置客户端配置名称
+     *
+     * @param profile 配置名称，为空时使用默认配置
+     * @return 当前对象，支持链式调用
+     */
+    public HttpMicroBatcher setProfile(String profile) {
+        this.profile = profile;
+        return this;
+    }
+
+    /**
+     * 设置请求头
+     *
+     * @param headerMap 请求头
+     * @return 当前对象，支持链式调用
+     */
+    public HttpMicroBatcher setHeaderMap(Map<String, String> headerMap) {
+        this.headerMap = headerMap;
+        return this;
+    }
+
+    /**
+     * 设置批量响应的拆分方式
+     * 默认响应为元素数相同的 Json 数组时按下标拆分，每个元素的结果为对应数组元素的 Json，否则每个元素的结果均为整个响应
+     *
+     * @param responseSplitter 入参为响应内容与批次元素数，返回与批次元素一一对应的结果
+     * @return 当前对象，支持链式调用
+     */
+    public HttpMicroBatcher setResponseSplitter(BiFunction<String, Integer, List<String>> responseSplitter) {
+        this.responseSplitter = responseSplitter;
+        return this;
+    }
+
+    private static List<String> splitJsonArray(String body, Integer size) {
+        String trimmed = body == null ? "" : body.trim();
+        if (trimmed.startsWith("[")) {
+            List<Object> elements = JsonUtil.parse(trimmed, new TypeReference<List<Object>>() {
+            });
+            if (elements != null && elements.size() == size) {
+                List<String> results = new ArrayList<>(size);
+                for (Object element : elements) {
+                    results.add(element instanceof String ? (String) element : JsonUtil.toJson(element));
+                }
+                return results;
+            }
+        }
+        List<String> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            results.add(body);
+        }
+        return results;
+    }
+
+    private void send(String url, List<Item> batch) {
+        batchCount.increment();
+        itemCount.add(batch.size());
+        Request.Builder request = new Request.Builder().url(url).post(new BatchBody(batch));
+        if (headerMap != null) {
+            headerMap.forEach(request::addHeader);
+        }
+        Call call;
+        try {
+            call = HttpClientRegistry.getClient(profile).newCall(request.build());
+        } catch (Exception e) {
+            complete(url, batch, null, e);
+            return;
+        }
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                complete(url, batch, null, e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (ResponseBody body = response.body()) {
+                    String text = body == null ? null : HttpResponseLimiter.string(body);
+                    if (!response.isSuccessful()) {
+                        complete(url, batch, null, new SxsToolsException("micro batch post failed, url:" + url
+                                + ", status:" + response.code()));
+                        return;
+                    }
+                    complete(url, batch, responseSplitter.apply(text, batch.size()), null);
+                } catch (Exception e) {
+                    complete(url, batch, null, e);
+                }
+            }
+        });
+    }
+
+    private void complete(String url, List<Item> batch, List<String> results, Throwable error) {
+        if (error == null && (results == null || results.size() != batch.size())) {
+            error = new SxsToolsException("micro batch response does not match batch size:" + batch.size());
+        }
+        if (error != null) {
+            logger.error("okHttpUtils micro batch url:{}, size:{}, error", url, batch.size(), error);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Item item = batch.get(i);
+            if (error == null) {
+                item.future.complete(results.get(i));
+            } else {
+                item.future.completeExceptionally(error);
+            }
+        }
+        Endpoint endpoint = endpoints.get(url);
+        if (endpoint != null) {
+            endpoint.pending.release(batch.size());
+        }
+    }
+
+    /**
+     * 单个地址的缓冲区
+     */
+    private final class Endpoint {
+        private final String url;
+        private final Semaphore pending = new Semaphore(maxPendingItems);
+        private List<Item> buffer = new ArrayList<>();
+        private long bufferBytes;
+        private ScheduledFuture<?> timer;
+
+        private Endpoint(String url) {
+            this.url = url;
+        }
+
+        private void add(Item item) {
+            List<List<Item>> ready = new ArrayList<>(2);
+            synchronized (this) {
+                // 加入后超过字节上限时先发出已缓冲的元素
+                if (!buffer.isEmpty() && bufferBytes + item.json.length + 1 > maxBatchBytes) {
+                    ready.add(drain());
+                }
+                buffer.add(item);
+                bufferBytes += item.json.length + 1;
+                if (closed || buffer.size() >= maxBatchSize || bufferBytes >= maxBatchBytes) {
+                    ready.add(drain());
+                } else if (timer == null) {
+                    timer = scheduler.schedule(this::flush, maxDelayMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+            for (List<Item> batch : ready) {
+                send(url, batch);
+            }
+        }
+
+        private void flush() {
+            List<Item> batch;
+            synchronized (this) {
+                batch = buffer.isEmpty() ? null : drain();
+            }
+            if (batch != null) {
+                send(url, batch);
+            }
+        }
+
+        /**
+         * 取出缓冲的元素，调用方需持有锁
+         */
+        private List<Item> drain() {
+            List<Item> batch = buffer;
+            buffer = new ArrayList<>();
+            bufferBytes = 0;
+            if (timer != null) {
+                timer.cancel(false);
+                timer = null;
+            }
+            return batch;
+        }
+    }
+
+    /**
+     * 已序列化的元素
+     */
+    private static final class Item {
+        private final byte[] json;
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+
+        private Item(byte[] json) {
+            this.json = json;
+        }
+    }
+
+    /**
+     * 将一批元素写为 Json 数组的请求体，直接写出各元素的序列化结果，不拼接中间字符串
+     */
+    private static final class BatchBody extends RequestBody {
+        private final List<Item> batch;
+
+        private BatchBody(List<Item> batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return JsonRequestBody.JSON;
+        }
+
+        @Override
+        public long contentLength() {
+            long length = 2 + Math.max(0, batch.size() - 1);
+            for (Item item : batch) {
+                length += item.json.length;
+            }
+            return length;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            sink.write(OPEN);
+            for (int i = 0; i < batch.size(); i++) {
+                if (i > 0) {
+                    sink.write(COMMA);
+                }
+                sink.write(batch.get(i).json);
+            }
+            sink.write(CLOSE);
+        }
+    }
+}
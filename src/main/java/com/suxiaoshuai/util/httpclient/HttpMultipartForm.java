@@ -0,0 +1,248 @@
+package com.suxiaoshuai.util.httpclient;
+
+import com.suxiaoshuai.callback.HttpProgressCallback;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.Okio;
+import okio.Source;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * multipart/form-data 表单
+ * 文件部分在发送时才从 {@link Path}、{@link InputStream} 或 {@link FileChannel} 流式读取，
+ * 上传过程中只占用固定大小的缓冲区，与文件大小无关。支持链式设置
+ *
+ * @author sxs
+ */
+public class HttpMultipartForm {
+
+    private static final MediaType OCTET_STREAM = MediaType.parse("application/octet-stream");
+
+    /**
+     * FileChannel 每次读取的字节数
+     */
+    private static final int CHANNEL_BUFFER_SIZE = 8 * 1024;
+
+    private final MultipartBody.Builder builder = new MultipartBody.Builder().setType(MultipartBody.FORM);
+    /**
+     * 是否包含只能读取一次的部分
+     */
+    private boolean oneShot;
+    private HttpProgressCallback progressCallback;
+
+    /**
+     * 添加普通字段
+     *
+     * @param name  字段名
+     * @param value 字段值
+     * @return 当前对象，支持链式调用
+     */
+    public HttpMultipartForm addField(String name, String value) {
+        builder.addFormDataPart(name, value);
+        return this;
+    }
+
+    /**
+     * 添加文件，发送时从文件流式读取，可被重试重复发送
+     *
+     * @param name        字段名
+     * @param fileName    文件名
+     * @param path        文件路径
+     * @param contentType 文件类型，为 null 时使用 application/octet-stream
+     * @return 当前对象，支持链式调用
+     */
+    public HttpMultipartForm addFile(String name, String fileName, Path path, String contentType) {
+        builder.addFormDataPart(name, fileName, new StreamBody(mediaType(contentType), -1) {
+            @Override
+            public long contentLength() throws IOException {
+                return Files.size(path);
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                try (Source source = Okio.source(path)) {
+                    sink.writeAll(source);
+                }
+            }
+        });
+        return this;
+    }
+
+    /**
+     * 添加文件，发送时从输入流读取；输入流只能读取一次，包含该部分的请求不会被重试，
+     * 输入流在发送完成后关闭
+     *
+     * @param name          字段名
+     * @param fileName      文件名
+     * @param in            输入流
+     * @param contentLength 输入流内容的字节数
+     * @param contentType   文件类型，为 null 时使用 application/octet-stream
+     * @return 当前对象，支持链式调用
+     */
+    public HttpMultipartForm addFile(String name, String fileName, InputStream in, long contentLength, String contentType) {
+        oneShot = true;
+        builder.addFormDataPart(name, fileName, new StreamBody(mediaType(contentType), contentLength) {
+            @Override
+            public boolean isOneShot() {
+                return true;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                try (Source source = Okio.source(in)) {
+                    sink.write(source, contentLength);
+                }
+            }
+        });
+        return this;
+    }
+
+    /**
+     * 添加文件，发送时从通道起始位置读取整个文件，按位置读取不改变通道的位置，可被重试重复发送；
+     * 通道由调用方负责关闭
+     *
+     * @param name        字段名
+     * @param fileName    文件名
+     * @param channel     文件通道
+     * @param contentType 文件类型，为 null 时使用 application/octet-stream
+     * @return 当前对象，支持链式调用
+     */
+    public HttpMultipartForm addFile(String name, String fileName, FileChannel channel, String contentType) {
+        builder.addFormDataPart(name, fileName, new StreamBody(mediaType(contentType), -1) {
+            @Override
+            public long contentLength() throws IOException {
+                return channel.size();
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                ByteBuffer buffer = ByteBuffer.allocate(CHANNEL_BUFFER_SIZE);
+                long length = channel.size();
+                long position = 0;
+                while (position < length) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(buffer.capacity(), length - position));
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new IOException("file channel truncated while uploading, expected " + length + " bytes");
+                    }
+                    buffer.flip();
+                    sink.write(buffer);
+                    position += read;
+                }
+            }
+        });
+        return this;
+    }
+
+    /**
+     * 设置上传进度回调
+     *
+     * @param progressCallback 进度回调
+     * @return 当前对象，支持链式调用
+     */
+    public HttpMultipartForm setProgressCallback(HttpProgressCallback progressCallback) {
+        this.progressCallback = progressCallback;
+        return this;
+    }
+
+    /**
+     * 构建请求体
+     *
+     * @return 请求体
+     */
+    RequestBody build() {
+        MultipartBody body = builder.build();
+        return oneShot || progressCallback != null ? new ProgressBody(body, oneShot, progressCallback) : body;
+    }
+
+    private static MediaType mediaType(String contentType) {
+        MediaType mediaType = contentType == null ? null : MediaType.parse(contentType);
+        return mediaType == null ? OCTET_STREAM : mediaType;
+    }
+
+    /**
+     * 长度已知、发送时才读取内容的请求体
+     */
+    private abstract static class StreamBody extends RequestBody {
+        private final MediaType contentType;
+        private final long contentLength;
+
+        private StreamBody(MediaType contentType, long contentLength) {
+            this.contentType = contentType;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return contentType;
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return contentLength;
+        }
+    }
+
+    /**
+     * 统计写出字节数并回调进度的请求体，同时标记是否只能发送一次
+     */
+    private static final class ProgressBody extends RequestBody {
+        private final RequestBody delegate;
+        private final boolean oneShot;
+        private final HttpProgressCallback callback;
+
+        private ProgressBody(RequestBody delegate, boolean oneShot, HttpProgressCallback callback) {
+            this.delegate = delegate;
+            this.oneShot = oneShot;
+            this.callback = callback;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return oneShot;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            if (callback == null) {
+                delegate.writeTo(sink);
+                return;
+            }
+            long contentLength = delegate.contentLength();
+            BufferedSink progressSink = Okio.buffer(new ForwardingSink(sink) {
+                private long bytesWritten;
+
+                @Override
+                public void write(Buffer source, long byteCount) throws IOException {
+                    super.write(source, byteCount);
+                    bytesWritten += byteCount;
+                    callback.onProgress(bytesWritten, contentLength);
+                }
+            });
+            delegate.writeTo(progressSink);
+            // 只刷新不关闭，底层 sink 由 OkHttp 关闭
+            progressSink.flush();
+        }
+    }
+}
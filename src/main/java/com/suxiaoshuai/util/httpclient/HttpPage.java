@@ -0,0 +1,66 @@
+package com.suxiaoshuai.util.httpclient;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 分页查询的一页结果
+ *
+ * @param <T> 元素类型
+ * @author sxs
+ */
+public class HttpPage<T> {
+
+    /**
+     * 本页元素
+     */
+    private final List<T> items;
+    /**
+     * 下一页的游标，为 null 或空串时表示没有下一页
+     */
+    private final String nextCursor;
+
+    private HttpPage(List<T> items, String nextCursor) {
+        this.items = items == null ? Collections.emptyList() : items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * 创建一页结果
+     *
+     * @param <T>        元素类型
+     * @param items      本页元素
+     * @param nextCursor 下一页的游标，为 null 或空串时表示没有下一页
+     * @return 一页结果
+     */
+    public static <T> HttpPage<T> of(List<T> items, String nextCursor) {
+        return new HttpPage<>(items, nextCursor);
+    }
+
+    /**
+     * 获取本页元素
+     *
+     * @return 本页元素
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * 获取下一页的游标
+     *
+     * @return 下一页的游标，为 null 或空串时表示没有下一页
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * 是否有下一页
+     *
+     * @return 有下一页返回 true
+     */
+    public boolean hasNext() {
+        return nextCursor != null && !nextCursor.isEmpty();
+    }
+}
@@ -0,0 +1,150 @@
+package com.suxiaoshuai.util.httpclient;
+
+import com.suxiaoshuai.exception.SxsToolsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+/**
+ * 预取分页结果的元素迭代器，由 {@link HttpPagination#iterator()} 创建
+ * 查询失败时 {@link #hasNext()} 抛出 {@link SxsToolsException}；只能由一个线程消费
+ *
+ * @param <T> 元素类型
+ * @author sxs
+ */
+public class HttpPageIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpPageIterator.class);
+
+    /**
+     * 查询结束标记
+     */
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> pages;
+    private final ExecutorService executor;
+    private Iterator<T> current;
+    private boolean finished;
+    private volatile boolean closed;
+    private int fetchedPages;
+
+    HttpPageIterator(Function<String, HttpRequestSpec> request, String initialCursor,
+                     HttpPagination.PageParser<T> parser, int prefetch, int maxPages) {
+        // 队列满时后台线程阻塞，已预取 prefetch 页时最多再有一页在请求中
+        this.pages = new ArrayBlockingQueue<>(prefetch);
+        this.executor = HttpBatchExecutor.newExecutor(1);
+        executor.execute(() -> fetch(request, initialCursor, parser, maxPages));
+    }
+
+    private void fetch(Function<String, HttpRequestSpec> request, String cursor, HttpPagination.PageParser<T> parser,
+                       int maxPages) {
+        try {
+            int count = 0;
+            while (!closed) {
+                HttpRequestSpec spec = request.apply(cursor);
+                HttpResult<String> result = HttpUtils.get(spec, HttpResponseHandler.ofString());
+                if (result == null || !result.isSuccess()) {
+                    pages.put(new Failure("fetch page failed, spec:" + spec + ", status:"
+                            + (result == null ? null : result.getStatusCode()), null));
+                    return;
+                }
+                HttpPage<T> page = parser.parse(cursor, result.getBody());
+                pages.put(page.getItems());
+                if (!page.hasNext() || (maxPages > 0 && ++count >= maxPages)) {
+                    pages.put(END);
+                    return;
+                }
+                cursor = page.getNextCursor();
+            }
+        } catch (InterruptedException e) {
+            // 迭代器已关闭
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("okHttpUtils fetch page error", e);
+            try {
+                pages.put(new Failure("fetch page error: " + e.getMessage(), e));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean hasNext() {
+        while (current == null || !current.hasNext()) {
+            if (finished) {
+                return false;
+            }
+            Object next;
+            try {
+                next = pages.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new SxsToolsException("interrupted while waiting for page");
+            }
+            if (next == END) {
+                close();
+                return false;
+            }
+            if (next instanceof Failure) {
+                close();
+                throw new SxsToolsException(((Failure) next).message, ((Failure) next).cause);
+            }
+            fetchedPages++;
+            current = ((List<T>) next).iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * 获取已开始消费的页数
+     *
+     * @return 页数
+     */
+    public int getFetchedPages() {
+        return fetchedPages;
+    }
+
+    /**
+     * 停止后台预取并丢弃已预取的页
+     */
+    @Override
+    public void close() {
+        finished = true;
+        if (!closed) {
+            closed = true;
+            executor.shutdownNow();
+            pages.clear();
+        }
+    }
+
+    /**
+     * 查询失败
+     */
+    private static final class Failure {
+        private final String message;
+        private final Throwable cause;
+
+        private Failure(String message, Throwable cause) {
+            this.message = message;
+            this.cause = cause;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.suxiaoshuai.util.httpclient;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 分页 GET 查询
+ * <p>
+ * 支持游标分页与偏移量分页，以 {@link HttpPageIterator} 或 {@link Stream} 惰性遍历所有元素。
+ * 后台线程（JDK 支持时为虚拟线程）按顺序预取至多 prefetch 页，消费跟不上时后台线程阻塞等待，
+ * 使网络等待与元素处理重叠。支持链式设置
+ *
+ * @param <T> 元素类型
+ * @author sxs
+ */
+public class HttpPagination<T> {
+
+    private final HttpRequestSpec spec;
+    private final String cursorParam;
+    private final String initialCursor;
+    /**
+     * 入参为当前页游标与响应内容，返回当前页结果
+     */
+    private final PageParser<T> parser;
+    /**
+     * 预取的页数
+     */
+    private int prefetch = 2;
+    /**
+     * 最多查询的页数，0 表示不限制
+     */
+    private int maxPages;
+
+    private HttpPagination(HttpRequestSpec spec, String cursorParam, String initialCursor, PageParser<T> parser) {
+        this.spec = spec;
+        this.cursorParam = cursorParam;
+        this.initialCursor = initialCursor;
+        this.parser = parser;
+    }
+
+    /**
+     * 创建游标分页查询，首页请求不带游标参数，之后每页带上前一页返回的游标
+     *
+     * @param <T>         元素类型
+     * @param spec        首页请求描述
+     * @param cursorParam 游标参数名
+     * @param parser      将响应内容解析为一页结果，包含下一页的游标
+     * @return 分页查询
+     */
+    public static <T> HttpPagination<T> cursor(HttpRequestSpec spec, String cursorParam,
+                                               Function<String, HttpPage<T>> parser) {
+        return new HttpPagination<>(spec, cursorParam, null, (cursor, body) -> parser.apply(body));
+    }
+
+    /**
+     * 创建偏移量分页查询，偏移量从 0 开始，某页元素数少于 pageSize 时结束
+     *
+     * @param <T>         元素类型
+     * @param spec        请求描述
+     * @param offsetParam 偏移量参数名
+     * @param limitParam  每页条数参数名
+     * @param pageSize    每页条数
+     * @param parser      将响应内容解析为本页元素
+     * @return 分页查询
+     */
+    public static <T> HttpPagination<T> offset(HttpRequestSpec spec, String offsetParam, String limitParam,
+                                               int pageSize, Function<String, List<T>> parser) {
+        Map<String, String> params = spec.getParamMap() == null ? new HashMap<>() : new HashMap<>(spec.getParamMap());
+        params.put(limitParam, String.valueOf(pageSize));
+        HttpRequestSpec limited = HttpRequestSpec.of(spec.getUrl(), params, spec.getHeaderMap())
+                .setProfile(spec.getProfile());
+        return new HttpPagination<>(limited, offsetParam, "0", (cursor, body) -> {
+            List<T> items = parser.apply(body);
+            boolean last = items == null || items.size() < pageSize;
+            return HttpPage.of(items, last ? null : String.valueOf(Long.parseLong(cursor) + pageSize));
+        });
+    }
+
+    /**
+     * 设置预取的页数
+     *
+     * @param prefetch 预取的页数，最小为1
+     * @return 当前对象，支持链式调用
+     */
+    public HttpPagination<T> setPrefetch(int prefetch) {
+        this.prefetch = Math.max(1, prefetch);
+        return this;
+    }
+
+    /**
+     * 设置最多查询的页数
+     *
+     * @param maxPages 最多查询的页数，0 表示不限制
+     * @return 当前对象，支持链式调用
+     */
+    public HttpPagination<T> setMaxPages(int maxPages) {
+        this.maxPages = Math.max(0, maxPages);
+        return this;
+    }
+
+    /**
+     * 开始查询并返回元素迭代器，每次调用都从首页重新查询
+     * 未遍历完时应调用 {@link HttpPageIterator#close()} 停止后台预取
+     *
+     * @return 元素迭代器
+     */
+    public HttpPageIterator<T> iterator() {
+        return new HttpPageIterator<>(this::request, initialCursor, parser, prefetch, maxPages);
+    }
+
+    /**
+     * 开始查询并返回元素流，每次调用都从首页重新查询
+     * 未遍历完时应关闭流停止后台预取，建议使用 try-with-resources
+     *
+     * @return 元素流
+     */
+    public Stream<T> stream() {
+        HttpPageIterator<T> iterator = iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(iterator::close);
+    }
+
+    private HttpRequestSpec request(String cursor) {
+        if (cursor == null) {
+            return spec;
+        }
+        Map<String, String> params = spec.getParamMap() == null ? new HashMap<>() : new HashMap<>(spec.getParamMap());
+        params.put(cursorParam, cursor);
+        return HttpRequestSpec.of(spec.getUrl(), params, spec.getHeaderMap()).setProfile(spec.getProfile());
+    }
+
+    /**
+     * 页解析器
+     *
+     * @param <T> 元素类型
+     */
+    @FunctionalInterface
+    interface PageParser<T> {
+        /**
+         * 解析一页结果
+         *
+         * @param cursor 当前页游标，首页可能为 null
+         * @param body   响应内容
+         * @return 一页结果
+         */
+        HttpPage<T> parse(String cursor, String body);
+    }
+}
@@ -0,0 +1,33 @@
+package com.suxiaoshuai.util.httpclient;
+
+/**
+ * HTTP 调用的耗时阶段
+ *
+ * @author sxs
+ */
+public enum HttpPhase {
+    /**
+     * DNS 解析
+     */
+    DNS,
+    /**
+     * TCP 建连，不含 TLS 握手
+     */
+    CONNECT,
+    /**
+     * TLS 握手
+     */
+    TLS,
+    /**
+     * 请求发送完毕到收到响应头，即等待首字节
+     */
+    TIME_TO_FIRST_BYTE,
+    /**
+     * 响应体传输
+     */
+    BODY,
+    /**
+     * 整个调用
+     */
+    TOTAL,
+}
@@ -0,0 +1,47 @@
+package com.suxiaoshuai.util.httpclient;
+
+import okhttp3.Protocol;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * HTTP 协议模式
+ * HTTP/2 下同一 host 的并发请求复用一条连接，使用时应同时调大 {@link HttpClientProfile#setMaxRequestsPerHost(int)}，
+ * 否则异步请求会先被调度器按 host 限流，无法体现多路复用；
+ * 连接尚未建立时同时发起的大量请求会各自建连，对延迟敏感的场景应先发起一次请求建立连接
+ *
+ * @author sxs
+ */
+public enum HttpProtocolMode {
+    /**
+     * 仅使用 HTTP/1.1，并发请求依赖连接池中的多条连接
+     */
+    HTTP_1_1(Collections.singletonList(Protocol.HTTP_1_1)),
+    /**
+     * HTTPS 通过 ALPN 协商 HTTP/2，服务端不支持时回退到 HTTP/1.1，明文 HTTP 仍使用 HTTP/1.1
+     */
+    HTTP_2(Collections.unmodifiableList(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))),
+    /**
+     * 明文 HTTP/2（h2c prior knowledge），不经协商直接发送 HTTP/2 帧，
+     * 仅适用于确认支持 h2c 的内部服务，不能访问 HTTPS 地址
+     */
+    H2C(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE)),
+    ;
+
+    private final List<Protocol> protocols;
+
+    HttpProtocolMode(List<Protocol> protocols) {
+        this.protocols = protocols;
+    }
+
+    /**
+     * 获取该模式对应的 OkHttp 协议列表
+     *
+     * @return 不可修改的协议列表
+     */
+    public List<Protocol> getProtocols() {
+        return protocols;
+    }
+}
@@ -0,0 +1,21 @@
+package com.suxiaoshuai.util.httpclient;
+
+/**
+ * 令牌不足时的处理方式
+ *
+ * @author sxs
+ */
+public enum HttpRateLimitMode {
+    /**
+     * 等待直到获得令牌
+     */
+    BLOCK,
+    /**
+     * 最多等待指定时间，预计超过该时间才能获得令牌时直接拒绝
+     */
+    WAIT,
+    /**
+     * 没有可用令牌时直接拒绝
+     */
+    REJECT,
+}
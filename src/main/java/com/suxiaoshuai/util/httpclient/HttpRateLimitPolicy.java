@@ -0,0 +1,163 @@
+package com.suxiaoshuai.util.httpclient;
+
+import com.suxiaoshuai.exception.SxsToolsException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌桶限流策略
+ * <p>
+ * 令牌以 permitsPerSecond 的速率匀速生成，桶内最多积累 burst 个令牌，空闲后可立即连续发出 burst 个请求；
+ * 每次访问网络（包括重试）消耗一个令牌，令牌不足时按 {@link HttpRateLimitMode} 等待或抛出 {@link HttpRateLimitedException}。
+ * 同步请求在调用线程中等待，异步请求预约令牌后延迟入队，等待期间不占用线程。
+ * 支持链式设置
+ *
+ * @author sxs
+ */
+public class HttpRateLimitPolicy {
+
+    /**
+     * 每秒生成的令牌数
+     */
+    private double permitsPerSecond = 10;
+    /**
+     * 桶容量，即允许的突发请求数
+     */
+    private int burst = 1;
+    /**
+     * 令牌不足时的处理方式
+     */
+    private HttpRateLimitMode mode = HttpRateLimitMode.BLOCK;
+    /**
+     * WAIT 模式下的最长等待时间，单位：毫秒
+     */
+    private long maxWaitMillis = TimeUnit.SECONDS.toMillis(HttpUtils.TIME_OUT);
+    /**
+     * 是否按 host 分别限流，为 false 时整个配置共用一个令牌桶
+     */
+    private boolean perHost = true;
+
+    /**
+     * 复制当前策略
+     *
+     * @return 新的策略对象
+     */
+    public HttpRateLimitPolicy copy() {
+        HttpRateLimitPolicy copy = new HttpRateLimitPolicy();
+        copy.permitsPerSecond = permitsPerSecond;
+        copy.burst = burst;
+        copy.mode = mode;
+        copy.maxWaitMillis = maxWaitMillis;
+        copy.perHost = perHost;
+        return copy;
+    }
+
+    /**
+     * 获取每秒生成的令牌数
+     *
+     * @return 每秒令牌数
+     */
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * 获取桶容量
+     *
+     * @return 允许的突发请求数
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * 设置令牌生成速率与桶容量
+     *
+     * @param permitsPerSecond 每秒生成的令牌数，必须大于0
+     * @param burst            桶容量，即允许的突发请求数，最小为1
+     * @return 当前对象，支持链式调用
+     * @throws SxsToolsException permitsPerSecond 不大于0
+     */
+    public HttpRateLimitPolicy setRate(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0)) {
+            throw new SxsToolsException("permitsPerSecond must be positive: " + permitsPerSecond);
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = Math.max(1, burst);
+        return this;
+    }
+
+    /**
+     * 获取令牌不足时的处理方式
+     *
+     * @return 处理方式
+     */
+    public HttpRateLimitMode getMode() {
+        return mode;
+    }
+
+    /**
+     * 获取 WAIT 模式下的最长等待时间
+     *
+     * @return 最长等待时间，单位：毫秒
+     */
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    /**
+     * 设置令牌不足时的处理方式
+     *
+     * @param mode    处理方式
+     * @param maxWait WAIT 模式下的最长等待时间，其他模式忽略
+     * @param unit    时间单位
+     * @return 当前对象，支持链式调用
+     */
+    public HttpRateLimitPolicy setMode(HttpRateLimitMode mode, long maxWait, TimeUnit unit) {
+        this.mode = mode == null ? HttpRateLimitMode.BLOCK : mode;
+        this.maxWaitMillis = unit.toMillis(maxWait);
+        return this;
+    }
+
+    /**
+     * 是否按 host 分别限流
+     *
+     * @return 按 host 限流返回 true，默认为 true
+     */
+    public boolean isPerHost() {
+        return perHost;
+    }
+
+    /**
+     * 设置是否按 host 分别限流
+     *
+     * @param perHost 为 false 时整个配置共用一个令牌桶
+     * @return 当前对象，支持链式调用
+     */
+    public HttpRateLimitPolicy setPerHost(boolean perHost) {
+        this.perHost = perHost;
+        return this;
+    }
+
+    /**
+     * 获取令牌不足时允许的最长等待时间
+     *
+     * @return 最长等待时间，单位：纳秒
+     */
+    long maxWaitNanos() {
+        switch (mode) {
+            case REJECT:
+                return 0;
+            case WAIT:
+                return TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+            default:
+                return Long.MAX_VALUE;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HttpRateLimitPolicy{permitsPerSecond=" + permitsPerSecond + ", burst=" + burst + ", mode=" + mode
+                + ", maxWaitMillis=" + maxWaitMillis + ", perHost=" + perHost + '}';
+    }
+}
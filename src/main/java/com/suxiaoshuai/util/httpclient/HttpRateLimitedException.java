@@ -0,0 +1,22 @@
+package com.suxiaoshuai.util.httpclient;
+
+import java.io.IOException;
+
+/**
+ * 令牌不足时请求被限流拒绝的异常
+ * 继承自 IOException，以便经由 OkHttp 拦截器链传递给调用方
+ *
+ * @author sxs
+ */
+public class HttpRateLimitedException extends IOException {
+
+    /**
+     * 构造限流异常
+     *
+     * @param key              限流维度，按 host 限流时为 host，按配置限流时为配置名称
+     * @param permitsPerSecond 每秒令牌数
+     */
+    public HttpRateLimitedException(String key, double permitsPerSecond) {
+        super("rate limited for: " + key + ", permitsPerSecond: " + permitsPerSecond);
+    }
+}
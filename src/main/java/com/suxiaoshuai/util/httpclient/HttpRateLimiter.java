@@ -0,0 +1,149 @@
+package com.suxiaoshuai.util.httpclient;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按 {@link HttpRateLimitPolicy} 限流的应用拦截器，每个 host 或整个配置维护一个无锁令牌桶
+ *
+ * @author sxs
+ */
+class HttpRateLimiter implements Interceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpRateLimiter.class);
+
+    /**
+     * 异步请求延迟入队的调度器，只负责到点入队，不执行请求
+     */
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "sxs-okhttp-rate-limiter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String profile;
+    private final HttpRateLimitPolicy policy;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    HttpRateLimiter(String profile, HttpRateLimitPolicy policy) {
+        this.profile = profile;
+        this.policy = policy;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Permit permit = request.tag(Permit.class);
+        // 异步请求入队前已预约令牌，首次访问网络不再消耗
+        if (permit == null || !permit.consume()) {
+            long waitNanos = reserve(request.url());
+            if (waitNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted while waiting for rate limit permit");
+                }
+            }
+        }
+        return chain.proceed(request);
+    }
+
+    /**
+     * 预约一个令牌
+     *
+     * @param url 请求地址
+     * @return 获得令牌前需要等待的纳秒数
+     * @throws HttpRateLimitedException 需要等待的时间超过策略允许的等待时间，此时不消耗令牌
+     */
+    long reserve(HttpUrl url) throws HttpRateLimitedException {
+        String key = policy.isPerHost() ? url.host() : profile;
+        long waitNanos = buckets.computeIfAbsent(key, k -> new TokenBucket(policy.getPermitsPerSecond(), policy.getBurst()))
+                .reserve(System.nanoTime(), policy.maxWaitNanos());
+        if (waitNanos < 0) {
+            logger.warn("okhttp rate limited, profile:{}, key:{}", profile, key);
+            throw new HttpRateLimitedException(key, policy.getPermitsPerSecond());
+        }
+        return waitNanos;
+    }
+
+    /**
+     * 延迟执行任务，用于异步请求预约令牌后到点入队
+     *
+     * @param task       任务
+     * @param delayNanos 延迟纳秒数
+     */
+    static void schedule(Runnable task, long delayNanos) {
+        scheduler.schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 入队前预约的令牌，随请求的 tag 传递给拦截器，只能使用一次
+     */
+    static final class Permit {
+        private final AtomicBoolean consumed = new AtomicBoolean();
+
+        private boolean consume() {
+            return consumed.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * 无锁令牌桶，以 GCRA 算法实现：只记录理论上下一个令牌的可用时间，每次预约通过 CAS 推进，
+     * 不需要定时补充令牌
+     */
+    static final class TokenBucket {
+        /**
+         * 生成一个令牌的间隔，单位：纳秒
+         */
+        private final long intervalNanos;
+        /**
+         * 桶满时可提前预约的时长，单位：纳秒
+         */
+        private final long burstNanos;
+        /**
+         * 理论到达时间，即桶内令牌恰好用完的时刻
+         */
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+        TokenBucket(double permitsPerSecond, int burst) {
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+            this.burstNanos = intervalNanos * burst;
+        }
+
+        /**
+         * 预约一个令牌
+         *
+         * @param nowNanos     当前时间，单位：纳秒
+         * @param maxWaitNanos 允许的最长等待时间，单位：纳秒
+         * @return 获得令牌前需要等待的纳秒数，超过允许的等待时间时返回 -1 且不消耗令牌
+         */
+        long reserve(long nowNanos, long maxWaitNanos) {
+            while (true) {
+                long tat = theoreticalArrival.get();
+                long next = (tat == Long.MIN_VALUE || tat - nowNanos < 0 ? nowNanos : tat) + intervalNanos;
+                long waitNanos = Math.max(0, next - burstNanos - nowNanos);
+                if (waitNanos > maxWaitNanos) {
+                    return -1;
+                }
+                if (theoreticalArrival.compareAndSet(tat, next)) {
+                    return waitNanos;
+                }
+            }
+        }
+    }
+}
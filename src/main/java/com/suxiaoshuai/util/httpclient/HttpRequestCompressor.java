@@ -0,0 +1,186 @@
+package com.suxiaoshuai.util.httpclient;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.DeflaterSink;
+import okio.ForwardingSink;
+import okio.GzipSink;
+import okio.Okio;
+import okio.Sink;
+import okio.Timeout;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+/**
+ * 按 {@link HttpContentEncoding} 压缩请求体的应用拦截器，只压缩不小于阈值的请求体并统计压缩率
+ *
+ * @author sxs
+ */
+class HttpRequestCompressor implements Interceptor {
+
+    private final HttpContentEncoding encoding;
+    private final long thresholdBytes;
+    private final LongAdder compressedCount = new LongAdder();
+    private final LongAdder skippedCount = new LongAdder();
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+
+    HttpRequestCompressor(HttpContentEncoding encoding, long thresholdBytes) {
+        this.encoding = encoding;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestBody body = request.body();
+        if (body == null || body.isOneShot() || body.isDuplex() || request.header("Content-Encoding") != null) {
+            return chain.proceed(request);
+        }
+        long length = body.contentLength();
+        if (length < 0) {
+            // 长度未知时先序列化一次，只保留阈值以内的内容，未超过阈值则直接发送已序列化的内容
+            ProbeSink probe = new ProbeSink(thresholdBytes);
+            try (BufferedSink sink = Okio.buffer(probe)) {
+                body.writeTo(sink);
+            }
+            if (!probe.exceeded) {
+                skippedCount.increment();
+                return chain.proceed(request.newBuilder()
+                        .method(request.method(), RequestBody.create(probe.buffer.readByteString(), body.contentType()))
+                        .build());
+            }
+        } else if (length < thresholdBytes) {
+            skippedCount.increment();
+            return chain.proceed(request);
+        }
+        return chain.proceed(request.newBuilder()
+                .header("Content-Encoding", encoding.getHeaderValue())
+                .removeHeader("Content-Length")
+                .method(request.method(), new CompressedBody(body))
+                .build());
+    }
+
+    /**
+     * 获取压缩统计快照
+     *
+     * @return 统计快照
+     */
+    HttpCompressionStats stats() {
+        return new HttpCompressionStats(compressedCount.sum(), skippedCount.sum(), rawBytes.sum(),
+                compressedBytes.sum());
+    }
+
+    /**
+     * 边写入边压缩的请求体，长度未知，以分块方式发送
+     */
+    private final class CompressedBody extends RequestBody {
+        private final RequestBody delegate;
+
+        private CompressedBody(RequestBody delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            // 关闭编码器以写出压缩尾部，但调用方传入的 sink 只刷新不关闭
+            CountingSink compressed = new CountingSink(new NonClosingSink(sink));
+            Sink encoder = encoding == HttpContentEncoding.GZIP ? new GzipSink(compressed)
+                    : new DeflaterSink(compressed, new Deflater());
+            CountingSink raw = new CountingSink(encoder);
+            try (BufferedSink buffered = Okio.buffer(raw)) {
+                delegate.writeTo(buffered);
+            }
+            compressedCount.increment();
+            rawBytes.add(raw.count);
+            compressedBytes.add(compressed.count);
+        }
+    }
+
+    /**
+     * 统计写入字节数的 sink
+     */
+    private static final class CountingSink extends ForwardingSink {
+        private long count;
+
+        private CountingSink(Sink delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void write(Buffer source, long byteCount) throws IOException {
+            super.write(source, byteCount);
+            count += byteCount;
+        }
+    }
+
+    /**
+     * 关闭时只刷新、不关闭被包装 sink 的 sink
+     */
+    private static final class NonClosingSink extends ForwardingSink {
+        private NonClosingSink(Sink delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate().flush();
+        }
+    }
+
+    /**
+     * 探测请求体大小的 sink，写入内容达到阈值后标记超出并丢弃之后的内容
+     */
+    private static final class ProbeSink implements Sink {
+        private final Buffer buffer = new Buffer();
+        private final long limit;
+        private boolean exceeded;
+
+        private ProbeSink(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(Buffer source, long byteCount) throws IOException {
+            if (!exceeded && buffer.size() + byteCount >= limit) {
+                exceeded = true;
+                buffer.clear();
+            }
+            if (exceeded) {
+                source.skip(byteCount);
+                return;
+            }
+            buffer.write(source, byteCount);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
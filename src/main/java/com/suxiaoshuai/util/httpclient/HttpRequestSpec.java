@@ -0,0 +1,137 @@
+package com.suxiaoshuai.util.httpclient;
+
+import java.util.Map;
+
+/**
+ * HTTP 请求描述
+ * 用于批量请求等需要预先描述一组请求的场景，支持链式设置
+ *
+ * @author sxs
+ */
+public class HttpRequestSpec {
+
+    /**
+     * 请求地址
+     */
+    private String url;
+    /**
+     * 请求参数，拼接到 url 上
+     */
+    private Map<String, String> paramMap;
+    /**
+     * 请求头
+     */
+    private Map<String, String> headerMap;
+    /**
+     * 客户端配置名称，为空时使用默认配置
+     */
+    private String profile;
+
+    /**
+     * 创建请求描述
+     *
+     * @param url 请求地址
+     * @return 请求描述
+     */
+    public static HttpRequestSpec of(String url) {
+        return new HttpRequestSpec().setUrl(url);
+    }
+
+    /**
+     * 创建请求描述
+     *
+     * @param url       请求地址
+     * @param paramMap  请求参数
+     * @param headerMap 请求头
+     * @return 请求描述
+     */
+    public static HttpRequestSpec of(String url, Map<String, String> paramMap, Map<String, String> headerMap) {
+        return new HttpRequestSpec().setUrl(url).setParamMap(paramMap).setHeaderMap(headerMap);
+    }
+
+    /**
+     * 获取请求地址
+     *
+     * @return 请求地址
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * 设置请求地址
+     *
+     * @param url 请求地址
+     * @return 当前对象，支持链式调用
+     */
+    public HttpRequestSpec setUrl(String url) {
+        this.url = url;
+        return this;
+    }
+
+    /**
+     * 获取请求参数
+     *
+     * @return 请求参数
+     */
+    public Map<String, String> getParamMap() {
+        return paramMap;
+    }
+
+    /**
+     * 设置请求参数
+     *
+     * @param paramMap 请求参数
+     * @return 当前对象，支持链式调用
+     */
+    public HttpRequestSpec setParamMap(Map<String, String> paramMap) {
+        this.paramMap = paramMap;
+        return this;
+    }
+
+    /**
+     * 获取请求头
+     *
+     * @return 请求头
+     */
+    public Map<String, String> getHeaderMap() {
+        return headerMap;
+    }
+
+    /**
+     * 设置请求头
+     *
+     * @param headerMap 请求头
+     * @return 当前对象，支持链式调用
+     */
+    public HttpRequestSpec setHeaderMap(Map<String, String> headerMap) {
+        this.headerMap = headerMap;
+        return this;
+    }
+
+    /**
+     * 获取客户端配置名称
+     *
+     * @return 客户端配置名称
+     */
+    public String getProfile() {
+        return profile;
+    }
+
+    /**
+     * 设置客户端配置名称
+     *
+     * @param profile 客户端配置名称，需已在 {@link HttpClientRegistry} 注册
+     * @return 当前对象，支持链式调用
+     */
+    public HttpRequestSpec setProfile(String profile) {
+        this.profile = profile;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpRequestSpec{url='" + url + "', paramMap=" + paramMap + ", headerMap=" + headerMap
+                + ", profile='" + profile + "'}";
+    }
+}
@@ -0,0 +1,359 @@
+package com.suxiaoshuai.util.httpclient;
+
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP 响应缓存的内存层，以应用拦截器的方式工作在 OkHttp 磁盘缓存 {@link Cache} 之前
+ * <p>
+ * 只缓存 GET 请求的 200 响应，按 url 与响应 Vary 头声明的请求头取值作为键，LRU 淘汰。
+ * 新鲜度依据 Cache-Control max-age 或 Expires 计算；过期但带有 ETag / Last-Modified 的条目
+ * 以 If-None-Match / If-Modified-Since 发起条件请求，服务端返回 304 时直接使用缓存内容。
+ * 未命中内存的请求继续交给磁盘缓存处理，磁盘缓存同样遵循上述规则
+ *
+ * @author sxs
+ */
+class HttpResponseCache implements Interceptor {
+
+    /**
+     * 内存缓存最大条目数，0 表示不启用内存缓存，仅统计磁盘缓存
+     */
+    private final int maxEntries;
+    /**
+     * 单个条目最大字节数，超过的响应不进入内存缓存
+     */
+    private final long maxEntryBytes;
+    /**
+     * 磁盘缓存，未启用时为 null
+     */
+    private final Cache diskCache;
+    /**
+     * 内存缓存条目，按访问顺序排列，访问需持有自身锁
+     */
+    private final LinkedHashMap<String, CachedResponse> entries;
+    /**
+     * url 到其最近一次响应 Vary 头的映射，用于计算缓存键
+     */
+    private final Map<String, List<String>> varyIndex = new ConcurrentHashMap<>();
+
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder memoryHitCount = new LongAdder();
+    private final LongAdder memoryMissCount = new LongAdder();
+    private final LongAdder diskHitCount = new LongAdder();
+    private final LongAdder revalidatedCount = new LongAdder();
+    private final LongAdder networkCount = new LongAdder();
+
+    HttpResponseCache(int maxEntries, long maxEntryBytes, Cache diskCache) {
+        this.maxEntries = maxEntries;
+        this.maxEntryBytes = maxEntryBytes;
+        this.diskCache = diskCache;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > HttpResponseCache.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!"GET".equals(request.method())) {
+            return chain.proceed(request);
+        }
+        requestCount.increment();
+        CacheControl requestCacheControl = request.cacheControl();
+        boolean memoryEnabled = maxEntries > 0 && !requestCacheControl.noStore() && !hasConditions(request);
+        String key = memoryEnabled ? key(request) : null;
+        CachedResponse cached = memoryEnabled && !requestCacheControl.noCache() ? get(key) : null;
+        if (cached != null && cached.isFresh(System.currentTimeMillis())) {
+            memoryHitCount.increment();
+            return cached.toResponse(request);
+        }
+        if (memoryEnabled) {
+            memoryMissCount.increment();
+        }
+
+        Request networkRequest = cached != null && cached.hasValidator() ? cached.conditionalRequest(request) : request;
+        Response response = chain.proceed(networkRequest);
+        if (networkRequest != request && response.code() == 304) {
+            revalidatedCount.increment();
+            CachedResponse refreshed = cached.revalidate(response);
+            response.close();
+            put(key, refreshed);
+            return refreshed.toResponse(request);
+        }
+        record(response);
+        if (memoryEnabled) {
+            store(request, response);
+        }
+        return response;
+    }
+
+    /**
+     * 获取统计快照
+     *
+     * @return 统计快照
+     */
+    HttpCacheStats stats() {
+        int memoryEntryCount;
+        synchronized (entries) {
+            memoryEntryCount = entries.size();
+        }
+        long diskSize = -1;
+        long diskMaxSize = -1;
+        if (diskCache != null) {
+            try {
+                diskSize = diskCache.size();
+            } catch (IOException e) {
+                diskSize = -1;
+            }
+            diskMaxSize = diskCache.maxSize();
+        }
+        return new HttpCacheStats(requestCount.sum(), memoryHitCount.sum(), memoryMissCount.sum(),
+                diskHitCount.sum(), revalidatedCount.sum(), networkCount.sum(), memoryEntryCount, diskSize, diskMaxSize);
+    }
+
+    /**
+     * 清空内存缓存
+     */
+    void evictAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        varyIndex.clear();
+    }
+
+    private void record(Response response) {
+        Response cacheResponse = response.cacheResponse();
+        Response networkResponse = response.networkResponse();
+        if (cacheResponse != null && networkResponse == null) {
+            diskHitCount.increment();
+        } else if (cacheResponse != null && networkResponse.code() == 304) {
+            revalidatedCount.increment();
+        } else {
+            networkCount.increment();
+        }
+    }
+
+    private void store(Request request, Response response) throws IOException {
+        if (response.code() != 200 || response.cacheControl().noStore()) {
+            return;
+        }
+        List<String> varyNames = varyNames(response.headers());
+        if (varyNames.contains("*")) {
+            return;
+        }
+        ResponseBody body = response.body();
+        if (body == null || body.contentLength() > maxEntryBytes) {
+            return;
+        }
+        CachedResponse cached = new CachedResponse(response, null);
+        if (!cached.hasFreshness() && !cached.hasValidator()) {
+            return;
+        }
+        ResponseBody peeked = response.peekBody(maxEntryBytes + 1);
+        byte[] bytes = peeked.bytes();
+        if (bytes.length > maxEntryBytes) {
+            return;
+        }
+        String url = request.url().toString();
+        if (varyNames.isEmpty()) {
+            varyIndex.remove(url);
+        } else {
+            varyIndex.put(url, varyNames);
+        }
+        put(key(request), new CachedResponse(response, bytes));
+    }
+
+    private CachedResponse get(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private void put(String key, CachedResponse cached) {
+        synchronized (entries) {
+            entries.put(key, cached);
+        }
+    }
+
+    private String key(Request request) {
+        String url = request.url().toString();
+        List<String> varyNames = varyIndex.get(url);
+        if (varyNames == null) {
+            return url;
+        }
+        StringBuilder key = new StringBuilder(url);
+        for (String name : varyNames) {
+            key.append('\n').append(name).append('=').append(request.headers(name));
+        }
+        return key.toString();
+    }
+
+    private static List<String> varyNames(Headers headers) {
+        List<String> names = new ArrayList<>();
+        for (String value : headers.values("Vary")) {
+            for (String name : value.split(",")) {
+                String trimmed = name.trim().toLowerCase(Locale.ROOT);
+                if (!trimmed.isEmpty() && !names.contains(trimmed)) {
+                    names.add(trimmed);
+                }
+            }
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    private static boolean hasConditions(Request request) {
+        return request.header("If-Modified-Since") != null || request.header("If-None-Match") != null;
+    }
+
+    /**
+     * 内存中的缓存响应
+     */
+    private static final class CachedResponse {
+        private final Protocol protocol;
+        private final int code;
+        private final String message;
+        private final Headers headers;
+        private final MediaType mediaType;
+        private final byte[] body;
+        private final long sentRequestAtMillis;
+        private final long receivedResponseAtMillis;
+
+        private CachedResponse(Response response, byte[] body) {
+            this(response.protocol(), response.code(), response.message(), response.headers(),
+                    response.body() == null ? null : response.body().contentType(), body,
+                    response.sentRequestAtMillis(), response.receivedResponseAtMillis());
+        }
+
+        private CachedResponse(Protocol protocol, int code, String message, Headers headers, MediaType mediaType,
+                               byte[] body, long sentRequestAtMillis, long receivedResponseAtMillis) {
+            this.protocol = protocol;
+            this.code = code;
+            this.message = message;
+            this.headers = headers;
+            this.mediaType = mediaType;
+            this.body = body;
+            this.sentRequestAtMillis = sentRequestAtMillis;
+            this.receivedResponseAtMillis = receivedResponseAtMillis;
+        }
+
+        private boolean hasValidator() {
+            return headers.get("ETag") != null || headers.get("Last-Modified") != null;
+        }
+
+        private boolean hasFreshness() {
+            return freshnessLifetimeMillis() > 0;
+        }
+
+        private boolean isFresh(long now) {
+            CacheControl cacheControl = CacheControl.parse(headers);
+            if (cacheControl.noCache()) {
+                return false;
+            }
+            return currentAgeMillis(now) < freshnessLifetimeMillis();
+        }
+
+        private long freshnessLifetimeMillis() {
+            CacheControl cacheControl = CacheControl.parse(headers);
+            if (cacheControl.maxAgeSeconds() != -1) {
+                return TimeUnit.SECONDS.toMillis(cacheControl.maxAgeSeconds());
+            }
+            Date expires = headers.getDate("Expires");
+            if (expires != null) {
+                Date date = headers.getDate("Date");
+                long servedMillis = date != null ? date.getTime() : receivedResponseAtMillis;
+                return Math.max(0, expires.getTime() - servedMillis);
+            }
+            return 0;
+        }
+
+        private long currentAgeMillis(long now) {
+            Date date = headers.getDate("Date");
+            long apparentReceivedAge = date != null ? Math.max(0, receivedResponseAtMillis - date.getTime()) : 0;
+            String ageHeader = headers.get("Age");
+            long ageSeconds = 0;
+            if (ageHeader != null) {
+                try {
+                    ageSeconds = Long.parseLong(ageHeader.trim());
+                } catch (NumberFormatException ignored) {
+                    ageSeconds = 0;
+                }
+            }
+            long receivedAge = Math.max(apparentReceivedAge, TimeUnit.SECONDS.toMillis(ageSeconds));
+            long responseDuration = Math.max(0, receivedResponseAtMillis - sentRequestAtMillis);
+            return receivedAge + responseDuration + Math.max(0, now - receivedResponseAtMillis);
+        }
+
+        private Request conditionalRequest(Request request) {
+            Request.Builder builder = request.newBuilder();
+            String etag = headers.get("ETag");
+            if (etag != null) {
+                builder.header("If-None-Match", etag);
+            }
+            String lastModified = headers.get("Last-Modified");
+            if (lastModified != null) {
+                builder.header("If-Modified-Since", lastModified);
+            }
+            return builder.build();
+        }
+
+        /**
+         * 以 304 响应中的头更新缓存条目，内容相关的头保持不变
+         */
+        private CachedResponse revalidate(Response notModified) {
+            Headers.Builder merged = headers.newBuilder();
+            for (String name : notModified.headers().names()) {
+                if (isContentSpecific(name)) {
+                    continue;
+                }
+                merged.removeAll(name);
+                for (String value : notModified.headers(name)) {
+                    merged.add(name, value);
+                }
+            }
+            return new CachedResponse(protocol, code, message, merged.build(), mediaType, body,
+                    notModified.sentRequestAtMillis(), notModified.receivedResponseAtMillis());
+        }
+
+        private Response toResponse(Request request) {
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(protocol)
+                    .code(code)
+                    .message(message)
+                    .headers(headers)
+                    .body(ResponseBody.create(body, mediaType))
+                    .sentRequestAtMillis(sentRequestAtMillis)
+                    .receivedResponseAtMillis(receivedResponseAtMillis)
+                    .build();
+        }
+
+        private static boolean isContentSpecific(String name) {
+            return "Content-Length".equalsIgnoreCase(name)
+                    || "Content-Encoding".equalsIgnoreCase(name)
+                    || "Content-Type".equalsIgnoreCase(name);
+        }
+    }
+}
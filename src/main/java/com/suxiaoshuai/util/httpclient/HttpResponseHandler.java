@@ -0,0 +1,143 @@
+package com.suxiaoshuai.util.httpclient;
+
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * 响应内容处理器，决定响应体以何种形式交给调用方；只有需要文本的处理器才做字符集解码
+ *
+ * @param <T> 处理结果类型
+ * @author sxs
+ */
+@FunctionalInterface
+public interface HttpResponseHandler<T> {
+
+    /**
+     * {@link #ofByteBuffer(HttpBufferPool)} 按声明长度取缓冲区时的容量上限：64KB，超出部分读取时按需扩容
+     */
+    int MAX_INITIAL_BUFFER_SIZE = 64 << 10;
+
+    /**
+     * 处理响应体，响应体在处理完成后由调用方关闭
+     *
+     * @param body 响应体
+     * @return 处理结果
+     * @throws IOException 读取响应体失败
+     */
+    T handle(ResponseBody body) throws IOException;
+
+    /**
+     * 按响应声明的字符集（默认 UTF-8）解码为字符串，配置了截断模式时超过上限的部分被丢弃
+     *
+     * @return 处理器
+     */
+    static HttpResponseHandler<String> ofString() {
+        return HttpResponseLimiter::string;
+    }
+
+    /**
+     * 读取为字节数组，不做字符集解码
+     *
+     * @return 处理器
+     */
+    static HttpResponseHandler<byte[]> ofBytes() {
+        return ResponseBody::bytes;
+    }
+
+    /**
+     * 读取到默认缓冲区池的 ByteBuffer 中，不做字符集解码
+     *
+     * @return 处理器，结果已 flip 可直接读取，使用完毕后应归还 {@link HttpBufferPool#getDefault()}
+     */
+    static HttpResponseHandler<ByteBuffer> ofByteBuffer() {
+        return ofByteBuffer(HttpBufferPool.getDefault());
+    }
+
+    /**
+     * 读取到缓冲区池的 ByteBuffer 中，不做字符集解码；响应长度已知时按声明长度取出缓冲区，
+     * 声明长度未经校验，初始容量不超过 {@link #MAX_INITIAL_BUFFER_SIZE}，不足时按需换用更大的缓冲区
+     *
+     * @param pool 缓冲区池
+     * @return 处理器，结果已 flip 可直接读取，使用完毕后应归还 pool
+     */
+    static HttpResponseHandler<ByteBuffer> ofByteBuffer(HttpBufferPool pool) {
+        return body -> {
+            long length = body.contentLength();
+            ByteBuffer buffer = pool.acquire(length < 0 ? 0 : (int) Math.min(length, MAX_INITIAL_BUFFER_SIZE));
+            BufferedSource source = body.source();
+            try {
+                while (true) {
+                    if (!buffer.hasRemaining()) {
+                        if (buffer.capacity() >= Integer.MAX_VALUE / 2) {
+                            throw new IOException("response body is too large for a ByteBuffer");
+                        }
+                        ByteBuffer larger = pool.acquire(buffer.capacity() * 2);
+                        larger.put(buffer.flip());
+                        pool.release(buffer);
+                        buffer = larger;
+                    }
+                    if (source.read(buffer) < 0) {
+                        break;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                pool.release(buffer);
+                throw e;
+            }
+            return buffer.flip();
+        };
+    }
+
+    /**
+     * 将响应内容写入输出流，不做字符集解码，不关闭输出流
+     *
+     * @param out 输出流
+     * @return 处理器，结果为写入的字节数
+     */
+    static HttpResponseHandler<Long> ofOutputStream(OutputStream out) {
+        return body -> body.byteStream().transferTo(out);
+    }
+
+    /**
+     * 以固定大小的缓冲区分段回调响应内容，不做字符集解码，整个过程只占用一个缓冲区
+     *
+     * @param chunkSize 缓冲区大小
+     * @param consumer  分段回调，ByteBuffer 只在回调期间有效，回调返回后会被复用
+     * @return 处理器，结果为读取的字节数
+     */
+    static HttpResponseHandler<Long> ofChunks(int chunkSize, Consumer<ByteBuffer> consumer) {
+        return body -> {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(1, chunkSize));
+            BufferedSource source = body.source();
+            long total = 0;
+            while (source.read(buffer) >= 0) {
+                if (!buffer.hasRemaining()) {
+                    total += deliver(buffer, consumer);
+                }
+            }
+            return total + deliver(buffer, consumer);
+        };
+    }
+
+    /**
+     * 将缓冲区中已读取的内容交给回调并清空缓冲区
+     *
+     * @param buffer   缓冲区
+     * @param consumer 回调
+     * @return 交给回调的字节数
+     */
+    private static int deliver(ByteBuffer buffer, Consumer<ByteBuffer> consumer) {
+        buffer.flip();
+        int length = buffer.remaining();
+        if (length > 0) {
+            consumer.accept(buffer);
+        }
+        buffer.clear();
+        return length;
+    }
+}
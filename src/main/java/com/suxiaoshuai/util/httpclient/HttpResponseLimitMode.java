@@ -0,0 +1,17 @@
+package com.suxiaoshuai.util.httpclient;
+
+/**
+ * 响应体超过大小上限时的处理方式
+ *
+ * @author sxs
+ */
+public enum HttpResponseLimitMode {
+    /**
+     * 中止读取并抛出 {@link HttpResponseTooLargeException}，响应声明的长度超过上限时不读取响应体
+     */
+    ABORT,
+    /**
+     * 以文本读取时截断到上限字节数，以字节或流读取时仍中止读取
+     */
+    TRUNCATE,
+}
@@ -0,0 +1,46 @@
+package com.suxiaoshuai.util.httpclient;
+
+/**
+ * 响应体大小限制统计快照
+ *
+ * @author sxs
+ */
+public class HttpResponseLimitStats {
+
+    /**
+     * 超过上限被中止读取的响应数
+     */
+    private final long rejectedCount;
+    /**
+     * 以文本读取时被截断的响应数
+     */
+    private final long truncatedCount;
+
+    HttpResponseLimitStats(long rejectedCount, long truncatedCount) {
+        this.rejectedCount = rejectedCount;
+        this.truncatedCount = truncatedCount;
+    }
+
+    /**
+     * 获取超过上限被中止读取的响应数
+     *
+     * @return 响应数
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * 获取以文本读取时被截断的响应数
+     *
+     * @return 响应数
+     */
+    public long getTruncatedCount() {
+        return truncatedCount;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpResponseLimitStats{rejectedCount=" + rejectedCount + ", truncatedCount=" + truncatedCount + '}';
+    }
+}
@@ -0,0 +1,181 @@
+package com.suxiaoshuai.util.httpclient;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 限制响应体大小的应用拦截器，位于拦截器链最外层
+ * 读取响应体时逐段累计字节数，超过上限立即中止，内存占用不超过上限加一个读缓冲区
+ *
+ * @author sxs
+ */
+class HttpResponseLimiter implements Interceptor {
+
+    private final long maxResponseBytes;
+    private final HttpResponseLimitMode mode;
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder truncatedCount = new LongAdder();
+
+    HttpResponseLimiter(long maxResponseBytes, HttpResponseLimitMode mode) {
+        this.maxResponseBytes = maxResponseBytes;
+        this.mode = mode;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+        String url = response.request().url().toString();
+        if (mode == HttpResponseLimitMode.ABORT && body.contentLength() > maxResponseBytes) {
+            rejectedCount.increment();
+            response.close();
+            throw new HttpResponseTooLargeException(url, maxResponseBytes);
+        }
+        return response.newBuilder().body(new LimitedBody(body, url)).build();
+    }
+
+    /**
+     * 以文本读取响应体，配置了截断模式时超过上限的部分被丢弃
+     *
+     * @param body 响应体
+     * @return 文本
+     * @throws IOException 读取失败或超过上限
+     */
+    static String string(ResponseBody body) throws IOException {
+        return body instanceof LimitedBody ? ((LimitedBody) body).text() : body.string();
+    }
+
+    /**
+     * 获取统计快照
+     *
+     * @return 统计快照
+     */
+    HttpResponseLimitStats stats() {
+        return new HttpResponseLimitStats(rejectedCount.sum(), truncatedCount.sum());
+    }
+
+    /**
+     * 限制大小的响应体
+     */
+    private final class LimitedBody extends ResponseBody {
+        private final ResponseBody delegate;
+        private final String url;
+        private BufferedSource source;
+        /**
+         * 文本截断读取：读满上限后视为结束而不是中止，须在首次读取前设置
+         */
+        private boolean truncating;
+        /**
+         * 截断读取时上限之后是否还有内容
+         */
+        private boolean truncated;
+
+        private LimitedBody(ResponseBody delegate, String url) {
+            this.delegate = delegate;
+            this.url = url;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            // 声明长度超过上限时按未知长度处理，避免调用方按未经校验的响应头预先分配内存
+            long length = delegate.contentLength();
+            return length > maxResponseBytes ? -1 : length;
+        }
+
+        @Override
+        public BufferedSource source() {
+            if (source == null) {
+                source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                    private long total;
+                    private boolean rejected;
+
+                    @Override
+                    public long read(Buffer sink, long byteCount) throws IOException {
+                        if (rejected) {
+                            throw new HttpResponseTooLargeException(url, maxResponseBytes);
+                        }
+                        if (truncating && total == maxResponseBytes) {
+                            // 读满上限后探测 1 字节判断是否还有剩余内容，探测的内容直接丢弃
+                            truncated = truncated || super.read(new Buffer(), 1) > 0;
+                            return -1;
+                        }
+                        // 中止模式下每次最多多读 1 字节用于判断是否超过上限
+                        long read = super.read(sink, Math.min(byteCount, maxResponseBytes + (truncating ? 0 : 1) - total));
+                        if (read > 0) {
+                            total += read;
+                            if (total > maxResponseBytes) {
+                                rejected = true;
+                                rejectedCount.increment();
+                                sink.clear();
+                                throw new HttpResponseTooLargeException(url, maxResponseBytes);
+                            }
+                        }
+                        return read;
+                    }
+                });
+            }
+            return source;
+        }
+
+        private String text() throws IOException {
+            if (mode != HttpResponseLimitMode.TRUNCATE) {
+                return string();
+            }
+            truncating = true;
+            try (BufferedSource limited = source()) {
+                byte[] bytes = limited.readByteArray();
+                if (!truncated) {
+                    return new String(bytes, charset());
+                }
+                truncatedCount.increment();
+                return decodePrefix(bytes, charset());
+            }
+        }
+
+        /**
+         * 解码被截断的内容，末尾不完整的多字节字符被丢弃而不是替换为 U+FFFD
+         */
+        private String decodePrefix(byte[] bytes, Charset charset) {
+            CharsetDecoder decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            CharBuffer chars = CharBuffer.allocate((int) Math.ceil(bytes.length * (double) decoder.maxCharsPerByte()));
+            // endOfInput 为 false 时末尾不完整的字节序列留在输入中，不参与解码
+            decoder.decode(ByteBuffer.wrap(bytes), chars, false);
+            return chars.flip().toString();
+        }
+
+        private Charset charset() {
+            MediaType contentType = contentType();
+            Charset charset = contentType == null ? null : contentType.charset(StandardCharsets.UTF_8);
+            return charset == null ? StandardCharsets.UTF_8 : charset;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.suxiaoshuai.util.httpclient;
+
+import java.io.IOException;
+
+/**
+ * 响应体超过大小上限时中止读取的异常
+ * 继承自 IOException，以便经由 OkHttp 读取响应体的调用链传递给调用方
+ *
+ * @author sxs
+ */
+public class HttpResponseTooLargeException extends IOException {
+
+    /**
+     * 构造响应体过大异常
+     *
+     * @param url              请求地址
+     * @param maxResponseBytes 响应体大小上限
+     */
+    public HttpResponseTooLargeException(String url, long maxResponseBytes) {
+        super("response body exceeds " + maxResponseBytes + " bytes, url: " + url);
+    }
+}
@@ -0,0 +1,137 @@
+package com.suxiaoshuai.util.httpclient;
+
+import okhttp3.Headers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP 调用结果，包含状态码、响应头、耗时与经 {@link HttpResponseHandler} 处理后的响应内容
+ *
+ * @param <T> 响应内容类型
+ * @author sxs
+ */
+public class HttpResult<T> {
+
+    /**
+     * 状态码
+     */
+    private final int statusCode;
+    /**
+     * 响应头
+     */
+    private final Headers headers;
+    /**
+     * 处理后的响应内容
+     */
+    private final T body;
+    /**
+     * 发出请求头的时间戳，单位：毫秒
+     */
+    private final long sentRequestAtMillis;
+    /**
+     * 收到响应头的时间戳，单位：毫秒
+     */
+    private final long receivedResponseAtMillis;
+    /**
+     * 从发起调用到响应内容处理完成的耗时，单位：纳秒
+     */
+    private final long elapsedNanos;
+
+    HttpResult(int statusCode, Headers headers, T body, long sentRequestAtMillis, long receivedResponseAtMillis,
+               long elapsedNanos) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+        this.sentRequestAtMillis = sentRequestAtMillis;
+        this.receivedResponseAtMillis = receivedResponseAtMillis;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * 获取状态码
+     *
+     * @return 状态码
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 状态码是否为 2xx
+     *
+     * @return 2xx 返回 true
+     */
+    public boolean isSuccess() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * 获取响应头
+     *
+     * @return 响应头
+     */
+    public Headers getHeaders() {
+        return headers;
+    }
+
+    /**
+     * 获取指定名称的响应头，存在多个时返回最后一个
+     *
+     * @param name 响应头名称，不区分大小写
+     * @return 响应头的值，不存在时返回 null
+     */
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    /**
+     * 获取处理后的响应内容
+     *
+     * @return 响应内容
+     */
+    public T getBody() {
+        return body;
+    }
+
+    /**
+     * 获取发出请求头的时间戳
+     *
+     * @return 时间戳，单位：毫秒，命中缓存时为缓存中记录的时间
+     */
+    public long getSentRequestAtMillis() {
+        return sentRequestAtMillis;
+    }
+
+    /**
+     * 获取收到响应头的时间戳
+     *
+     * @return 时间戳，单位：毫秒，命中缓存时为缓存中记录的时间
+     */
+    public long getReceivedResponseAtMillis() {
+        return receivedResponseAtMillis;
+    }
+
+    /**
+     * 获取从发起调用到响应内容处理完成的耗时
+     *
+     * @return 耗时，单位：毫秒
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * 获取从发起调用到响应内容处理完成的耗时
+     *
+     * @return 耗时，单位：纳秒
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpResult{statusCode=" + statusCode + ", elapsedMillis=" + getElapsedMillis()
+                + ", bodyType=" + (body == null ? null : body.getClass().getSimpleName()) + '}';
+    }
+}
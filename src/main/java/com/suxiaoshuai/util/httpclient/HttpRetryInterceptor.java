@@ -0,0 +1,146 @@
+package com.suxiaoshuai.util.httpclient;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按 {@link HttpRetryPolicy} 重试请求的应用拦截器，并维护每个 host 的重试预算
+ *
+ * @author sxs
+ */
+class HttpRetryInterceptor implements Interceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpRetryInterceptor.class);
+
+    /**
+     * 计算对冲等待时间所需的最少历史调用数
+     */
+    static final int HEDGE_MIN_SAMPLES = 20;
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "PUT", "DELETE", "OPTIONS", "TRACE");
+
+    private final HttpRetryPolicy policy;
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+
+    HttpRetryInterceptor(HttpRetryPolicy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Budget budget = budget(request.url().host());
+        budget.deposit();
+        boolean retryable = (policy.isRetryNonIdempotent() || IDEMPOTENT_METHODS.contains(request.method()))
+                && (request.body() == null || !request.body().isOneShot());
+        int attempt = 1;
+        while (true) {
+            Response response = null;
+            IOException failure = null;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                failure = e;
+            }
+            // 限流拦截器位于重试之内，其拒绝是本地的保护性失败，重试只会加重拥塞并消耗重试预算；
+            // 熔断与响应超限由外层拦截器抛出，不会经过这里
+            boolean retry = retryable && attempt < policy.getMaxAttempts() && !chain.call().isCanceled()
+                    && (failure != null
+                    ? !(failure instanceof HttpRateLimitedException) && policy.isRetryableException(failure)
+                    : policy.isRetryableStatus(response.code()));
+            if (retry && !budget.tryWithdraw()) {
+                logger.warn("okhttp retry budget exhausted, host:{}", request.url().host());
+                retry = false;
+            }
+            if (!retry) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return response;
+            }
+            long backoff = policy.backoffMillis(attempt, response);
+            logger.warn("okhttp retry url:{}, attempt:{}, cause:{}, backoff:{}ms", request.url(), attempt,
+                    failure != null ? failure.toString() : response.code(), backoff);
+            if (response != null) {
+                response.close();
+            }
+            sleep(backoff);
+            attempt++;
+        }
+    }
+
+    /**
+     * 尝试为对冲请求从 host 的重试预算中取出一个令牌
+     *
+     * @param host host
+     * @return 取出成功返回 true
+     */
+    boolean tryAcquireHedge(String host) {
+        return budget(host).tryWithdraw();
+    }
+
+    HttpRetryPolicy getPolicy() {
+        return policy;
+    }
+
+    private Budget budget(String host) {
+        Budget budget = budgets.get(host);
+        return budget != null ? budget : budgets.computeIfAbsent(host, h -> new Budget(policy));
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted during retry backoff");
+        }
+    }
+
+    /**
+     * 重试预算，以千分之一令牌为单位无锁计数
+     */
+    private static final class Budget {
+        private static final long UNIT = 1000;
+        private final AtomicLong balance;
+        private final long deposit;
+        private final long capacity;
+
+        private Budget(HttpRetryPolicy policy) {
+            this.deposit = (long) (policy.getBudgetRatio() * UNIT);
+            this.capacity = Math.max(policy.getBudgetMinRetries() * UNIT, deposit * 100);
+            this.balance = new AtomicLong(Math.min(capacity, policy.getBudgetMinRetries() * UNIT));
+        }
+
+        private void deposit() {
+            long current;
+            while ((current = balance.get()) < capacity
+                    && !balance.compareAndSet(current, Math.min(capacity, current + deposit))) {
+                // 自旋直至存入成功或已达上限
+            }
+        }
+
+        private boolean tryWithdraw() {
+            long current;
+            while ((current = balance.get()) >= UNIT) {
+                if (balance.compareAndSet(current, current - UNIT)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.suxiaoshuai.util.httpclient;
+
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP 重试策略
+ * <p>
+ * 按状态码与异常类型决定是否重试，重试间隔为带全抖动的指数退避。
+ * 每个 host 有独立的重试预算：每个请求存入 budgetRatio 个令牌，每次重试或对冲请求取出一个，
+ * 令牌不足时不再重试，避免下游故障期间重试成倍放大流量。
+ * 开启对冲后，同步 get 请求在超过该 host 历史耗时 hedgePercentile 分位仍未返回时再发出一个相同请求，取先返回者。
+ * 支持链式设置
+ *
+ * @author sxs
+ */
+public class HttpRetryPolicy {
+
+    /**
+     * 最大尝试次数，含首次请求
+     */
+    private int maxAttempts = 3;
+    /**
+     * 需要重试的状态码
+     */
+    private Set<Integer> retryStatusCodes = new HashSet<>(Arrays.asList(429, 502, 503, 504));
+    /**
+     * 需要重试的异常类型，匹配子类
+     */
+    private List<Class<? extends Throwable>> retryExceptions = new ArrayList<>(Collections.singletonList(IOException.class));
+    /**
+     * 是否重试非幂等请求，如 POST
+     */
+    private boolean retryNonIdempotent;
+    /**
+     * 首次重试的退避上限，单位：毫秒
+     */
+    private long initialBackoffMillis = 100;
+    /**
+     * 退避上限，单位：毫秒
+     */
+    private long maxBackoffMillis = 2000;
+    /**
+     * 退避倍数
+     */
+    private double backoffMultiplier = 2.0;
+    /**
+     * 每个请求存入重试预算的令牌数
+     */
+    private double budgetRatio = 0.2;
+    /**
+     * 重试预算的初始令牌数，也是预算耗尽前允许的最少重试次数
+     */
+    private int budgetMinRetries = 10;
+    /**
+     * 是否开启同步 get 请求对冲
+     */
+    private boolean hedgeGet;
+    /**
+     * 触发对冲的耗时分位
+     */
+    private double hedgePercentile = 0.95;
+    /**
+     * 对冲的最小等待时间，单位：毫秒
+     */
+    private long hedgeMinDelayMillis = 10;
+
+    /**
+     * 复制当前策略
+     *
+     * @return 新的策略对象
+     */
+    public HttpRetryPolicy copy() {
+        HttpRetryPolicy copy = new HttpRetryPolicy();
+        copy.maxAttempts = maxAttempts;
+        copy.retryStatusCodes = new HashSet<>(retryStatusCodes);
+        copy.retryExceptions = new ArrayList<>(retryExceptions);
+        copy.retryNonIdempotent = retryNonIdempotent;
+        copy.initialBackoffMillis = initialBackoffMillis;
+        copy.maxBackoffMillis = maxBackoffMillis;
+        copy.backoffMultiplier = backoffMultiplier;
+        copy.budgetRatio = budgetRatio;
+        copy.budgetMinRetries = budgetMinRetries;
+        copy.hedgeGet = hedgeGet;
+        copy.hedgePercentile = hedgePercentile;
+        copy.hedgeMinDelayMillis = hedgeMinDelayMillis;
+        return copy;
+    }
+
+    /**
+     * 状态码是否需要重试
+     *
+     * @param code 状态码
+     * @return 需要重试返回 true
+     */
+    public boolean isRetryableStatus(int code) {
+        return retryStatusCodes.contains(code);
+    }
+
+    /**
+     * 异常是否需要重试
+     *
+     * @param e 异常
+     * @return 需要重试返回 true
+     */
+    public boolean isRetryableException(Throwable e) {
+        for (Class<? extends Throwable> type : retryExceptions) {
+            if (type.isInstance(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 计算第 attempt 次请求失败后的退避时间
+     * 响应带有不超过退避上限的 Retry-After（秒）时以其为准，否则在 [0, 指数退避上限] 内随机取值
+     *
+     * @param attempt  已完成的请求次数，从 1 开始
+     * @param response 失败的响应，异常失败时为 null
+     * @return 退避时间，单位：毫秒
+     */
+    public long backoffMillis(int attempt, Response response) {
+        if (response != null) {
+            String retryAfter = response.header("Retry-After");
+            if (retryAfter != null) {
+                try {
+                    long millis = TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+                    if (millis >= 0 && millis <= maxBackoffMillis) {
+                        return millis;
+                    }
+                } catch (NumberFormatException ignored) {
+                    // Retry-After 为 HTTP 日期时按指数退避处理
+                }
+            }
+        }
+        double exponential = initialBackoffMillis * Math.pow(backoffMultiplier, attempt - 1);
+        long cap = (long) Math.min(maxBackoffMillis, exponential);
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    /**
+     * 获取最大尝试次数
+     *
+     * @return 最大尝试次数，含首次请求，默认为3
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * 设置最大尝试次数
+     *
+     * @param maxAttempts 最大尝试次数，含首次请求
+     * @return 当前对象，支持链式调用
+     */
+    public HttpRetryPolicy setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * 获取需要重试的状态码
+     *
+     * @return 状态码集合，默认为 429、502、503、504
+     */
+    public Set<Integer> getRetryStatusCodes() {
+        return retryStatusCodes;
+    }
+
+    /**
+     * 设置需要重试的状态码
+     *
+     * @param retryStatusCodes 状态码
+     * @return 当前对象，支持链式调用
+     */
+    public HttpRetryPolicy setRetryStatusCodes(Integer... retryStatusCodes) {
+        this.retryStatusCodes = new HashSet<>(Arrays.asList(retryStatusCodes));
+        return this;
+    }
+
+    /**
+     * 获取需要重试的异常类型
+     *
+     * @return 异常类型列表，默认为 IOException
+     */
+    public List<Class<? extends Throwable>> getRetryExceptions() {
+        return retryExceptions;
+    }
+
+    /**
+     * 设置需要重试的异常类型，匹配子类
+     *
+     * @param retryExceptions 异常类型
+     * @return 当前对象，支持链式调用
+     */
+    @SafeVarargs
+    public final HttpRetryPolicy setRetryExceptions(Class<? extends Throwable>... retryExceptions) {
+        List<Class<? extends Throwable>> list = new ArrayList<>(retryExceptions.length);
+        for (Class<? extends Throwable> retryException : retryExceptions) {
+            list.add(retryException);
+        }
+        this.retryExceptions = list;
+        return this;
+    }
+
+    /**
+     * 是否重试非幂等请求
+     *
+     * @return 重试返回 true，默认为 false
+     */
+    public boolean isRetryNonIdempotent() {
+        return retryNonIdempotent;
+    }
+
+    /**
+     * 设置是否重试非幂等请求，如 POST
+     *
+     * @param retryNonIdempotent 是否重试
+     * @return 当前对象，支持链式调用
+     */
+    public HttpRetryPolicy setRetryNonIdempotent(boolean retryNonIdempotent) {
+        this.retryNonIdempotent = retryNonIdempotent;
+        return this;
+    }
+
+    /**
+     * 获取首次重试的退避上限
+     *
+     * @return 退避上限，单位：毫秒
+     */
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    /**
+     * 获取退避上限
+     *
+     * @return 退避上限，单位：毫秒
+     */
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    /**
+     * 获取退避倍数
+     *
+     * @return 退避倍数
+     */
+    public double getBackoffMultiplier() {
+        return backoffMultiplier;
+    }
+
+    /**
+     * 设置指数退避参数
+     *
+     * @param initialBackoff 首次重试的退避上限
+     * @param maxBackoff     退避上限
+     * @param unit           时间单位
+     * @param multiplier     退避倍数
+     * @return 当前对象，支持链式调用
+     */
+    public HttpRetryPolicy setBackoff(long initialBackoff, long maxBackoff, TimeUnit unit, double multiplier) {
+        this.initialBackoffMillis = unit.toMillis(initialBackoff);
+        this.maxBackoffMillis = unit.toMillis(maxBackoff);
+        this.backoffMultiplier = multiplier;
+        return this;
+    }
+
+    /**
+     * 获取每个请求存入重试预算的令牌数
+     *
+     * @return 令牌数，默认为0.2，即重试量不超过请求量的20%
+     */
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    /**
+     * 获取重试预算的初始令牌数
+     *
+     * @return 初始令牌数，默认为10
+     */
+    public int getBudgetMinRetries() {
+        return budgetMinRetries;
+    }
+
+    /**
+     * 设置每个 host 的重试预算
+     *
+     * @param ratio      每个请求存入的令牌数
+     * @param minRetries 初始令牌数，令牌上限为 minRetries 与 ratio * 100 中的较大者
+     * @return 当前对象，支持链式调用
+     */
+    public HttpRetryPolicy setBudget(double ratio, int minRetries) {
+        this.budgetRatio = ratio;
+        this.budgetMinRetries = minRetries;
+        return this;
+    }
+
+    /**
+     * 是否开启同步 get 请求对冲
+     *
+     * @return 开启返回 true，默认为 false
+     */
+    public boolean isHedgeGet() {
+        return hedgeGet;
+    }
+
+    /**
+     * 获取触发对冲的耗时分位
+     *
+     * @return 耗时分位，默认为0.95
+     */
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    /**
+     * 获取对冲的最小等待时间
+     *
+     * @return 最小等待时间，单位：毫秒
+     */
+    public long getHedgeMinDelayMillis() {
+        return hedgeMinDelayMillis;
+    }
+
+    /**
+     * 设置同步 get 请求对冲
+     * 该 host 的历史调用不足20次时不对冲
+     *
+     * @param hedgeGet   是否开启
+     * @param percentile 触发对冲的耗时分位，如 0.95
+     * @param minDelay   最小等待时间
+     * @param unit       时间单位
+     * @return 当前对象，支持链式调用
+     */
+    public HttpRetryPolicy setHedgeGet(boolean hedgeGet, double percentile, long minDelay, TimeUnit unit) {
+        this.hedgeGet = hedgeGet;
+        this.hedgePercentile = percentile;
+        this.hedgeMinDelayMillis = unit.toMillis(minDelay);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpRetryPolicy{maxAttempts=" + maxAttempts + ", retryStatusCodes=" + retryStatusCodes
+                + ", retryExceptions=" + retryExceptions + ", retryNonIdempotent=" + retryNonIdempotent
+                + ", initialBackoffMillis=" + initialBackoffMillis + ", maxBackoffMillis=" + maxBackoffMillis
+                + ", backoffMultiplier=" + backoffMultiplier + ", budgetRatio=" + budgetRatio
+                + ", budgetMinRetries=" + budgetMinRetries + ", hedgeGet=" + hedgeGet
+                + ", hedgePercentile=" + hedgePercentile + ", hedgeMinDelayMillis=" + hedgeMinDelayMillis + '}';
+    }
+}
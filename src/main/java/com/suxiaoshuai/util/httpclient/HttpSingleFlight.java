@@ -0,0 +1,91 @@
+package com.suxiaoshuai.util.httpclient;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 相同请求合并执行
+ * <p>
+ * 同一键同一时刻只有一个调用真正执行，其余并发调用等待并共享其结果；
+ * 调用结束即移除，结果不做缓存，之后到达的调用会重新执行
+ *
+ * @param <T> 结果类型
+ * @author sxs
+ */
+class HttpSingleFlight<T> {
+
+    /**
+     * 执行中的调用
+     */
+    private final Map<String, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 执行调用，相同键的并发调用共享同一结果
+     *
+     * @param key    调用键
+     * @param loader 实际执行逻辑
+     * @return 执行结果
+     */
+    T execute(String key, Supplier<T> loader) {
+        CompletableFuture<T> own = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+            }
+        }
+        try {
+            T result = loader.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * 获取执行中的调用数
+     *
+     * @return 执行中的调用数
+     */
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * 计算请求的合并键
+     *
+     * @param profile    客户端配置名称
+     * @param finalUrl   拼接参数后的最终请求地址
+     * @param headerMap  请求头
+     * @param keyHeaders 参与计算的请求头名称，忽略大小写
+     * @return 合并键
+     */
+    static String key(String profile, String finalUrl, Map<String, String> headerMap, Collection<String> keyHeaders) {
+        StringBuilder key = new StringBuilder(profile).append(' ').append(finalUrl);
+        if (headerMap == null || headerMap.isEmpty() || keyHeaders == null || keyHeaders.isEmpty()) {
+            return key.toString();
+        }
+        Map<String, String> selected = new TreeMap<>();
+        headerMap.forEach((name, value) -> {
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            if (keyHeaders.contains(lowerName)) {
+                selected.merge(lowerName, value, (a, b) -> a + "," + b);
+            }
+        });
+        selected.forEach((name, value) -> key.append('\n').append(name).append('=').append(value));
+        return key.toString();
+    }
+}
@@ -1,52 +1,57 @@
 package com.suxiaoshuai.util.httpclient;
 
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.suxiaoshuai.callback.HttpUtilCallback;
+import com.suxiaoshuai.util.file.FileUtil;
+import com.suxiaoshuai.util.json.JsonUtil;
 import com.suxiaoshuai.util.string.StringUtil;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLSocketFactory;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URLEncoder;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.security.SecureRandom;
-import java.security.cert.X509Certificate;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * HTTP 请求工具类，基于 OkHttp 实现
+ * 客户端由 {@link HttpClientRegistry} 管理，未指定配置的请求使用默认配置
  */
 public class HttpUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(HttpUtils.class);
-    private static volatile OkHttpClient okHttpClient = null;
     /**
      * HTTP 请求超时时间，单位：秒
      */
     public static final int TIME_OUT = 60;
+    /**
+     * 连接池最大空闲连接数
+     */
+    public static final int MAX_IDLE_CONNECTIONS = 10;
+    /**
+     * 日志中打印响应结果的最大长度
+     */
+    private static final int MAX_LOG_LENGTH = 1024;
 
-    static {
-        if (okHttpClient == null) {
-            synchronized (HttpUtils.class) {
-                if (okHttpClient == null) {
-                    TrustManager[] trustManagers = buildTrustManagers();
-                    okHttpClient = new OkHttpClient.Builder()
-                            .connectTimeout(TIME_OUT, TimeUnit.SECONDS)
-                            .writeTimeout(TIME_OUT, TimeUnit.SECONDS)
-                            .readTimeout(TIME_OUT, TimeUnit.SECONDS)
-                            .sslSocketFactory(createSSLSocketFactory(trustManagers), (X509TrustManager) trustManagers[0])
-                            .hostnameVerifier((hostName, session) -> true)
-                            .retryOnConnectionFailure(true)
-                            .connectionPool(new ConnectionPool(10, 10, TimeUnit.SECONDS))
-                            .build();
-                }
-            }
-        }
-    }
+    /**
+     * 同步 get 请求合并器
+     */
+    private static final HttpSingleFlight<String> getSingleFlight = new HttpSingleFlight<>();
 
     /**
      * 发起get请求
@@ -81,16 +86,30 @@ public class HttpUtils {
         logger.info("okhttp get url:{}, paramMap:{}, headerMap:{}", url, paramMap, headerMap);
         String result = null;
         try {
-            Request.Builder request = new Request.Builder().get();
-            addGetHeader(request, headerMap);
-            String finalUrl = getUrl(url, paramMap);
-            logger.info("okhttp get url:{}, add param final url:{}", url, finalUrl);
-            request.url(finalUrl);
-            result = doExecute(request);
+            result = doGet(null, url, paramMap, headerMap);
         } catch (Exception e) {
             logger.error("okHttpUtils get url:{}, error", url, e);
         }
-        logger.info("okhttp get url:{},result:{}", url, result);
+        logger.info("okhttp get url:{},result:{}", url, abbreviate(result));
+        return result;
+    }
+
+    /**
+     * 按请求描述发起get请求，使用请求描述中指定的客户端配置
+     *
+     * @param spec 请求描述
+     * @return 请求结果
+     * @see HttpClientRegistry
+     */
+    public static String get(HttpRequestSpec spec) {
+        logger.info("okhttp get spec:{}", spec);
+        String result = null;
+        try {
+            result = doGet(spec.getProfile(), spec.getUrl(), spec.getParamMap(), spec.getHeaderMap());
+        } catch (Exception e) {
+            logger.error("okHttpUtils get spec:{}, error", spec, e);
+        }
+        logger.info("okhttp get url:{},result:{}", spec.getUrl(), abbreviate(result));
         return result;
     }
 
@@ -117,14 +136,32 @@ public class HttpUtils {
         logger.info("okhttp post json url:{}, body:{}, headerMap:{}", url, json, headerMap);
         String result = null;
         try {
-            RequestBody requestBody = RequestBody.create(json, MediaType.parse("application/json; charset=utf-8"));
-            Request.Builder request = new Request.Builder().post(requestBody).url(url);
-            addHeader(request, headerMap);
-            result = doExecute(request);
+            result = doExecute(buildPostRequest(url, json, headerMap));
         } catch (Exception e) {
             logger.error("okHttpUtils post json url:{}, error", url, e);
         }
-        logger.info("okhttp post json url:{},result:{}", url, result);
+        logger.info("okhttp post json url:{},result:{}", url, abbreviate(result));
+        return result;
+    }
+
+    /**
+     * 按请求描述发起post请求，使用请求描述中指定的客户端配置
+     * 请求描述中的参数拼接到 url 上
+     *
+     * @param spec 请求描述
+     * @param json 请求参数
+     * @return 请求结果
+     */
+    public static String post(HttpRequestSpec spec, String json) {
+        logger.info("okhttp post json spec:{}, body:{}", spec, json);
+        String result = null;
+        try {
+            result = doExecute(spec.getProfile(),
+                    buildPostRequest(getUrl(spec.getUrl(), spec.getParamMap()), json, spec.getHeaderMap()));
+        } catch (Exception e) {
+            logger.error("okHttpUtils post json spec:{}, error", spec, e);
+        }
+        logger.info("okhttp post json url:{},result:{}", spec.getUrl(), abbreviate(result));
         return result;
     }
 
@@ -151,27 +188,689 @@ public class HttpUtils {
         logger.info("okhttp post form url:{}, body:{}, headerMap:{}", url, paramsMap, headerMap);
         String result = null;
         try {
-            FormBody.Builder formBody = new FormBody.Builder();
-            if (paramsMap != null && !paramsMap.isEmpty()) {
-                paramsMap.forEach(formBody::add);
-            }
-            RequestBody requestBody = formBody.build();
-            Request.Builder request = new Request.Builder().post(requestBody).url(url);
-            addHeader(request, headerMap);
-            result = doExecute(request);
+            result = doExecute(buildPostFormRequest(url, paramsMap, headerMap));
         } catch (Exception e) {
             logger.error("okHttpUtils post form url:{}, error", url, e);
         }
-        logger.info("okhttp post form url:{},result:{}", url, result);
+        logger.info("okhttp post form url:{},result:{}", url, abbreviate(result));
+        return result;
+    }
+
+    /**
+     * 按请求描述发起post form请求，使用请求描述中指定的客户端配置
+     * 请求描述中的参数拼接到 url 上
+     *
+     * @param spec      请求描述
+     * @param paramsMap 表单参数
+     * @return 请求结果
+     */
+    public static String postForm(HttpRequestSpec spec, Map<String, String> paramsMap) {
+        logger.info("okhttp post form spec:{}, body:{}", spec, paramsMap);
+        String result = null;
+        try {
+            result = doExecute(spec.getProfile(),
+                    buildPostFormRequest(getUrl(spec.getUrl(), spec.getParamMap()), paramsMap, spec.getHeaderMap()));
+        } catch (Exception e) {
+            logger.error("okHttpUtils post form spec:{}, error", spec, e);
+        }
+        logger.info("okhttp post form url:{},result:{}", spec.getUrl(), abbreviate(result));
+        return result;
+    }
+
+    /**
+     * 发起multipart/form-data请求，文件内容在发送时流式读取，不整体读入内存
+     *
+     * @param url  请求地址
+     * @param form 表单
+     * @return 请求结果
+     */
+    public static String postMultipart(String url, HttpMultipartForm form) {
+        return postMultipart(HttpRequestSpec.of(url), form);
+    }
+
+    /**
+     * 发起multipart/form-data请求，支持自定义请求头
+     *
+     * @param url       请求地址
+     * @param form      表单
+     * @param headerMap 请求头
+     * @return 请求结果
+     */
+    public static String postMultipart(String url, HttpMultipartForm form, Map<String, String> headerMap) {
+        return postMultipart(HttpRequestSpec.of(url, null, headerMap), form);
+    }
+
+    /**
+     * 按请求描述发起multipart/form-data请求，使用请求描述中指定的客户端配置
+     * 请求描述中的参数拼接到 url 上
+     *
+     * @param spec 请求描述
+     * @param form 表单
+     * @return 请求结果
+     */
+    public static String postMultipart(HttpRequestSpec spec, HttpMultipartForm form) {
+        logger.info("okhttp post multipart spec:{}", spec);
+        String result = null;
+        try {
+            Request.Builder request = new Request.Builder().post(form.build())
+                    .url(getUrl(spec.getUrl(), spec.getParamMap()));
+            addHeader(request, spec.getHeaderMap());
+            result = doExecute(spec.getProfile(), request);
+        } catch (Exception e) {
+            logger.error("okHttpUtils post multipart spec:{}, error", spec, e);
+        }
+        logger.info("okhttp post multipart url:{},result:{}", spec.getUrl(), abbreviate(result));
         return result;
     }
 
+    /**
+     * 发起get请求，将响应Json转换为指定类型
+     *
+     * @param <T>   目标对象类型
+     * @param url   请求地址
+     * @param clazz 目标类的Class对象
+     * @return 转换后的对象，请求失败、状态码非 2xx 或转换失败返回 null
+     */
+    public static <T> T getJson(String url, Class<T> clazz) {
+        return getJson(HttpRequestSpec.of(url), clazz);
+    }
+
+    /**
+     * 发起get请求，将响应Json转换为指定泛型类型
+     *
+     * @param <T>           目标对象类型
+     * @param url           请求地址
+     * @param typeReference 类型引用对象
+     * @return 转换后的对象，请求失败、状态码非 2xx 或转换失败返回 null
+     */
+    public static <T> T getJson(String url, TypeReference<T> typeReference) {
+        return getJson(HttpRequestSpec.of(url), typeReference);
+    }
+
+    /**
+     * 发起get请求，将响应Json转换为指定类型
+     *
+     * @param <T>       目标对象类型
+     * @param url       请求地址
+     * @param paramMap  请求参数
+     * @param headerMap 请求头
+     * @param clazz     目标类的Class对象
+     * @return 转换后的对象，请求失败、状态码非 2xx 或转换失败返回 null
+     */
+    public static <T> T getJson(String url, Map<String, String> paramMap, Map<String, String> headerMap, Class<T> clazz) {
+        return getJson(HttpRequestSpec.of(url, paramMap, headerMap), clazz);
+    }
+
+    /**
+     * 按请求描述发起get请求，将响应Json转换为指定类型
+     * 响应字节流直接交给 {@link JsonUtil} 解析，不生成中间字符串
+     *
+     * @param <T>   目标对象类型
+     * @param spec  请求描述
+     * @param clazz 目标类的Class对象
+     * @return 转换后的对象，请求失败、状态码非 2xx 或转换失败返回 null
+     */
+    public static <T> T getJson(HttpRequestSpec spec, Class<T> clazz) {
+        logger.info("okhttp get json spec:{}, type:{}", spec, clazz);
+        try {
+            return doExecuteJson(spec.getProfile(), buildGetRequest(spec.getUrl(), spec.getParamMap(), spec.getHeaderMap()),
+                    in -> JsonUtil.parse(in, clazz));
+        } catch (Exception e) {
+            logger.error("okHttpUtils get json spec:{}, error", spec, e);
+            return null;
+        }
+    }
+
+    /**
+     * 按请求描述发起get请求，将响应Json转换为指定泛型类型
+     * 响应字节流直接交给 {@link JsonUtil} 解析，不生成中间字符串
+     *
+     * @param <T>           目标对象类型
+     * @param spec          请求描述
+     * @param typeReference 类型引用对象
+     * @return 转换后的对象，请求失败、状态码非 2xx 或转换失败返回 null
+     */
+    public static <T> T getJson(HttpRequestSpec spec, TypeReference<T> typeReference) {
+        logger.info("okhttp get json spec:{}, type:{}", spec, typeReference == null ? null : typeReference.getType());
+        try {
+            return doExecuteJson(spec.getProfile(), buildGetRequest(spec.getUrl(), spec.getParamMap(), spec.getHeaderMap()),
+                    in -> JsonUtil.parse(in, typeReference));
+        } catch (Exception e) {
+            logger.error("okHttpUtils get json spec:{}, error", spec, e);
+            return null;
+        }
+    }
+
+    /**
+     * 发起post请求，请求对象序列化为Json发送，响应Json转换为指定类型
+     *
+     * @param <T>   目标对象类型
+     * @param url   请求地址
+     * @param body  请求对象，字符串视为Json原样发送
+     * @param clazz 目标类的Class对象
+     * @return 转换后的对象，请求失败、状态码非 2xx 或转换失败返回 null
+     */
+    public static <T> T postJson(String url, Object body, Class<T> clazz) {
+        return postJson(HttpRequestSpec.of(url), body, clazz);
+    }
+
+    /**
+     * 发起post请求，请求对象序列化为Json发送，响应Json转换为指定类型
+     *
+     * @param <T>       目标对象类型
+     * @param url       请求地址
+     * @param body      请求对象，字符串视为Json原样发送
+     * @param headerMap 请求头
+     * @param clazz     目标类的Class对象
+     * @return 转换后的对象，请求失败、状态码非 2xx 或转换失败返回 null
+     */
+    public static <T> T postJson(String url, Object body, Map<String, String> headerMap, Class<T> clazz) {
+        return postJson(HttpRequestSpec.of(url, null, headerMap), body, clazz);
+    }
+
+    /**
+     * 按请求描述发起post请求，请求对象序列化为Json发送，响应Json转换为指定类型
+     * 请求对象在发送时直接序列化进请求体，响应字节流直接交给 {@link JsonUtil} 解析，均不生成中间字符串
+     *
+     * @param <T>   目标对象类型
+     * @param spec  请求描述
+     * @param body  请求对象，字符串视为Json原样发送
+     * @param clazz 目标类的Class对象
+     * @return 转换后的对象，请求失败、状态码非 2xx 或转换失败返回 null
+     */
+    public static <T> T postJson(HttpRequestSpec spec, Object body, Class<T> clazz) {
+        logger.info("okhttp post json spec:{}, bodyType:{}, type:{}", spec, body == null ? null : body.getClass(), clazz);
+        try {
+            Request.Builder request = new Request.Builder().post(new JsonRequestBody(body))
+                    .url(getUrl(spec.getUrl(), spec.getParamMap()));
+            addHeader(request, spec.getHeaderMap());
+            return doExecuteJson(spec.getProfile(), request, in -> JsonUtil.parse(in, clazz));
+        } catch (Exception e) {
+            logger.error("okHttpUtils post json spec:{}, error", spec, e);
+            return null;
+        }
+    }
+
+    /**
+     * 发起get请求并将响应内容下载到本地文件
+     *
+     * @param url    请求地址
+     * @param target 本地文件路径
+     * @return 下载成功返回 true
+     */
+    public static boolean download(String url, Path target) {
+        return download(url, null, target);
+    }
+
+    /**
+     * 发起get请求并将响应内容下载到本地文件
+     * <p>
+     * 响应体由 Okio 的 source 直接经 {@link FileChannel#transferFrom} 写入文件，
+     * 不会在堆上缓存完整内容；响应状态码非 2xx 时不写入文件，写入过程中失败时删除已写入的部分文件
+     *
+     * @param url       请求地址
+     * @param headerMap 请求头
+     * @param target    本地文件路径，父目录不存在时自动创建，文件已存在时覆盖
+     * @return 下载成功返回 true
+     */
+    public static boolean download(String url, Map<String, String> headerMap, Path target) {
+        logger.info("okhttp download url:{}, headerMap:{}, target:{}", url, headerMap, target);
+        boolean writing = false;
+        try (Response response = newCall(null, buildGetRequest(url, null, headerMap)).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                logger.error("okHttpUtils download url:{}, unexpected response code:{}", url, response.code());
+                return false;
+            }
+            writing = true;
+            long size = FileUtil.saveFileToLocalPath(target, body.source());
+            logger.info("okhttp download url:{}, target:{}, size:{}", url, target, size);
+            return true;
+        } catch (Exception e) {
+            logger.error("okHttpUtils download url:{}, error", url, e);
+            if (writing) {
+                deleteQuietly(target);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 发起get请求并以流的方式消费响应内容
+     *
+     * @param url      请求地址
+     * @param consumer 响应流消费者
+     * @return 请求成功且消费完成返回 true
+     */
+    public static boolean getStream(String url, Consumer<InputStream> consumer) {
+        return getStream(url, null, null, consumer);
+    }
+
+    /**
+     * 发起get请求并以流的方式消费响应内容
+     * <p>
+     * consumer 读取的是网络流本身，内存占用与响应大小无关；流在 consumer 返回后自动关闭，
+     * 不要在 consumer 之外持有该流
+     *
+     * @param url       请求地址
+     * @param paramMap  请求参数
+     * @param headerMap 请求头
+     * @param consumer  响应流消费者，仅在响应状态码为 2xx 时调用
+     * @return 请求成功且消费完成返回 true
+     */
+    public static boolean getStream(String url, Map<String, String> paramMap, Map<String, String> headerMap,
+                                    Consumer<InputStream> consumer) {
+        logger.info("okhttp get stream url:{}, paramMap:{}, headerMap:{}", url, paramMap, headerMap);
+        try (Response response = newCall(null, buildGetRequest(url, paramMap, headerMap)).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                logger.error("okHttpUtils get stream url:{}, unexpected response code:{}", url, response.code());
+                return false;
+            }
+            try (InputStream inputStream = body.byteStream()) {
+                consumer.accept(inputStream);
+            }
+            return true;
+        } catch (Exception e) {
+            logger.error("okHttpUtils get stream url:{}, error", url, e);
+            return false;
+        }
+    }
+
+    /**
+     * 发起get请求，以字节数组返回响应内容
+     *
+     * @param url 请求地址
+     * @return 响应内容，请求失败返回 null
+     */
+    public static byte[] getBytes(String url) {
+        return getBytes(url, null, null);
+    }
+
+    /**
+     * 发起get请求，以字节数组返回响应内容
+     * 不做字符集解码，适用于图片、压缩包等二进制内容
+     *
+     * @param url       请求地址
+     * @param paramMap  请求参数
+     * @param headerMap 请求头
+     * @return 响应内容，请求失败返回 null
+     */
+    public static byte[] getBytes(String url, Map<String, String> paramMap, Map<String, String> headerMap) {
+        logger.info("okhttp get bytes url:{}, paramMap:{}, headerMap:{}", url, paramMap, headerMap);
+        try (Response response = newCall(null, buildGetRequest(url, paramMap, headerMap)).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                logger.error("okHttpUtils get bytes url:{}, unexpected response code:{}", url, response.code());
+                return null;
+            }
+            byte[] result = body.bytes();
+            logger.info("okhttp get bytes url:{}, length:{}", url, result.length);
+            return result;
+        } catch (Exception e) {
+            logger.error("okHttpUtils get bytes url:{}, error", url, e);
+            return null;
+        }
+    }
+
+    /**
+     * 按请求描述发起get请求，由处理器决定响应内容的形式，不需要文本时不做字符集解码
+     * 该方法不参与配置中的请求合并与对冲，处理结果可能是需要归还的池化缓冲区
+     *
+     * @param <T>     处理结果类型
+     * @param spec    请求描述
+     * @param handler 响应内容处理器，如 {@link HttpResponseHandler#ofBytes()}
+     * @return 调用结果，包含任意状态码的响应，请求失败或处理失败返回 null
+     */
+    public static <T> HttpResult<T> get(HttpRequestSpec spec, HttpResponseHandler<T> handler) {
+        logger.info("okhttp get spec:{}", spec);
+        try {
+            return doExecute(spec.getProfile(), buildGetRequest(spec.getUrl(), spec.getParamMap(), spec.getHeaderMap()),
+                    handler);
+        } catch (Exception e) {
+            logger.error("okHttpUtils get spec:{}, error", spec, e);
+            return null;
+        }
+    }
+
+    /**
+     * 按请求描述发起post请求，由处理器决定响应内容的形式，不需要文本时不做字符集解码
+     * 请求描述中的参数拼接到 url 上
+     *
+     * @param <T>     处理结果类型
+     * @param spec    请求描述
+     * @param json    请求参数
+     * @param handler 响应内容处理器，如 {@link HttpResponseHandler#ofBytes()}
+     * @return 调用结果，包含任意状态码的响应，请求失败或处理失败返回 null
+     */
+    public static <T> HttpResult<T> post(HttpRequestSpec spec, String json, HttpResponseHandler<T> handler) {
+        logger.info("okhttp post spec:{}, json length:{}", spec, json == null ? null : json.length());
+        try {
+            return doExecute(spec.getProfile(),
+                    buildPostRequest(getUrl(spec.getUrl(), spec.getParamMap()), json, spec.getHeaderMap()), handler);
+        } catch (Exception e) {
+            logger.error("okHttpUtils post spec:{}, error", spec, e);
+            return null;
+        }
+    }
+
+    /**
+     * 发起异步get请求
+     *
+     * @param url 请求地址
+     * @return 请求结果的 CompletableFuture
+     */
+    public static CompletableFuture<String> getAsync(String url) {
+        return getAsync(url, null, null, null);
+    }
+
+    /**
+     * 发起异步get请求
+     *
+     * @param url       请求地址
+     * @param headerMap 请求头
+     * @return 请求结果的 CompletableFuture
+     */
+    public static CompletableFuture<String> getAsync(String url, Map<String, String> headerMap) {
+        return getAsync(url, null, headerMap, null);
+    }
+
+    /**
+     * 发起异步get请求
+     *
+     * @param url       请求地址
+     * @param paramMap  请求参数
+     * @param headerMap 请求头
+     * @return 请求结果的 CompletableFuture
+     */
+    public static CompletableFuture<String> getAsync(String url, Map<String, String> paramMap, Map<String, String> headerMap) {
+        return getAsync(url, paramMap, headerMap, null);
+    }
+
+    /**
+     * 发起异步get请求，请求完成后回调 callback
+     * <p>
+     * 请求通过 OkHttp 的 {@link Call#enqueue(Callback)} 发出，不会阻塞调用线程；
+     * 回调与 future 的完成均发生在 OkHttp 的调度线程上，回调中不宜执行耗时操作
+     *
+     * @param url       请求地址
+     * @param paramMap  请求参数
+     * @param headerMap 请求头
+     * @param callback  回调，可为 null
+     * @return 请求结果的 CompletableFuture，请求失败时以异常完成
+     */
+    public static CompletableFuture<String> getAsync(String url, Map<String, String> paramMap, Map<String, String> headerMap,
+                                                     HttpUtilCallback callback) {
+        logger.info("okhttp async get url:{}, paramMap:{}, headerMap:{}", url, paramMap, headerMap);
+        try {
+            return doExecuteAsync(buildGetRequest(url, paramMap, headerMap), callback);
+        } catch (Exception e) {
+            logger.error("okHttpUtils async get url:{}, error", url, e);
+            return failedFuture(e, callback);
+        }
+    }
+
+    /**
+     * 按请求描述发起异步get请求，使用请求描述中指定的客户端配置
+     *
+     * @param spec     请求描述
+     * @param callback 回调，可为 null
+     * @return 请求结果的 CompletableFuture，请求失败时以异常完成
+     */
+    public static CompletableFuture<String> getAsync(HttpRequestSpec spec, HttpUtilCallback callback) {
+        logger.info("okhttp async get spec:{}", spec);
+        try {
+            return doExecuteAsync(spec.getProfile(),
+                    buildGetRequest(spec.getUrl(), spec.getParamMap(), spec.getHeaderMap()), callback);
+        } catch (Exception e) {
+            logger.error("okHttpUtils async get spec:{}, error", spec, e);
+            return failedFuture(e, callback);
+        }
+    }
+
+    /**
+     * 发起异步post请求
+     *
+     * @param url  请求地址
+     * @param json 请求参数
+     * @return 请求结果的 CompletableFuture
+     */
+    public static CompletableFuture<String> postAsync(String url, String json) {
+        return postAsync(url, json, null, null);
+    }
+
+    /**
+     * 发起异步post请求，支持自定义请求头
+     *
+     * @param url       请求地址
+     * @param json      请求参数
+     * @param headerMap 请求头
+     * @return 请求结果的 CompletableFuture
+     */
+    public static CompletableFuture<String> postAsync(String url, String json, Map<String, String> headerMap) {
+        return postAsync(url, json, headerMap, null);
+    }
+
+    /**
+     * 发起异步post请求，请求完成后回调 callback
+     *
+     * @param url       请求地址
+     * @param json      请求参数
+     * @param headerMap 请求头
+     * @param callback  回调，可为 null
+     * @return 请求结果的 CompletableFuture，请求失败时以异常完成
+     */
+    public static CompletableFuture<String> postAsync(String url, String json, Map<String, String> headerMap,
+                                                      HttpUtilCallback callback) {
+        logger.info("okhttp async post json url:{}, body:{}, headerMap:{}", url, json, headerMap);
+        try {
+            return doExecuteAsync(buildPostRequest(url, json, headerMap), callback);
+        } catch (Exception e) {
+            logger.error("okHttpUtils async post json url:{}, error", url, e);
+            return failedFuture(e, callback);
+        }
+    }
+
+    /**
+     * 发起异步post form请求
+     *
+     * @param url       请求地址
+     * @param paramsMap 请求参数
+     * @return 请求结果的 CompletableFuture
+     */
+    public static CompletableFuture<String> postFormAsync(String url, Map<String, String> paramsMap) {
+        return postFormAsync(url, paramsMap, null, null);
+    }
+
+    /**
+     * 发起异步post form请求，支持自定义请求头
+     *
+     * @param url       请求地址
+     * @param paramsMap 请求参数
+     * @param headerMap 请求头
+     * @return 请求结果的 CompletableFuture
+     */
+    public static CompletableFuture<String> postFormAsync(String url, Map<String, String> paramsMap, Map<String, String> headerMap) {
+        return postFormAsync(url, paramsMap, headerMap, null);
+    }
+
+    /**
+     * 发起异步post form请求，请求完成后回调 callback
+     *
+     * @param url       请求地址
+     * @param paramsMap 请求参数
+     * @param headerMap 请求头
+     * @param callback  回调，可为 null
+     * @return 请求结果的 CompletableFuture，请求失败时以异常完成
+     */
+    public static CompletableFuture<String> postFormAsync(String url, Map<String, String> paramsMap, Map<String, String> headerMap,
+                                                          HttpUtilCallback callback) {
+        logger.info("okhttp async post form url:{}, body:{}, headerMap:{}", url, paramsMap, headerMap);
+        try {
+            return doExecuteAsync(buildPostFormRequest(url, paramsMap, headerMap), callback);
+        } catch (Exception e) {
+            logger.error("okHttpUtils async post form url:{}, error", url, e);
+            return failedFuture(e, callback);
+        }
+    }
+
+    /**
+     * 批量发起get请求
+     * <p>
+     * JDK 支持虚拟线程时使用虚拟线程执行，否则使用不超过 maxConcurrency 的平台线程池；
+     * 单个 host 的并发额外限制在请求所用配置的连接池大小以内，避免一个批次占满连接池。
+     * 调用线程阻塞至全部请求结束
+     *
+     * @param specs          请求列表
+     * @param maxConcurrency 并发上限
+     * @return 请求结果列表，与入参顺序一致，每个结果独立记录成功与否
+     */
+    public static List<HttpBatchResult> getAll(List<HttpRequestSpec> specs, int maxConcurrency) {
+        if (specs == null || specs.isEmpty()) {
+            return new ArrayList<>();
+        }
+        logger.info("okhttp batch get size:{}, maxConcurrency:{}", specs.size(), maxConcurrency);
+        return HttpBatchExecutor.execute(specs, maxConcurrency,
+                spec -> HttpClientRegistry.getProfile(spec.getProfile()).getMaxIdleConnections(),
+                HttpUtils::executeBatchItem);
+    }
+
+    private static HttpBatchResult executeBatchItem(int index, HttpRequestSpec spec) {
+        try {
+            Request.Builder request = buildGetRequest(spec.getUrl(), spec.getParamMap(), spec.getHeaderMap());
+            try (Response response = newCall(spec.getProfile(), request).execute()) {
+                ResponseBody body = response.body();
+                return new HttpBatchResult(index, spec, response.code(), body == null ? null : HttpResponseLimiter.string(body), null);
+            }
+        } catch (Exception e) {
+            logger.error("okHttpUtils batch get spec:{}, error", spec, e);
+            return new HttpBatchResult(index, spec, -1, null, e);
+        }
+    }
+
+    private static Request.Builder buildGetRequest(String url, Map<String, String> paramMap, Map<String, String> headerMap) {
+        Request.Builder request = new Request.Builder().get();
+        addGetHeader(request, headerMap);
+        String finalUrl = getUrl(url, paramMap);
+        logger.info("okhttp get url:{}, add param final url:{}", url, finalUrl);
+        request.url(finalUrl);
+        return request;
+    }
+
+    private static Request.Builder buildPostRequest(String url, String json, Map<String, String> headerMap) {
+        RequestBody requestBody = RequestBody.create(json, JsonRequestBody.JSON);
+        Request.Builder request = new Request.Builder().post(requestBody).url(url);
+        addHeader(request, headerMap);
+        return request;
+    }
+
+    private static Request.Builder buildPostFormRequest(String url, Map<String, String> paramsMap, Map<String, String> headerMap) {
+        FormBody.Builder formBody = new FormBody.Builder();
+        if (paramsMap != null && !paramsMap.isEmpty()) {
+            paramsMap.forEach(formBody::add);
+        }
+        RequestBody requestBody = formBody.build();
+        Request.Builder request = new Request.Builder().post(requestBody).url(url);
+        addHeader(request, headerMap);
+        return request;
+    }
+
+    /**
+     * 发起同步get请求，配置开启合并时并发的相同请求共享一次调用
+     */
+    private static String doGet(String profile, String url, Map<String, String> paramMap, Map<String, String> headerMap) {
+        HttpClientProfile clientProfile = HttpClientRegistry.profile(profile);
+        Request.Builder request = buildGetRequest(url, paramMap, headerMap);
+        HttpRetryPolicy retryPolicy = clientProfile.getRetryPolicy();
+        boolean hedge = retryPolicy != null && retryPolicy.isHedgeGet();
+        if (!clientProfile.isCoalesceGet()) {
+            return hedge ? doExecuteHedged(profile, request) : doExecute(profile, request);
+        }
+        String key = HttpSingleFlight.key(clientProfile.getName(), getUrl(url, paramMap), headerMap,
+                clientProfile.getCoalesceKeyHeaders());
+        return getSingleFlight.execute(key, () -> hedge ? doExecuteHedged(profile, request) : doExecute(profile, request));
+    }
+
+    /**
+     * 发起对冲请求：首个请求超过该 host 历史耗时分位仍未返回时，在重试预算允许的情况下再发出一个相同请求，
+     * 取先返回者并取消另一个
+     */
+    private static String doExecuteHedged(String profile, Request.Builder request) {
+        Request built = request.build();
+        String host = built.url().host();
+        HttpRetryInterceptor retryInterceptor = HttpClientRegistry.retryInterceptor(profile);
+        HttpRetryPolicy policy = retryInterceptor.getPolicy();
+        long delayMicros = HttpClientRegistry.metrics(profile).percentileMicros(host, HttpPhase.TOTAL,
+                policy.getHedgePercentile(), HttpRetryInterceptor.HEDGE_MIN_SAMPLES);
+        if (delayMicros < 0) {
+            return doExecute(profile, request);
+        }
+        long delayMillis = Math.max(policy.getHedgeMinDelayMillis(), TimeUnit.MICROSECONDS.toMillis(delayMicros));
+        CompletableFuture<String> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        Call primary = HttpClientRegistry.getClient(profile).newCall(built);
+        Call hedge = null;
+        enqueueHedged(primary, result, pending);
+        try {
+            try {
+                return result.get(delayMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (retryInterceptor.tryAcquireHedge(host)) {
+                    logger.info("okhttp hedge url:{}, after:{}ms", built.url(), delayMillis);
+                    hedge = primary.clone();
+                    pending.incrementAndGet();
+                    enqueueHedged(hedge, result, pending);
+                }
+            }
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("okHttpUtils hedge interrupted", e);
+        } catch (ExecutionException e) {
+            logger.error("okHttpUtils error", e.getCause());
+        } finally {
+            primary.cancel();
+            if (hedge != null) {
+                hedge.cancel();
+            }
+        }
+        return null;
+    }
+
+    private static void enqueueHedged(Call call, CompletableFuture<String> result, AtomicInteger pending) {
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                // 所有已发出的请求都失败时才以异常结束
+                if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (ResponseBody body = response.body()) {
+                    result.complete(body == null ? null : HttpResponseLimiter.string(body));
+                } catch (IOException e) {
+                    onFailure(call, e);
+                }
+            }
+        });
+    }
+
+    private static Call newCall(String profile, Request.Builder request) {
+        return HttpClientRegistry.getClient(profile).newCall(request.build());
+    }
 
     private static String doExecute(Request.Builder request) {
+        return doExecute(null, request);
+    }
+
+    private static String doExecute(String profile, Request.Builder request) {
         String result = null;
-        try (Response response = okHttpClient.newCall(request.build()).execute()) {
+        try (Response response = newCall(profile, request).execute()) {
             if (response.body() != null) {
-                result = response.body().string();
+                result = HttpResponseLimiter.string(response.body());
             }
         } catch (Exception e) {
             logger.error("okHttpUtils error", e);
@@ -179,6 +878,131 @@ public class HttpUtils {
         return result;
     }
 
+    private static <T> HttpResult<T> doExecute(String profile, Request.Builder request, HttpResponseHandler<T> handler)
+            throws IOException {
+        long start = System.nanoTime();
+        try (Response response = newCall(profile, request).execute()) {
+            ResponseBody body = response.body();
+            T result = body == null ? null : handler.handle(body);
+            HttpResult<T> httpResult = new HttpResult<>(response.code(), response.headers(), result,
+                    response.sentRequestAtMillis(), response.receivedResponseAtMillis(), System.nanoTime() - start);
+            logger.info("okhttp url:{}, result:{}", response.request().url(), httpResult);
+            return httpResult;
+        }
+    }
+
+    private static <T> T doExecuteJson(String profile, Request.Builder request, Function<InputStream, T> reader)
+            throws IOException {
+        try (Response response = newCall(profile, request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                logger.error("okHttpUtils json url:{}, unexpected response code:{}", response.request().url(), response.code());
+                return null;
+            }
+            try (InputStream in = body.byteStream()) {
+                return reader.apply(in);
+            }
+        }
+    }
+
+    private static CompletableFuture<String> doExecuteAsync(Request.Builder request, HttpUtilCallback callback)
+            throws IOException {
+        return doExecuteAsync(null, request, callback);
+    }
+
+    private static CompletableFuture<String> doExecuteAsync(String profile, Request.Builder request, HttpUtilCallback callback)
+            throws IOException {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        HttpRateLimiter rateLimiter = HttpClientRegistry.rateLimiter(profile);
+        long delayNanos = 0;
+        if (rateLimiter != null) {
+            // 入队前预约令牌，令牌不足时延迟入队而不是占用调度线程等待
+            delayNanos = rateLimiter.reserve(request.build().url());
+            request.tag(HttpRateLimiter.Permit.class, new HttpRateLimiter.Permit());
+        }
+        Call call = newCall(profile, request);
+        Callback responseCallback = new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                logger.error("okHttpUtils async error", e);
+                if (callback != null) {
+                    try {
+                        callback.fail(call, e.getMessage());
+                    } catch (Exception ce) {
+                        logger.error("okHttpUtils async callback fail error", ce);
+                    }
+                }
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                String result = null;
+                try (ResponseBody body = response.body()) {
+                    if (body != null) {
+                        result = HttpResponseLimiter.string(body);
+                    }
+                } catch (IOException e) {
+                    onFailure(call, e);
+                    return;
+                }
+                logger.info("okhttp async url:{},result:{}", call.request().url(), abbreviate(result));
+                if (callback != null) {
+                    try {
+                        callback.success(call, result);
+                    } catch (Exception ce) {
+                        logger.error("okHttpUtils async callback success error", ce);
+                    }
+                }
+                future.complete(result);
+            }
+        };
+        if (delayNanos > 0) {
+            HttpRateLimiter.schedule(() -> call.enqueue(responseCallback), delayNanos);
+        } else {
+            call.enqueue(responseCallback);
+        }
+        // 调用方取消 future 时同步取消底层请求，释放连接
+        future.whenComplete((r, t) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    private static CompletableFuture<String> failedFuture(Exception e, HttpUtilCallback callback) {
+        if (callback != null) {
+            try {
+                callback.fail(null, e.getMessage());
+            } catch (Exception ce) {
+                logger.error("okHttpUtils async callback fail error", ce);
+            }
+        }
+        return CompletableFuture.failedFuture(e);
+    }
+
+    /**
+     * 截断过长的结果，避免日志打印超大响应
+     */
+    private static String abbreviate(String result) {
+        if (result == null || result.length() <= MAX_LOG_LENGTH) {
+            return result;
+        }
+        return result.substring(0, MAX_LOG_LENGTH) + "...(length:" + result.length() + ")";
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("delete file:{} error", path, e);
+        }
+    }
+
     private static String getUrl(String url, Map<String, String> paramMap) {
         if (StringUtil.isBlank(url) || paramMap == null || paramMap.isEmpty()) {
             return url;
@@ -215,47 +1039,4 @@ public class HttpUtils {
         }
         headerMap.forEach(request::addHeader);
     }
-
-
-    /**
-     * 生成安全套接字工厂，用于 HTTPS 请求的证书跳过
-     *
-     * @param trustAllCerts 信任管理器数组
-     * @return SSL 套接字工厂
-     */
-    private static SSLSocketFactory createSSLSocketFactory(TrustManager[] trustAllCerts) {
-        SSLSocketFactory ssfFactory = null;
-        try {
-            SSLContext sc = SSLContext.getInstance("SSL");
-            sc.init(null, trustAllCerts, new SecureRandom());
-            ssfFactory = sc.getSocketFactory();
-        } catch (Exception e) {
-            logger.warn("create SSL Socket Factory exception", e);
-        }
-        return ssfFactory;
-    }
-
-    /**
-     * 构建信任所有证书的信任管理器
-     *
-     * @return 信任管理器数组
-     */
-    private static TrustManager[] buildTrustManagers() {
-        return new TrustManager[]{
-                new X509TrustManager() {
-                    @Override
-                    public void checkClientTrusted(X509Certificate[] chain, String authType) {
-                    }
-
-                    @Override
-                    public void checkServerTrusted(X509Certificate[] chain, String authType) {
-                    }
-
-                    @Override
-                    public X509Certificate[] getAcceptedIssuers() {
-                        return new X509Certificate[]{};
-                    }
-                }
-        };
-    }
 }
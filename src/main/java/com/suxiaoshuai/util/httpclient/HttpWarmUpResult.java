@@ -0,0 +1,108 @@
+package com.suxiaoshuai.util.httpclient;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 连接预热结果
+ *
+ * @author sxs
+ */
+public class HttpWarmUpResult {
+
+    /**
+     * 客户端配置名称
+     */
+    private final String profile;
+    /**
+     * 每个目标期望建立的连接数
+     */
+    private final int connectionsPerTarget;
+    /**
+     * 目标到已建立连接数的映射，HTTP/2 目标只需一条连接
+     */
+    private final Map<String, Integer> connections;
+    /**
+     * 目标到失败原因的映射，只记录每个目标的第一个失败
+     */
+    private final Map<String, String> failures;
+    /**
+     * 是否所有目标都已建立期望数量的连接
+     */
+    private final boolean ready;
+    /**
+     * 预热耗时，单位：毫秒
+     */
+    private final long elapsedMillis;
+
+    HttpWarmUpResult(String profile, int connectionsPerTarget, Map<String, Integer> connections,
+                     Map<String, String> failures, boolean ready, long elapsedMillis) {
+        this.profile = profile;
+        this.connectionsPerTarget = connectionsPerTarget;
+        this.connections = Collections.unmodifiableMap(connections);
+        this.failures = Collections.unmodifiableMap(failures);
+        this.ready = ready;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * 获取客户端配置名称
+     *
+     * @return 配置名称
+     */
+    public String getProfile() {
+        return profile;
+    }
+
+    /**
+     * 获取每个目标期望建立的连接数
+     *
+     * @return 连接数
+     */
+    public int getConnectionsPerTarget() {
+        return connectionsPerTarget;
+    }
+
+    /**
+     * 获取每个目标已建立的连接数
+     *
+     * @return 目标到连接数的映射，按入参顺序
+     */
+    public Map<String, Integer> getConnections() {
+        return connections;
+    }
+
+    /**
+     * 获取失败的目标及原因
+     *
+     * @return 目标到失败原因的映射
+     */
+    public Map<String, String> getFailures() {
+        return failures;
+    }
+
+    /**
+     * 是否所有目标都已建立期望数量的连接，HTTP/2 目标建立一条连接即视为就绪
+     *
+     * @return 就绪返回 true
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 获取预热耗时
+     *
+     * @return 耗时，单位：毫秒
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpWarmUpResult{profile='" + profile + "', connectionsPerTarget=" + connectionsPerTarget
+                + ", connections=" + connections + ", failures=" + failures + ", ready=" + ready
+                + ", elapsedMillis=" + elapsedMillis + '}';
+    }
+}
@@ -0,0 +1,35 @@
+package com.suxiaoshuai.util.httpclient;
+
+import com.suxiaoshuai.util.json.JsonUtil;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+import java.io.IOException;
+
+/**
+ * 以 Json 序列化对象的请求体
+ * 对象在发送时直接序列化进请求 sink，不生成中间字符串；每次写入都重新序列化，可被重试重复发送
+ *
+ * @author sxs
+ */
+class JsonRequestBody extends RequestBody {
+
+    static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    private final Object value;
+
+    JsonRequestBody(Object value) {
+        this.value = value;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return JSON;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        JsonUtil.toJson(value, sink.outputStream());
+    }
+}
@@ -0,0 +1,18 @@
+package com.suxiaoshuai.util.json;
+
+/**
+ * JsonUtil 访问 Bean 属性的方式
+ * 在启动参数中通过 {@link JsonUtil#BEAN_ACCESS_PROPERTY} 指定，JsonUtil 初始化后不可再切换
+ */
+public enum JsonBeanAccessMode {
+    /**
+     * Jackson 默认的反射调用 getter/setter 与字段
+     */
+    REFLECTION,
+    /**
+     * 使用 Jackson Blackbird 模块，通过 LambdaMetafactory 生成属性访问器替代反射调用，
+     * 适用于大量小对象的序列化热点；需要引入 jackson-module-blackbird，缺失时回退为 {@link #REFLECTION}
+     */
+    BLACKBIRD,
+    ;
+}
@@ -0,0 +1,187 @@
+package com.suxiaoshuai.util.json;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 绑定目标类型的 Json 编解码器，线程安全，可长期持有
+ * 内部是针对该类型预先构建的不可变 ObjectReader/ObjectWriter，省去每次调用时的类型构造与(反)序列化器查找；
+ * 配置与 {@link JsonUtil} 一致，失败时记录日志并返回null；
+ * 与 JsonUtil 相同，String 值视为已经是Json原样输出，目标类型为String时原样返回输入内容
+ * <pre>
+ * private static final JsonCodec&lt;Order&gt; ORDER = JsonUtil.codec(Order.class);
+ * Order order = ORDER.parse(body);
+ * </pre>
+ *
+ * @param <T> 目标类型
+ */
+public final class JsonCodec<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonCodec.class);
+
+    private final JavaType type;
+
+    private final ObjectReader reader;
+
+    private final ObjectWriter writer;
+
+    private final boolean rawString;
+
+    JsonCodec(JavaType type, ObjectReader reader, ObjectWriter writer) {
+        this.type = type;
+        this.reader = reader;
+        this.writer = writer;
+        this.rawString = type.hasRawClass(String.class);
+    }
+
+    /**
+     * @return 绑定的目标类型
+     */
+    public JavaType getType() {
+        return type;
+    }
+
+    /**
+     * 对象转Json格式字符串
+     *
+     * @param obj 对象实例
+     * @return   JSON格式字符串，如果转换失败则返回null
+     */
+    public String toJson(T obj) {
+        if (obj == null) {
+            return null;
+        }
+        try {
+            return obj instanceof String ? (String) obj : writer.writeValueAsString(obj);
+        } catch (Exception e) {
+            logger.error("obj：{}转成Json异常", type.toCanonical(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 对象序列化为UTF-8编码的Json字节数组
+     *
+     * @param obj 对象实例
+     * @return   Json字节数组，如果转换失败则返回null
+     */
+    public byte[] toJsonBytes(T obj) {
+        if (obj == null) {
+            return null;
+        }
+        try {
+            return obj instanceof String ? ((String) obj).getBytes(StandardCharsets.UTF_8)
+                    : writer.writeValueAsBytes(obj);
+        } catch (Exception e) {
+            logger.error("obj：{}转成Json异常", type.toCanonical(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 对象序列化为Json写入输出流，不关闭流
+     *
+     * @param obj 对象实例
+     * @param out 输出流
+     * @throws IOException 序列化或写入失败
+     */
+    public void toJson(T obj, OutputStream out) throws IOException {
+        if (obj instanceof String) {
+            out.write(((String) obj).getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            return;
+        }
+        writer.writeValue(out, obj);
+    }
+
+    /**
+     * 解析Json字符串
+     *
+     * @param json JSON字符串
+     * @return    转换后的对象实例，如果转换失败则返回null
+     */
+    public T parse(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return rawString ? text(json) : reader.readValue(json);
+        } catch (Exception e) {
+            logger.error("parse json：{} --> obj:{},异常", json, type.toCanonical(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 解析UTF-8编码的Json字节数组
+     *
+     * @param json Json字节数组
+     * @return    转换后的对象实例，如果转换失败则返回null
+     */
+    public T parse(byte[] json) {
+        return json == null ? null : parse(json, 0, json.length);
+    }
+
+    /**
+     * 解析字节数组指定区间内的Json
+     *
+     * @param json   Json字节数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @return      转换后的对象实例，如果转换失败则返回null
+     */
+    public T parse(byte[] json, int offset, int length) {
+        if (json == null || length <= 0) {
+            return null;
+        }
+        try {
+            return rawString ? text(new String(json, offset, length, StandardCharsets.UTF_8))
+                    : reader.readValue(json, offset, length);
+        } catch (Exception e) {
+            logger.error("parse json byte[{}] --> obj:{},异常", length, type.toCanonical(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 从输入流读取Json，不关闭流
+     *
+     * @param in 输入流
+     * @return  转换后的对象实例，如果转换失败则返回null
+     */
+    public T parse(InputStream in) {
+        if (in == null) {
+            return null;
+        }
+        try {
+            return rawString ? text(new String(in.readAllBytes(), StandardCharsets.UTF_8)) : reader.readValue(in);
+        } catch (Exception e) {
+            logger.error("parse json stream --> obj:{},异常", type.toCanonical(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 目标类型为 String 时原样返回文本，仅在 rawString 为 true 时调用
+     */
+    @SuppressWarnings("unchecked")
+    private T text(String text) {
+        return (T) text;
+    }
+
+    ObjectReader reader() {
+        return reader;
+    }
+
+    ObjectWriter writer() {
+        return writer;
+    }
+}
@@ -0,0 +1,455 @@
+package com.suxiaoshuai.util.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * JSON Lines（NDJSON）并行读取器
+ * 输入按行边界切分为多个分块（文件由各工作线程按位置并发读取），各分块在 ForkJoinPool 上并行解析；
+ * 有序模式按输入顺序交付元素，无序模式在工作线程上按解析完成的顺序交付。
+ * 空行忽略，无法解析的行记录日志后跳过
+ * <pre>
+ * List&lt;Event&gt; events = new JsonLinesReader&lt;&gt;(Event.class).setOrdered(false).readAll(path);
+ * </pre>
+ *
+ * @param <T> 元素类型
+ * @author sxs
+ */
+public class JsonLinesReader<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonLinesReader.class);
+
+    /**
+     * 默认分块大小：4MB
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 4 << 20;
+
+    /**
+     * 单个分块的上限，单行超过该长度时无法读取
+     */
+    private static final int MAX_CHUNK_SIZE = Integer.MAX_VALUE - 8;
+
+    private final ObjectReader reader;
+
+    private final String typeName;
+
+    private final LongAdder invalidLines = new LongAdder();
+
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    private boolean ordered = true;
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /**
+     * 创建读取指定类型元素的读取器
+     *
+     * @param elementClass 元素类型的Class对象
+     */
+    public JsonLinesReader(Class<T> elementClass) {
+        this.reader = JsonUtil.codec(elementClass).reader();
+        this.typeName = elementClass.getName();
+    }
+
+    /**
+     * 创建读取指定泛型类型元素的读取器
+     *
+     * @param typeReference 类型引用对象，用于处理泛型类型
+     */
+    public JsonLinesReader(TypeReference<T> typeReference) {
+        this.reader = JsonUtil.codec(typeReference).reader();
+        this.typeName = typeReference.getType().getTypeName();
+    }
+
+    /**
+     * 设置是否按输入顺序交付元素，默认 true
+     * 无序模式下 forEach 的回调会在多个工作线程上并发执行，需自行保证线程安全
+     *
+     * @param ordered 是否有序
+     * @return 当前对象，支持链式调用
+     */
+    public JsonLinesReader<T> setOrdered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * 设置解析使用的线程池，默认 {@link ForkJoinPool#commonPool()}
+     *
+     * @param pool 线程池
+     * @return 当前对象，支持链式调用
+     */
+    public JsonLinesReader<T> setPool(ForkJoinPool pool) {
+        if (pool != null) {
+            this.pool = pool;
+        }
+        return this;
+    }
+
+    /**
+     * 设置分块大小，实际分块会延伸到下一个换行符，默认 4MB
+     *
+     * @param chunkSize 分块大小（字节）
+     * @return 当前对象，支持链式调用
+     */
+    public JsonLinesReader<T> setChunkSize(int chunkSize) {
+        if (chunkSize > 0) {
+            this.chunkSize = chunkSize;
+        }
+        return this;
+    }
+
+    /**
+     * 获取累计跳过的无法解析的行数
+     *
+     * @return 无法解析的行数
+     */
+    public long getInvalidLineCount() {
+        return invalidLines.sum();
+    }
+
+    /**
+     * 读取文件中的全部元素，文件按分块并发读取后并行解析
+     *
+     * @param path 文件路径
+     * @return 元素列表
+     * @throws IOException 读取文件失败
+     */
+    public List<T> readAll(Path path) throws IOException {
+        List<T> result = newResult();
+        forEachChunk(path, result::addAll);
+        return result;
+    }
+
+    /**
+     * 读取输入流中的全部元素，调用线程顺序读取分块，解析并行进行。不关闭流
+     *
+     * @param in 输入流
+     * @return 元素列表
+     * @throws IOException 读取流失败
+     */
+    public List<T> readAll(InputStream in) throws IOException {
+        List<T> result = newResult();
+        process(new StreamChunks(in), result::addAll);
+        return result;
+    }
+
+    /**
+     * 读取字节数组中的全部元素，分块直接引用原数组，不发生复制
+     *
+     * @param data UTF-8 编码的 JSON Lines 内容
+     * @return 元素列表
+     */
+    public List<T> readAll(byte[] data) {
+        List<T> result = newResult();
+        try {
+            process(new ArrayChunks(data), result::addAll);
+        } catch (IOException e) {
+            // 字节数组分块不涉及IO
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
+
+    /**
+     * 逐个处理文件中的元素
+     *
+     * @param path   文件路径
+     * @param action 元素回调，无序模式下会被并发调用
+     * @throws IOException 读取文件失败
+     */
+    public void forEach(Path path, Consumer<? super T> action) throws IOException {
+        forEachChunk(path, items -> items.forEach(action));
+    }
+
+    /**
+     * 逐个处理输入流中的元素。不关闭流
+     *
+     * @param in     输入流
+     * @param action 元素回调，无序模式下会被并发调用
+     * @throws IOException 读取流失败
+     */
+    public void forEach(InputStream in, Consumer<? super T> action) throws IOException {
+        process(new StreamChunks(in), items -> items.forEach(action));
+    }
+
+    private List<T> newResult() {
+        return ordered ? new ArrayList<>() : Collections.synchronizedList(new ArrayList<>());
+    }
+
+    private void forEachChunk(Path path, Consumer<List<T>> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            process(new FileChunks(channel), sink);
+        }
+    }
+
+    /**
+     * 提交分块解析任务，同时在途的分块数不超过并行度的两倍，控制内存占用
+     * 有序模式下 sink 在调用线程上按分块顺序执行，无序模式下在工作线程上执行
+     */
+    private void process(ChunkSource source, Consumer<List<T>> sink) throws IOException {
+        int window = Math.max(2, pool.getParallelism() * 2);
+        ArrayDeque<ForkJoinTask<List<T>>> inFlight = new ArrayDeque<>();
+        try {
+            ChunkLoader loader;
+            while ((loader = source.next()) != null) {
+                ChunkLoader current = loader;
+                inFlight.add(pool.submit(() -> {
+                    List<T> items = parse(current.load());
+                    if (!ordered) {
+                        sink.accept(items);
+                    }
+                    return items;
+                }));
+                if (inFlight.size() >= window) {
+                    complete(inFlight.poll(), sink);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                complete(inFlight.poll(), sink);
+            }
+        } finally {
+            // 异常退出时取消剩余任务，避免在关闭文件后继续读取
+            for (ForkJoinTask<List<T>> task : inFlight) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    private void complete(ForkJoinTask<List<T>> task, Consumer<List<T>> sink) throws IOException {
+        List<T> items;
+        try {
+            items = task.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (ordered) {
+            sink.accept(items);
+        }
+    }
+
+    private List<T> parse(Chunk chunk) {
+        byte[] data = chunk.data;
+        int end = chunk.offset + chunk.length;
+        List<T> items = new ArrayList<>();
+        int pos = chunk.offset;
+        while (pos < end) {
+            int lineEnd = pos;
+            while (lineEnd < end && data[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            int start = pos;
+            int stop = lineEnd;
+            while (start < stop && data[start] <= ' ') {
+                start++;
+            }
+            while (stop > start && data[stop - 1] <= ' ') {
+                stop--;
+            }
+            if (start < stop) {
+                try {
+                    T item = reader.readValue(data, start, stop - start);
+                    if (item != null) {
+                        items.add(item);
+                    }
+                } catch (IOException e) {
+                    invalidLines.increment();
+                    logger.warn("parse json line --> obj:{},异常:{}", typeName, e.getMessage());
+                }
+            }
+            pos = lineEnd + 1;
+        }
+        return items;
+    }
+
+    private static final class Chunk {
+        private final byte[] data;
+        private final int offset;
+        private final int length;
+
+        private Chunk(byte[] data, int offset, int length) {
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * 分块的加载动作，在工作线程上执行
+     */
+    @FunctionalInterface
+    private interface ChunkLoader {
+        Chunk load();
+    }
+
+    /**
+     * 按行边界依次切分输入，返回 null 表示输入结束
+     */
+    @FunctionalInterface
+    private interface ChunkSource {
+        ChunkLoader next() throws IOException;
+    }
+
+    /**
+     * 文件分块：调用线程只负责定位换行边界，读取在工作线程上并行进行
+     */
+    private final class FileChunks implements ChunkSource {
+        private final FileChannel channel;
+        private final long size;
+        private final ByteBuffer probe = ByteBuffer.allocate(8 << 10);
+        private long position;
+
+        private FileChunks(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        @Override
+        public ChunkLoader next() throws IOException {
+            if (position >= size) {
+                return null;
+            }
+            long start = position;
+            long end = lineBoundary(start + chunkSize);
+            if (end - start > MAX_CHUNK_SIZE) {
+                throw new IOException("json line too long at offset " + start);
+            }
+            position = end;
+            return () -> {
+                try {
+                    // 按位置读取不改变通道的 position，多个工作线程可并发读取同一通道
+                    byte[] data = new byte[(int) (end - start)];
+                    ByteBuffer buffer = ByteBuffer.wrap(data);
+                    while (buffer.hasRemaining()) {
+                        if (channel.read(buffer, start + buffer.position()) < 0) {
+                            throw new EOFException("file truncated while reading json lines at offset " + start);
+                        }
+                    }
+                    return new Chunk(data, 0, data.length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+        }
+
+        private long lineBoundary(long from) throws IOException {
+            long pos = from;
+            while (pos < size) {
+                probe.clear();
+                int read = channel.read(probe, pos);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        return pos + i + 1;
+                    }
+                }
+                pos += read;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * 输入流分块：调用线程读取数据，不完整的末行留到下一分块
+     */
+    private final class StreamChunks implements ChunkSource {
+        private final InputStream in;
+        private byte[] carry = new byte[0];
+        private boolean eof;
+
+        private StreamChunks(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public ChunkLoader next() throws IOException {
+            if (eof && carry.length == 0) {
+                return null;
+            }
+            byte[] buf = Arrays.copyOf(carry, Math.max(chunkSize, carry.length * 2));
+            int filled = carry.length;
+            int scanned = 0;
+            while (true) {
+                while (!eof && filled < buf.length) {
+                    int read = in.read(buf, filled, buf.length - filled);
+                    if (read < 0) {
+                        eof = true;
+                    } else {
+                        filled += read;
+                    }
+                }
+                int cut = lastNewline(buf, scanned, filled);
+                if (cut >= 0 || eof) {
+                    int length = eof ? filled : cut + 1;
+                    carry = Arrays.copyOfRange(buf, length, filled);
+                    Chunk chunk = new Chunk(buf, 0, length);
+                    return () -> chunk;
+                }
+                // 单行超过缓冲区，扩容后继续读取
+                if (buf.length >= MAX_CHUNK_SIZE) {
+                    throw new IOException("json line too long");
+                }
+                scanned = filled;
+                buf = Arrays.copyOf(buf, (int) Math.min(MAX_CHUNK_SIZE, buf.length * 2L));
+            }
+        }
+
+        private int lastNewline(byte[] buf, int from, int to) {
+            for (int i = to - 1; i >= from; i--) {
+                if (buf[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 字节数组分块：直接引用原数组
+     */
+    private final class ArrayChunks implements ChunkSource {
+        private final byte[] data;
+        private int position;
+
+        private ArrayChunks(byte[] data) {
+            this.data = data == null ? new byte[0] : data;
+        }
+
+        @Override
+        public ChunkLoader next() {
+            if (position >= data.length) {
+                return null;
+            }
+            int start = position;
+            int end = (int) Math.min(data.length, (long) start + chunkSize);
+            while (end < data.length && data[end - 1] != '\n') {
+                end++;
+            }
+            position = end;
+            Chunk chunk = new Chunk(data, start, end - start);
+            return () -> chunk;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.suxiaoshuai.util.json;
+
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * JSON Lines（NDJSON）写入器，线程安全
+ * 多个线程可同时调用 {@link #write(Object)}：序列化在调用线程上并行完成，
+ * 只有追加到共享缓冲区时加锁，缓冲区写满后整体写入通道。每个对象占一行
+ * <pre>
+ * try (JsonLinesWriter writer = JsonLinesWriter.open(path)) {
+ *     events.parallelStream().forEach(writer::writeQuietly);
+ * }
+ * </pre>
+ *
+ * @author sxs
+ */
+public class JsonLinesWriter implements Closeable {
+
+    /**
+     * 默认缓冲区大小：64KB
+     */
+    private static final int DEFAULT_BUFFER_SIZE = 64 << 10;
+
+    private static final byte NEW_LINE = '\n';
+
+    /**
+     * {@link #writeAll(List)} 每个并行序列化分片的记录数，在途分片数不超过并行度的两倍，内存占用与列表长度无关
+     */
+    private static final int SLICE_SIZE = 1024;
+
+    private final ObjectWriter writer = JsonUtil.mapper().writer();
+
+    private final WritableByteChannel channel;
+
+    private final ByteBuffer buffer;
+
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    private long lineCount;
+
+    private boolean closed;
+
+    /**
+     * 创建使用默认 64KB 缓冲区的写入器
+     *
+     * @param channel 目标通道，关闭写入器时一并关闭
+     */
+    public JsonLinesWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 创建写入器
+     *
+     * @param channel    目标通道，关闭写入器时一并关闭
+     * @param bufferSize 缓冲区大小（字节），不大于0时使用默认的 64KB
+     */
+    public JsonLinesWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize > 0 ? bufferSize : DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 创建写入文件的写入器，文件已存在时覆盖
+     *
+     * @param path 文件路径
+     * @return 写入器，关闭时同时关闭文件
+     * @throws IOException 打开文件失败
+     */
+    public static JsonLinesWriter open(Path path) throws IOException {
+        return new JsonLinesWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * 设置 {@link #writeAll(List)} 并行序列化使用的线程池，默认 {@link ForkJoinPool#commonPool()}
+     *
+     * @param pool 线程池
+     * @return 当前对象，支持链式调用
+     */
+    public JsonLinesWriter setPool(ForkJoinPool pool) {
+        if (pool != null) {
+            this.pool = pool;
+        }
+        return this;
+    }
+
+    /**
+     * 写入一个对象，占一行
+     *
+     * @param value 对象
+     * @throws IOException 序列化或写入失败
+     */
+    public void write(Object value) throws IOException {
+        ByteArrayBuilder line = new ByteArrayBuilder();
+        writeLine(line, value);
+        append(line.toByteArray(), 1);
+    }
+
+    /**
+     * 写入一个对象，失败时抛出 {@link UncheckedIOException}，便于在 Stream/Lambda 中使用
+     *
+     * @param value 对象
+     */
+    public void writeQuietly(Object value) {
+        try {
+            write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 按顺序写入一组对象，列表切分后在线程池上并行序列化，再按原顺序写入通道
+     *
+     * @param values 对象列表
+     * @throws IOException 序列化或写入失败
+     */
+    public void writeAll(List<?> values) throws IOException {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        int parallelism = pool.getParallelism();
+        int window = Math.max(2, parallelism * 2);
+        ArrayDeque<ForkJoinTask<byte[]>> inFlight = new ArrayDeque<>();
+        ArrayDeque<Integer> counts = new ArrayDeque<>();
+        try {
+            for (int from = 0; from < values.size(); from += SLICE_SIZE) {
+                List<?> slice = values.subList(from, Math.min(values.size(), from + SLICE_SIZE));
+                inFlight.add(pool.submit(() -> serialize(slice)));
+                counts.add(slice.size());
+                if (inFlight.size() >= window) {
+                    append(join(inFlight.poll()), counts.poll());
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                append(join(inFlight.poll()), counts.poll());
+            }
+        } finally {
+            for (ForkJoinTask<byte[]> task : inFlight) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * 将缓冲区内容写入通道
+     *
+     * @throws IOException 写入失败
+     */
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        drain();
+    }
+
+    /**
+     * 获取已写入的行数，包括尚在缓冲区中未写入通道的行
+     *
+     * @return 行数
+     */
+    public synchronized long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * 将缓冲区剩余内容写入通道并关闭通道，重复调用不产生效果
+     *
+     * @throws IOException 写入或关闭通道失败
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            drain();
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    private byte[] serialize(List<?> slice) {
+        ByteArrayBuilder out = new ByteArrayBuilder();
+        try {
+            for (Object value : slice) {
+                writeLine(out, value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private void writeLine(ByteArrayBuilder out, Object value) throws IOException {
+        writer.writeValue(out, value);
+        out.write(NEW_LINE);
+    }
+
+    private byte[] join(ForkJoinTask<byte[]> task) throws IOException {
+        try {
+            return task.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private synchronized void append(byte[] bytes, int lines) throws IOException {
+        ensureOpen();
+        if (bytes.length > buffer.remaining()) {
+            drain();
+            if (bytes.length > buffer.capacity()) {
+                // 超过缓冲区容量的内容直接写入通道
+                writeFully(ByteBuffer.wrap(bytes));
+                lineCount += lines;
+                return;
+            }
+        }
+        buffer.put(bytes);
+        lineCount += lines;
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        try {
+            writeFully(buffer);
+        } finally {
+            buffer.compact();
+        }
+    }
+
+    private void writeFully(ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            channel.write(src);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("json lines writer closed");
+        }
+    }
+}
@@ -1,22 +1,49 @@
 package com.suxiaoshuai.util.json;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.databind.util.LRUMap;
 import com.suxiaoshuai.constants.DatePatternConstant;
 import com.suxiaoshuai.util.string.StringUtil;
+import com.suxiaoshuai.util.system.SystemUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * json 工具类
@@ -26,8 +53,42 @@ public class JsonUtil<T> {
 
     private static final Logger logger = LoggerFactory.getLogger(JsonUtil.class);
 
+    /**
+     * 指定 Bean 属性访问方式的系统属性，取值见 {@link JsonBeanAccessMode}，如 -Dsxs.json.beanAccess=blackbird
+     */
+    public static final String BEAN_ACCESS_PROPERTY = "sxs.json.beanAccess";
+
+    private static final String BLACKBIRD_MODULE = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * 泛型类型缓存的容量上限，超出后淘汰最久未使用的条目，避免长期持有类与类加载器
+     */
+    private static final int MAX_CACHED_TYPES = 512;
+
+    /**
+     * 按 Class 缓存的编解码器，随类一同回收；内部的 ObjectReader/ObjectWriter 不可变，可并发复用
+     */
+    private static final ClassValue<JsonCodec<?>> classCodecs = new ClassValue<JsonCodec<?>>() {
+        @Override
+        protected JsonCodec<?> computeValue(Class<?> type) {
+            return newCodec(objectMapper.constructType(type));
+        }
+    };
+
+    /**
+     * 按 JavaType 缓存的泛型类型编解码器，容量有上限
+     */
+    private static final LRUMap<JavaType, JsonCodec<?>> codecs = new LRUMap<>(16, MAX_CACHED_TYPES);
+
+    /**
+     * toList/toMap 使用的集合类型，键为集合类与元素类，容量有上限
+     */
+    private static final LRUMap<List<Class<?>>, JavaType> containerTypes = new LRUMap<>(16, MAX_CACHED_TYPES);
+
+    private static final JsonBeanAccessMode beanAccessMode;
+
     static {
         // 对象的所有字段全部列入
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
@@ -39,6 +100,102 @@ public class JsonUtil<T> {
         objectMapper.setDateFormat(new SimpleDateFormat(DatePatternConstant.NORM_DATETIME_PATTERN));
         // 忽略 在json字符串中存在，但是在java对象中不存在对应属性的情况。防止错误
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        // 流由调用方负责关闭
+        objectMapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        objectMapper.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
+        // 属性访问方式须在首次(反)序列化前确定，之后缓存的(反)序列化器不会再变化
+        beanAccessMode = configureBeanAccess(SystemUtil.get(BEAN_ACCESS_PROPERTY, JsonBeanAccessMode.REFLECTION.name()));
+    }
+
+    private static JsonBeanAccessMode configureBeanAccess(String value) {
+        JsonBeanAccessMode mode;
+        try {
+            mode = JsonBeanAccessMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            logger.warn("unknown {}:{}, use {}", BEAN_ACCESS_PROPERTY, value, JsonBeanAccessMode.REFLECTION);
+            return JsonBeanAccessMode.REFLECTION;
+        }
+        if (mode != JsonBeanAccessMode.BLACKBIRD) {
+            return mode;
+        }
+        try {
+            // 反射加载，未引入 blackbird 依赖时不影响 JsonUtil 的使用
+            objectMapper.registerModule((Module) Class.forName(BLACKBIRD_MODULE).getDeclaredConstructor().newInstance());
+            return mode;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            logger.warn("{} not available, use {}", BLACKBIRD_MODULE, JsonBeanAccessMode.REFLECTION, e);
+            return JsonBeanAccessMode.REFLECTION;
+        }
+    }
+
+    /**
+     * 当前生效的 Bean 属性访问方式
+     *
+     * @return 属性访问方式
+     */
+    public static JsonBeanAccessMode getBeanAccessMode() {
+        return beanAccessMode;
+    }
+
+    /**
+     * 包内共享的 ObjectMapper，保证 JSON Lines 等读写与 JsonUtil 的配置一致
+     */
+    static ObjectMapper mapper() {
+        return objectMapper;
+    }
+
+    /**
+     * 获取绑定指定类型的编解码器
+     * 同一类型返回同一实例，可作为常量长期持有，省去每次调用的类型解析与(反)序列化器查找；
+     * 泛型类型的缓存容量有上限，被淘汰后再次获取会得到新的实例
+     *
+     * @param <T>   目标类型
+     * @param clazz 目标类的Class对象
+     * @return     编解码器
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> JsonCodec<T> codec(Class<T> clazz) {
+        return (JsonCodec<T>) classCodecs.get(clazz);
+    }
+
+    /**
+     * 获取绑定指定泛型类型的编解码器
+     *
+     * @param <T>           目标类型
+     * @param typeReference 类型引用对象，用于处理泛型类型
+     * @return             编解码器
+     * @see #codec(Class)
+     */
+    public static <T> JsonCodec<T> codec(TypeReference<T> typeReference) {
+        return codec(objectMapper.getTypeFactory().constructType(typeReference));
+    }
+
+    /**
+     * 获取绑定指定 JavaType 的编解码器
+     *
+     * @param <T>  目标类型
+     * @param type 目标类型
+     * @return    编解码器
+     * @see #codec(Class)
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> JsonCodec<T> codec(JavaType type) {
+        if (!type.hasGenericTypes() && !type.isContainerType()) {
+            return (JsonCodec<T>) classCodecs.get(type.getRawClass());
+        }
+        JsonCodec<?> codec = codecs.get(type);
+        if (codec == null) {
+            codec = newCodec(type);
+            JsonCodec<?> existing = codecs.putIfAbsent(type, codec);
+            if (existing != null) {
+                codec = existing;
+            }
+        }
+        return (JsonCodec<T>) codec;
+    }
+
+    private static JsonCodec<?> newCodec(JavaType type) {
+        return new JsonCodec<>(type, objectMapper.readerFor(type), objectMapper.writerFor(type));
     }
 
     /**
@@ -53,13 +210,261 @@ public class JsonUtil<T> {
             return null;
         }
         try {
-            return obj instanceof String ? (String) obj : objectMapper.writeValueAsString(obj);
+            return obj instanceof String ? (String) obj : writerFor(obj).writeValueAsString(obj);
         } catch (JsonProcessingException e) {
             logger.error("obj：{}转成Json异常", obj.getClass().getName(), e);
             return null;
         }
     }
 
+    /**
+     * 对象序列化为Json写入输出流
+     * 直接写入流中，不生成中间字符串，写入完成后刷新但不关闭流；与 {@link #toJson(Object)} 一致，字符串视为Json原样写入
+     *
+     * @param <T> 对象类型
+     * @param obj 需要转换的对象实例
+     * @param out 输出流
+     * @throws IOException 序列化或写入失败
+     */
+    public static <T> void toJson(T obj, OutputStream out) throws IOException {
+        if (obj instanceof String) {
+            out.write(((String) obj).getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            return;
+        }
+        writerFor(obj).writeValue(out, obj);
+    }
+
+    /**
+     * 对象序列化为UTF-8编码的Json字节数组
+     * 不经过中间字符串，适用于直接作为HTTP/消息队列的消息体
+     *
+     * @param <T> 对象类型
+     * @param obj 需要转换的对象实例
+     * @return    Json字节数组，如果转换失败则返回null
+     */
+    public static <T> byte[] toJsonBytes(T obj) {
+        if (obj == null) {
+            return null;
+        }
+        try {
+            return obj instanceof String ? ((String) obj).getBytes(StandardCharsets.UTF_8)
+                    : writerFor(obj).writeValueAsBytes(obj);
+        } catch (JsonProcessingException e) {
+            logger.error("obj：{}转成Json异常", obj.getClass().getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 对象序列化为Json写入通道，不关闭通道
+     *
+     * @param <T>     对象类型
+     * @param obj     需要转换的对象实例
+     * @param channel 可写通道
+     * @throws IOException 序列化或写入失败
+     * @see #toJson(Object, OutputStream)
+     */
+    public static <T> void toJson(T obj, WritableByteChannel channel) throws IOException {
+        toJson(obj, Channels.newOutputStream(channel));
+    }
+
+    /**
+     * 从输入流读取Json转换为自定义对象
+     * 直接解析字节流，不生成中间字符串，不关闭流
+     *
+     * @param <T>   目标对象类型
+     * @param in    输入流
+     * @param clazz 目标类的Class对象
+     * @return      转换后的对象实例，如果转换失败则返回null
+     */
+    public static <T> T parse(InputStream in, Class<T> clazz) {
+        if (in == null || clazz == null) {
+            return null;
+        }
+        return read(source(in), codec(clazz), null);
+    }
+
+    /**
+     * 从输入流读取Json反序列化为指定类型的对象
+     * 直接解析字节流，不生成中间字符串，不关闭流
+     *
+     * @param <T>           目标对象类型
+     * @param in            输入流
+     * @param typeReference 类型引用对象，用于处理泛型类型
+     * @return             转换后的对象实例，如果转换失败则返回null
+     */
+    public static <T> T parse(InputStream in, TypeReference<T> typeReference) {
+        if (in == null || typeReference == null) {
+            return null;
+        }
+        return read(source(in), codec(typeReference), null);
+    }
+
+    /**
+     * 从字节数组读取Json转换为自定义对象
+     * 直接解析字节，不经过UTF-8解码和中间字符串
+     *
+     * @param <T>   目标对象类型
+     * @param json  UTF-8编码的Json字节数组
+     * @param clazz 目标类的Class对象
+     * @return     转换后的对象实例，如果转换失败则返回null
+     */
+    public static <T> T parse(byte[] json, Class<T> clazz) {
+        if (json == null || json.length == 0 || clazz == null) {
+            return null;
+        }
+        return read(source(json, 0, json.length), codec(clazz), null);
+    }
+
+    /**
+     * 从字节数组读取Json反序列化为指定类型的对象
+     * 直接解析字节，不经过UTF-8解码和中间字符串
+     *
+     * @param <T>           目标对象类型
+     * @param json          UTF-8编码的Json字节数组
+     * @param typeReference 类型引用对象，用于处理泛型类型
+     * @return             转换后的对象实例，如果转换失败则返回null
+     */
+    public static <T> T parse(byte[] json, TypeReference<T> typeReference) {
+        if (json == null || json.length == 0 || typeReference == null) {
+            return null;
+        }
+        return read(source(json, 0, json.length), codec(typeReference), null);
+    }
+
+    /**
+     * 从字节数组的指定区间读取Json转换为自定义对象
+     * 适用于缓冲区中只有一段是Json内容的场景，不复制数组
+     *
+     * @param <T>    目标对象类型
+     * @param json   UTF-8编码的Json字节数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @param clazz  目标类的Class对象
+     * @return      转换后的对象实例，如果转换失败则返回null
+     */
+    public static <T> T parse(byte[] json, int offset, int length, Class<T> clazz) {
+        if (json == null || length <= 0 || clazz == null) {
+            return null;
+        }
+        return read(source(json, offset, length), codec(clazz), null);
+    }
+
+    /**
+     * 从字节数组的指定区间读取Json反序列化为指定类型的对象
+     * 适用于缓冲区中只有一段是Json内容的场景，不复制数组
+     *
+     * @param <T>           目标对象类型
+     * @param json          UTF-8编码的Json字节数组
+     * @param offset        起始位置
+     * @param length        长度
+     * @param typeReference 类型引用对象，用于处理泛型类型
+     * @return             转换后的对象实例，如果转换失败则返回null
+     */
+    public static <T> T parse(byte[] json, int offset, int length, TypeReference<T> typeReference) {
+        if (json == null || length <= 0 || typeReference == null) {
+            return null;
+        }
+        return read(source(json, offset, length), codec(typeReference), null);
+    }
+
+    /**
+     * 从字符流读取Json转换为自定义对象
+     * 不关闭字符流
+     *
+     * @param <T>    目标对象类型
+     * @param reader 字符流
+     * @param clazz  目标类的Class对象
+     * @return      转换后的对象实例，如果转换失败则返回null
+     */
+    public static <T> T parse(Reader reader, Class<T> clazz) {
+        if (reader == null || clazz == null) {
+            return null;
+        }
+        return read(source(reader), codec(clazz), null);
+    }
+
+    /**
+     * 从字符流读取Json反序列化为指定类型的对象
+     * 不关闭字符流
+     *
+     * @param <T>           目标对象类型
+     * @param reader        字符流
+     * @param typeReference 类型引用对象，用于处理泛型类型
+     * @return             转换后的对象实例，如果转换失败则返回null
+     */
+    public static <T> T parse(Reader reader, TypeReference<T> typeReference) {
+        if (reader == null || typeReference == null) {
+            return null;
+        }
+        return read(source(reader), codec(typeReference), null);
+    }
+
+    /**
+     * 从ByteBuffer读取Json转换为自定义对象
+     * 读取 position 到 limit 之间的内容，不修改 buffer 的 position；堆内 buffer 直接解析底层数组
+     *
+     * @param <T>    目标对象类型
+     * @param buffer UTF-8编码的Json内容
+     * @param clazz  目标类的Class对象
+     * @return      转换后的对象实例，如果转换失败则返回null
+     */
+    public static <T> T parse(ByteBuffer buffer, Class<T> clazz) {
+        if (buffer == null || !buffer.hasRemaining() || clazz == null) {
+            return null;
+        }
+        return read(source(buffer), codec(clazz), null);
+    }
+
+    /**
+     * 从ByteBuffer读取Json反序列化为指定类型的对象
+     * 读取 position 到 limit 之间的内容，不修改 buffer 的 position；堆内 buffer 直接解析底层数组
+     *
+     * @param <T>           目标对象类型
+     * @param buffer        UTF-8编码的Json内容
+     * @param typeReference 类型引用对象，用于处理泛型类型
+     * @return             转换后的对象实例，如果转换失败则返回null
+     */
+    public static <T> T parse(ByteBuffer buffer, TypeReference<T> typeReference) {
+        if (buffer == null || !buffer.hasRemaining() || typeReference == null) {
+            return null;
+        }
+        return read(source(buffer), codec(typeReference), null);
+    }
+
+    /**
+     * 从文件读取Json转换为自定义对象
+     * 读取完成后关闭文件
+     *
+     * @param <T>   目标对象类型
+     * @param path  文件路径
+     * @param clazz 目标类的Class对象
+     * @return     转换后的对象实例，如果转换失败则返回null
+     */
+    public static <T> T parse(Path path, Class<T> clazz) {
+        if (path == null || clazz == null) {
+            return null;
+        }
+        return read(source(path), codec(clazz), null);
+    }
+
+    /**
+     * 从文件读取Json反序列化为指定类型的对象
+     * 读取完成后关闭文件
+     *
+     * @param <T>           目标对象类型
+     * @param path          文件路径
+     * @param typeReference 类型引用对象，用于处理泛型类型
+     * @return             转换后的对象实例，如果转换失败则返回null
+     */
+    public static <T> T parse(Path path, TypeReference<T> typeReference) {
+        if (path == null || typeReference == null) {
+            return null;
+        }
+        return read(source(path), codec(typeReference), null);
+    }
+
     /**
      * 字符串转换为自定义对象
      *
@@ -73,7 +478,7 @@ public class JsonUtil<T> {
             return null;
         }
         try {
-            return clazz.equals(String.class) ? (T) str : objectMapper.readValue(str, clazz);
+            return clazz.equals(String.class) ? (T) str : codec(clazz).reader().readValue(str);
         } catch (Exception e) {
             logger.error("parse json：{} --> obj:{},异常", str, clazz.getName(), e);
             return null;
@@ -93,7 +498,7 @@ public class JsonUtil<T> {
             return null;
         }
         try {
-            return (T) (typeReference.getType().equals(String.class) ? str : objectMapper.readValue(str, typeReference));
+            return (T) (typeReference.getType().equals(String.class) ? str : codec(typeReference).reader().readValue(str));
         } catch (Exception e) {
             logger.error("parse json：{} --> obj:{},异常", str, typeReference.getType(), e);
             return null;
@@ -126,8 +531,7 @@ public class JsonUtil<T> {
             return Collections.emptyList();
         }
         try {
-            JavaType javaType = objectMapper.getTypeFactory().constructCollectionType(collectionClass, elementClass);
-            return objectMapper.readValue(json, javaType);
+            return codec(containerType(collectionClass, elementClass)).reader().readValue(json);
         } catch (Exception e) {
             logger.error("parse json：{} --> list:{},element:{},异常", json, collectionClass.getName(),
                     elementClass.getName(), e);
@@ -135,6 +539,109 @@ public class JsonUtil<T> {
         }
     }
 
+    /**
+     * 解析Json字节数组为List集合
+     *
+     * @param <T>          集合元素类型
+     * @param json         UTF-8编码的Json字节数组
+     * @param elementClass 集合元素的Class对象
+     * @return            解析后的List集合，如果解析失败则返回空列表
+     */
+    public static <T> List<T> toList(byte[] json, Class<T> elementClass) {
+        if (json == null || json.length == 0 || elementClass == null) {
+            return Collections.emptyList();
+        }
+        return read(source(json, 0, json.length), codec(containerType(List.class, elementClass)), Collections.emptyList());
+    }
+
+    /**
+     * 从输入流读取Json解析为List集合，不关闭流
+     *
+     * @param <T>          集合元素类型
+     * @param in           输入流
+     * @param elementClass 集合元素的Class对象
+     * @return            解析后的List集合，如果解析失败则返回空列表
+     */
+    public static <T> List<T> toList(InputStream in, Class<T> elementClass) {
+        if (in == null || elementClass == null) {
+            return Collections.emptyList();
+        }
+        return read(source(in), codec(containerType(List.class, elementClass)), Collections.emptyList());
+    }
+
+    /**
+     * 从输入流惰性读取Json数组的元素
+     * 逐个token解析，同一时刻只有一个元素在内存中，适用于超大的Json数组；
+     * 输入不是数组时按连续的多个Json值读取。不关闭流
+     *
+     * @param <T>          元素类型
+     * @param in           输入流
+     * @param elementClass 元素的Class对象
+     * @return            元素迭代器，读取失败时返回空迭代器；遍历中途解析失败时抛出 Jackson 的运行时异常
+     */
+    public static <T> Iterator<T> iterator(InputStream in, Class<T> elementClass) {
+        if (in == null || elementClass == null) {
+            return Collections.emptyIterator();
+        }
+        return readValues(in, elementClass.getName(), codec(elementClass).reader());
+    }
+
+    /**
+     * 从输入流惰性读取Json数组的元素
+     * 逐个token解析，同一时刻只有一个元素在内存中，适用于超大的Json数组；
+     * 输入不是数组时按连续的多个Json值读取。关闭返回的流时释放解析器，但不关闭输入流
+     *
+     * @param <T>          元素类型
+     * @param in           输入流
+     * @param elementClass 元素的Class对象
+     * @return            元素流，读取失败时返回空流；遍历中途解析失败时抛出 Jackson 的运行时异常
+     */
+    public static <T> Stream<T> stream(InputStream in, Class<T> elementClass) {
+        return toStream(iterator(in, elementClass));
+    }
+
+    /**
+     * 从输入流惰性读取Json数组的元素，元素为泛型类型
+     *
+     * @param <T>           元素类型
+     * @param in            输入流
+     * @param typeReference 元素的类型引用对象
+     * @return             元素流，读取失败时返回空流；遍历中途解析失败时抛出 Jackson 的运行时异常
+     * @see #stream(InputStream, Class)
+     */
+    public static <T> Stream<T> stream(InputStream in, TypeReference<T> typeReference) {
+        if (in == null || typeReference == null) {
+            return Stream.empty();
+        }
+        return toStream(readValues(in, typeReference.getType().getTypeName(),
+                codec(typeReference).reader()));
+    }
+
+    private static <T> Iterator<T> readValues(InputStream in, String typeName, ObjectReader reader) {
+        try {
+            // 根节点为数组时 MappingIterator 会跳过起始token，逐个读取数组内的值，并在关闭时释放解析器
+            return reader.readValues(in);
+        } catch (Exception e) {
+            logger.error("stream json --> obj:{},异常", typeName, e);
+            return Collections.emptyIterator();
+        }
+    }
+
+    private static <T> Stream<T> toStream(Iterator<T> iterator) {
+        Stream<T> stream = StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+        if (iterator instanceof Closeable) {
+            return stream.onClose(() -> {
+                try {
+                    ((Closeable) iterator).close();
+                } catch (IOException e) {
+                    logger.warn("close json parser error", e);
+                }
+            });
+        }
+        return stream;
+    }
+
     /**
      * 解析JSON字符串为Map&lt;Object,Object&gt;
      *
@@ -155,6 +662,32 @@ public class JsonUtil<T> {
         return toMap(json, Map.class, String.class, Object.class);
     }
 
+    /**
+     * 解析Json字节数组为Map&lt;String,Object&gt;
+     *
+     * @param json UTF-8编码的Json字节数组
+     * @return    解析后的Map对象，如果解析失败则返回空Map
+     */
+    public static Map<String, Object> toStrKeyMap(byte[] json) {
+        if (json == null || json.length == 0) {
+            return new HashMap<>();
+        }
+        return read(source(json, 0, json.length), codec(containerType(Map.class, String.class, Object.class)), new HashMap<>());
+    }
+
+    /**
+     * 从输入流读取Json解析为Map&lt;String,Object&gt;，不关闭流
+     *
+     * @param in 输入流
+     * @return  解析后的Map对象，如果解析失败则返回空Map
+     */
+    public static Map<String, Object> toStrKeyMap(InputStream in) {
+        if (in == null) {
+            return new HashMap<>();
+        }
+        return read(source(in), codec(containerType(Map.class, String.class, Object.class)), new HashMap<>());
+    }
+
     /**
      * 解析JSON字符串为指定类型的Map
      *
@@ -178,11 +711,179 @@ public class JsonUtil<T> {
             if (valueClass == null) {
                 valueClass = (Class<V>) Object.class;
             }
-            JavaType javaType = objectMapper.getTypeFactory().constructMapType(mapClass, keyClass, valueClass);
-            return objectMapper.readValue(json, javaType);
+            return codec(containerType(mapClass, keyClass, valueClass)).reader().readValue(json);
         } catch (Exception e) {
             logger.error("parse json：{} --> map key:{},value:{},异常", json, keyClass.getName(), valueClass.getName(), e);
             return new HashMap<>();
         }
     }
+
+    private static ObjectWriter writerFor(Object obj) {
+        return obj == null ? objectMapper.writer() : codec(obj.getClass()).writer();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static JavaType containerType(Class<? extends List> collectionClass, Class<?> elementClass) {
+        return containerType(List.of(collectionClass, elementClass),
+                () -> objectMapper.getTypeFactory().constructCollectionType(collectionClass, elementClass));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static JavaType containerType(Class<? extends Map> mapClass, Class<?> keyClass, Class<?> valueClass) {
+        return containerType(List.of(mapClass, keyClass, valueClass),
+                () -> objectMapper.getTypeFactory().constructMapType(mapClass, keyClass, valueClass));
+    }
+
+    private static JavaType containerType(List<Class<?>> key, Supplier<JavaType> factory) {
+        JavaType type = containerTypes.get(key);
+        if (type == null) {
+            type = factory.get();
+            containerTypes.putIfAbsent(key, type);
+        }
+        return type;
+    }
+
+    /**
+     * 从输入来源解析指定类型，失败时记录日志并返回默认值
+     * 与字符串版本一致，目标类型为String时原样返回输入内容
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T read(JsonSource source, JsonCodec<?> codec, T fallback) {
+        try (JsonSource src = source) {
+            if (codec.getType().hasRawClass(String.class)) {
+                return (T) src.text();
+            }
+            try (JsonParser parser = src.open()) {
+                return codec.reader().readValue(parser);
+            }
+        } catch (Exception e) {
+            logger.error("parse json {} --> obj:{},异常", source, codec.getType().toCanonical(), e);
+            return fallback;
+        }
+    }
+
+    private static JsonSource source(byte[] data, int offset, int length) {
+        return new JsonSource() {
+            @Override
+            JsonParser open() throws IOException {
+                return objectMapper.getFactory().createParser(data, offset, length);
+            }
+
+            @Override
+            String text() {
+                return new String(data, offset, length, StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String toString() {
+                return "byte[" + length + "]";
+            }
+        };
+    }
+
+    private static JsonSource source(InputStream in) {
+        return new JsonSource() {
+            @Override
+            JsonParser open() throws IOException {
+                return objectMapper.getFactory().createParser(in);
+            }
+
+            @Override
+            String text() throws IOException {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String toString() {
+                return "stream";
+            }
+        };
+    }
+
+    private static JsonSource source(Reader reader) {
+        return new JsonSource() {
+            @Override
+            JsonParser open() throws IOException {
+                return objectMapper.getFactory().createParser(reader);
+            }
+
+            @Override
+            String text() throws IOException {
+                StringWriter writer = new StringWriter();
+                reader.transferTo(writer);
+                return writer.toString();
+            }
+
+            @Override
+            public String toString() {
+                return "reader";
+            }
+        };
+    }
+
+    private static JsonSource source(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return source(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        ByteBuffer view = buffer.duplicate();
+        return new JsonSource() {
+            @Override
+            JsonParser open() throws IOException {
+                return objectMapper.getFactory().createParser(new ByteBufferBackedInputStream(view));
+            }
+
+            @Override
+            String text() {
+                return StandardCharsets.UTF_8.decode(view).toString();
+            }
+
+            @Override
+            public String toString() {
+                return "ByteBuffer[" + view.remaining() + "]";
+            }
+        };
+    }
+
+    private static JsonSource source(Path path) {
+        return new JsonSource() {
+            private InputStream in;
+
+            @Override
+            JsonParser open() throws IOException {
+                in = Files.newInputStream(path);
+                return objectMapper.getFactory().createParser(in);
+            }
+
+            @Override
+            String text() throws IOException {
+                return Files.readString(path);
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (in != null) {
+                    in.close();
+                }
+            }
+
+            @Override
+            public String toString() {
+                return path.toString();
+            }
+        };
+    }
+
+    /**
+     * Json 输入来源，统一字节数组、流、ByteBuffer、文件等输入的解析入口
+     */
+    private abstract static class JsonSource implements Closeable {
+
+        abstract JsonParser open() throws IOException;
+
+        abstract String text() throws IOException;
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package com.suxiaoshuai.util.httpclient;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpBatchExecutorTest {
+
+    @Test
+    @DisplayName("慢 host 的排队请求不占用全局并发额度")
+    void slowHostDoesNotStarveFastHost() {
+        List<HttpRequestSpec> specs = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            specs.add(HttpRequestSpec.of("http://slow.example/" + i));
+        }
+        for (int i = 0; i < 2; i++) {
+            specs.add(HttpRequestSpec.of("http://fast.example/" + i));
+        }
+        Map<Integer, Long> finishedMillis = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        List<HttpBatchResult> results = HttpBatchExecutor.execute(specs, 4, spec -> 1, (index, spec) -> {
+            if (spec.getUrl().contains("slow")) {
+                sleep(100);
+            }
+            finishedMillis.put(index, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return new HttpBatchResult(index, spec, 200, "ok", null);
+        });
+        assertEquals(8, results.size());
+        results.forEach(result -> assertTrue(result.isSuccess()));
+        // 慢 host 串行执行，快 host 的请求应在慢 host 的第二个请求完成前结束，而不是排在慢 host 的队列之后
+        assertTrue(finishedMillis.get(6) < finishedMillis.get(1), "finished: " + finishedMillis);
+        assertTrue(finishedMillis.get(7) < finishedMillis.get(1), "finished: " + finishedMillis);
+        assertTrue(finishedMillis.get(5) - finishedMillis.get(0) >= 450, "finished: " + finishedMillis);
+    }
+
+    @Test
+    @DisplayName("未指定配置与默认配置共用同一个 host 并发配额")
+    void blankProfileSharesDefaultLane() {
+        List<HttpRequestSpec> specs = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            String profile = i % 3 == 0 ? null : i % 3 == 1 ? HttpClientRegistry.DEFAULT_PROFILE : " ";
+            specs.add(HttpRequestSpec.of("http://one.example/" + i).setProfile(profile));
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<HttpBatchResult> results = HttpBatchExecutor.execute(specs, 4, spec -> 1, (index, spec) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(20);
+            running.decrementAndGet();
+            return new HttpBatchResult(index, spec, 200, "ok", null);
+        });
+        assertEquals(6, results.size());
+        assertEquals(1, maxRunning.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
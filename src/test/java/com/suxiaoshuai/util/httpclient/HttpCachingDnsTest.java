@@ -0,0 +1,99 @@
+package com.suxiaoshuai.util.httpclient;
+
+import okhttp3.Dns;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpCachingDnsTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    private final Dns stub = hostname -> {
+        lookups.incrementAndGet();
+        if (failing.get()) {
+            throw new UnknownHostException(hostname);
+        }
+        return Arrays.asList(InetAddress.getByAddress(hostname, new byte[]{10, 0, 0, 1}),
+                InetAddress.getByAddress(hostname, new byte[]{10, 0, 0, 2}),
+                InetAddress.getByAddress(hostname, new byte[]{10, 0, 0, 3}));
+    };
+
+    private HttpCachingDns dns() {
+        return new HttpCachingDns(stub, clock::get, Runnable::run)
+                .setTtl(10, TimeUnit.SECONDS, 0.8)
+                .setStaleTtl(60, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("缓存期内命中并轮转地址，接近过期时后台刷新")
+    void cacheRotateAndRefresh() throws Exception {
+        HttpCachingDns dns = dns();
+        List<InetAddress> first = dns.lookup("partner");
+        List<InetAddress> second = dns.lookup("partner");
+        assertEquals(1, lookups.get());
+        assertEquals(first.get(1), second.get(0));
+        assertEquals(first.get(0), second.get(2));
+        assertEquals(1, dns.getHitCount());
+
+        clock.set(TimeUnit.SECONDS.toNanos(9));
+        dns.lookup("partner");
+        assertEquals(2, lookups.get());
+        assertEquals(1, dns.getRefreshCount());
+        // 刷新后重新计时
+        clock.set(TimeUnit.SECONDS.toNanos(15));
+        dns.lookup("partner");
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    @DisplayName("上游失败时在允许范围内返回过期结果，超出后抛出异常")
+    void serveStale() throws Exception {
+        HttpCachingDns dns = dns();
+        dns.lookup("partner");
+        failing.set(true);
+        clock.set(TimeUnit.SECONDS.toNanos(30));
+        assertEquals(3, dns.lookup("partner").size());
+        assertEquals(1, dns.getStaleCount());
+        clock.set(TimeUnit.SECONDS.toNanos(71));
+        assertThrows(UnknownHostException.class, () -> dns.lookup("partner"));
+        failing.set(false);
+        assertEquals(3, dns.lookup("partner").size());
+        assertEquals(2, dns.getFailureCount());
+    }
+
+    @Test
+    @DisplayName("作为客户端配置的解析器")
+    void profileDns() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        HttpCachingDns dns = new HttpCachingDns();
+        HttpClientRegistry.register(new HttpClientProfile("dns").setDns(dns).setMaxIdleConnections(0));
+        try {
+            server.enqueue(new MockResponse().setBody("a"));
+            server.enqueue(new MockResponse().setBody("b"));
+            HttpRequestSpec spec = HttpRequestSpec.of(server.url("/").toString()).setProfile("dns");
+            assertEquals("a", HttpUtils.get(spec));
+            assertEquals("b", HttpUtils.get(spec));
+            assertEquals(1, dns.getMissCount());
+            assertEquals(1, dns.getHitCount());
+        } finally {
+            HttpClientRegistry.remove("dns");
+            server.shutdown();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.suxiaoshuai.util.httpclient;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpLatencyHistogramTest {
+
+    @Test
+    @DisplayName("分桶下标与上界一致")
+    void indexAndUpperBound() {
+        for (long value : new long[]{0, 1, 7, 8, 9, 15, 16, 17, 1000, 123456789L, (1L << 41) - 1}) {
+            int index = HttpLatencyHistogram.index(value);
+            assertTrue(HttpLatencyHistogram.upperBound(index) >= value);
+            if (index > 0) {
+                assertTrue(HttpLatencyHistogram.upperBound(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("分位值误差在分桶精度以内")
+    void percentiles() {
+        HttpLatencyHistogram histogram = new HttpLatencyHistogram();
+        for (int i = 1; i <= 10000; i++) {
+            histogram.record(i);
+        }
+        HttpLatencySnapshot snapshot = histogram.snapshot();
+        assertEquals(10000, snapshot.getCount());
+        assertEquals(10000, snapshot.getMaxMicros());
+        assertEquals(5000, snapshot.getP50Micros(), 5000 * 0.125);
+        assertEquals(9900, snapshot.getP99Micros(), 9900 * 0.125);
+        assertEquals(9990, snapshot.getP999Micros(), 9990 * 0.125);
+    }
+}
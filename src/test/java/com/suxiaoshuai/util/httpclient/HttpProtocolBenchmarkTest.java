@@ -0,0 +1,77 @@
+package com.suxiaoshuai.util.httpclient;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * HTTP/2 多路复用与 HTTP/1.1 连接池的对比基准，耗时较长，默认不执行
+ * 执行方式：mvn test -Dtest=HttpProtocolBenchmarkTest -Dsxs.benchmark=true
+ */
+@EnabledIfSystemProperty(named = "sxs.benchmark", matches = "true")
+class HttpProtocolBenchmarkTest {
+
+    private static final int CALLS = 2000;
+    private static final int CONCURRENCY = 200;
+    private static final long SERVER_DELAY_MILLIS = 20;
+
+    @Test
+    @DisplayName("h2c 单连接多路复用 vs HTTP/1.1 10 连接池")
+    void compare() throws Exception {
+        run(HttpProtocolMode.HTTP_1_1, 10);
+        run(HttpProtocolMode.H2C, CONCURRENCY);
+    }
+
+    private void run(HttpProtocolMode mode, int maxRequestsPerHost) throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.setProtocols(mode.getProtocols());
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody("ok").setHeadersDelay(SERVER_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start();
+        String profile = "bench-" + mode.name().toLowerCase();
+        HttpClientRegistry.register(new HttpClientProfile(profile).setProtocolMode(mode)
+                .setMaxIdleConnections(10).setMaxRequests(CONCURRENCY).setMaxRequestsPerHost(maxRequestsPerHost));
+        try {
+            HttpRequestSpec spec = HttpRequestSpec.of(server.url("/bench").toString()).setProfile(profile);
+            // 先建立一条连接再预热，避免 HTTP/2 冷启动时并发建连
+            batch(spec, 1);
+            batch(spec, CONCURRENCY);
+            long start = System.nanoTime();
+            batch(spec, CALLS);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            HttpHostMetrics metrics = HttpClientRegistry.getMetrics(profile).get(server.getHostName());
+            HttpLatencySnapshot total = metrics.getLatency(HttpPhase.TOTAL);
+            System.out.printf("%-8s calls=%d elapsed=%dms throughput=%.0f/s connections=%d p50=%.1fms p99=%.1fms%n",
+                    mode, CALLS, elapsedMillis, CALLS * 1000.0 / Math.max(1, elapsedMillis),
+                    metrics.getNewConnectionCount(), total.getP50Micros() / 1000.0, total.getP99Micros() / 1000.0);
+        } finally {
+            HttpClientRegistry.remove(profile);
+            server.shutdown();
+        }
+    }
+
+    private void batch(HttpRequestSpec spec, int calls) throws Exception {
+        List<CompletableFuture<String>> futures = new ArrayList<>(calls);
+        for (int i = 0; i < calls; i++) {
+            futures.add(HttpUtils.getAsync(spec, null));
+        }
+        for (CompletableFuture<String> future : futures) {
+            assertEquals("ok", future.get(60, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.suxiaoshuai.util.httpclient;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HttpRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("空闲时允许突发，之后按速率匀速发放")
+    void burstThenSteady() {
+        HttpRateLimiter.TokenBucket bucket = new HttpRateLimiter.TokenBucket(10, 3);
+        long now = 1_000 * SECOND;
+        assertEquals(0, bucket.reserve(now, Long.MAX_VALUE));
+        assertEquals(0, bucket.reserve(now, Long.MAX_VALUE));
+        assertEquals(0, bucket.reserve(now, Long.MAX_VALUE));
+        assertEquals(SECOND / 10, bucket.reserve(now, Long.MAX_VALUE));
+        assertEquals(SECOND / 5, bucket.reserve(now, Long.MAX_VALUE));
+        // 超过允许的等待时间时拒绝且不消耗令牌
+        assertEquals(-1, bucket.reserve(now, SECOND / 10));
+        assertEquals(-1, bucket.reserve(now, 0));
+        assertEquals(SECOND * 3 / 10, bucket.reserve(now, Long.MAX_VALUE));
+        // 空闲足够久后桶重新装满，但不超过容量
+        now += 10 * SECOND;
+        assertEquals(0, bucket.reserve(now, 0));
+        assertEquals(0, bucket.reserve(now, 0));
+        assertEquals(0, bucket.reserve(now, 0));
+        assertEquals(-1, bucket.reserve(now, 0));
+    }
+}
@@ -0,0 +1,146 @@
+package com.suxiaoshuai.util.httpclient;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.GzipSource;
+import okio.Okio;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class HttpRequestCompressorTest {
+
+    private static final MediaType TEXT = MediaType.get("text/plain; charset=utf-8");
+
+    @Test
+    @DisplayName("压缩后的请求体不关闭调用方的 sink")
+    void compressedBodyKeepsSinkOpen() throws IOException {
+        String text = "x".repeat(4096);
+        Request sent = intercept(new HttpRequestCompressor(HttpContentEncoding.GZIP, 1024), unknownLength(text));
+        assertEquals("gzip", sent.header("Content-Encoding"));
+
+        Buffer target = new Buffer();
+        boolean[] closed = {false};
+        BufferedSink sink = Okio.buffer(new ForwardingSink(target) {
+            @Override
+            public void close() throws IOException {
+                closed[0] = true;
+                super.close();
+            }
+        });
+        sent.body().writeTo(sink);
+        // 外层包装在请求体之后继续写入
+        sink.writeUtf8("trailer");
+        sink.flush();
+        assertFalse(closed[0]);
+
+        Buffer gzip = new Buffer();
+        target.read(gzip, target.size() - "trailer".length());
+        assertEquals(text, Okio.buffer(new GzipSource(gzip)).readUtf8());
+        assertEquals("trailer", target.readUtf8());
+    }
+
+    @Test
+    @DisplayName("长度未知且未超过阈值时发送探测时序列化的内容")
+    void unknownLengthBelowThreshold() throws IOException {
+        Request sent = intercept(new HttpRequestCompressor(HttpContentEncoding.GZIP, 1024), unknownLength("small"));
+        assertNull(sent.header("Content-Encoding"));
+        assertEquals(5, sent.body().contentLength());
+        Buffer buffer = new Buffer();
+        sent.body().writeTo(buffer);
+        assertEquals("small", buffer.readUtf8());
+    }
+
+    private static RequestBody unknownLength(String text) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return TEXT;
+            }
+
+            @Override
+            public long contentLength() {
+                return -1;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                sink.writeUtf8(text);
+            }
+        };
+    }
+
+    private static Request intercept(HttpRequestCompressor compressor, RequestBody body) throws IOException {
+        Request request = new Request.Builder().url("http://localhost/c").post(body).build();
+        AtomicReference<Request> proceeded = new AtomicReference<>();
+        compressor.intercept(new Interceptor.Chain() {
+            @Override
+            public Request request() {
+                return request;
+            }
+
+            @Override
+            public Response proceed(Request next) {
+                proceeded.set(next);
+                return new Response.Builder().request(next).protocol(Protocol.HTTP_1_1).code(200).message("OK").build();
+            }
+
+            @Override
+            public Connection connection() {
+                return null;
+            }
+
+            @Override
+            public Call call() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int connectTimeoutMillis() {
+                return 0;
+            }
+
+            @Override
+            public Interceptor.Chain withConnectTimeout(int timeout, TimeUnit unit) {
+                return this;
+            }
+
+            @Override
+            public int readTimeoutMillis() {
+                return 0;
+            }
+
+            @Override
+            public Interceptor.Chain withReadTimeout(int timeout, TimeUnit unit) {
+                return this;
+            }
+
+            @Override
+            public int writeTimeoutMillis() {
+                return 0;
+            }
+
+            @Override
+            public Interceptor.Chain withWriteTimeout(int timeout, TimeUnit unit) {
+                return this;
+            }
+        });
+        return proceeded.get();
+    }
+}
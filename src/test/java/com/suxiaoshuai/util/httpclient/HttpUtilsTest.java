@@ -1,9 +1,54 @@
 package com.suxiaoshuai.util.httpclient;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.suxiaoshuai.callback.HttpUtilCallback;
+import okhttp3.Call;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 class HttpUtilsTest {
 
+    private MockWebServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
     @Test
     void get() {
         String s = HttpUtils.get("http://www.baidu.com");
@@ -33,4 +78,828 @@ class HttpUtilsTest {
     @Test
     void testPostForm() {
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("异步get请求返回响应内容并回调成功")
+    void getAsync() throws Exception {
+        server.enqueue(new MockResponse().setBody("hello"));
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<String> callbackData = new AtomicReference<>();
+        CompletableFuture<String> future = HttpUtils.getAsync(server.url("/a").toString(), Map.of("k", "v"), null,
+                new HttpUtilCallback() {
+                    @Override
+                    public void success(Call call, String data) {
+                        callbackData.set(data);
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void fail(Call call, String errorMsg) {
+                        latch.countDown();
+                    }
+                });
+        assertEquals("hello", future.get(5, TimeUnit.SECONDS));
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals("hello", callbackData.get());
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/a?k=v", request.getPath());
+    }
+
+    @Test
+    @DisplayName("异步post请求发送json请求体")
+    void postAsync() throws Exception {
+        server.enqueue(new MockResponse().setBody("ok"));
+        CompletableFuture<String> future = HttpUtils.postAsync(server.url("/p").toString(), "{\"a\":1}");
+        assertEquals("ok", future.get(5, TimeUnit.SECONDS));
+        RecordedRequest request = server.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("{\"a\":1}", request.getBody().readUtf8());
+    }
+
+    @Test
+    @DisplayName("异步请求地址非法时以异常完成")
+    void getAsyncInvalidUrl() {
+        CompletableFuture<String> future = HttpUtils.getAsync("not a url");
+        assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("批量get请求按顺序返回并独立记录失败")
+    void getAll() {
+        server.enqueue(new MockResponse().setBody("r0"));
+        server.enqueue(new MockResponse().setBody("r1"));
+        server.enqueue(new MockResponse().setBody("r2"));
+        List<HttpRequestSpec> specs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            specs.add(HttpRequestSpec.of(server.url("/b").toString(), Map.of("i", String.valueOf(i)), null));
+        }
+        specs.add(HttpRequestSpec.of("not a url"));
+        List<HttpBatchResult> results = HttpUtils.getAll(specs, 1);
+        assertEquals(4, results.size());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(results.get(i).isSuccess());
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(200, results.get(i).getStatusCode());
+        }
+        assertFalse(results.get(3).isSuccess());
+        assertNotNull(results.get(3).getError());
+    }
+
+    @Test
+    @DisplayName("下载响应内容到本地文件，失败时不保留文件")
+    void download(@TempDir Path dir) throws Exception {
+        byte[] content = new byte[256 * 1024];
+        new Random(1).nextBytes(content);
+        server.enqueue(new MockResponse().setBody(new Buffer().write(content)));
+        server.enqueue(new MockResponse().setResponseCode(404));
+        Path target = dir.resolve("sub/file.bin");
+        assertTrue(HttpUtils.download(server.url("/f").toString(), target));
+        assertArrayEquals(content, Files.readAllBytes(target));
+        Path missing = dir.resolve("missing.bin");
+        assertFalse(HttpUtils.download(server.url("/f").toString(), missing));
+        assertFalse(Files.exists(missing));
+    }
+
+    @Test
+    @DisplayName("以流和字节数组方式读取响应")
+    void getStreamAndBytes() throws Exception {
+        byte[] content = {(byte) 0xff, 0x00, (byte) 0xfe};
+        server.enqueue(new MockResponse().setBody(new Buffer().write(content)));
+        server.enqueue(new MockResponse().setBody(new Buffer().write(content)));
+        AtomicReference<byte[]> streamed = new AtomicReference<>();
+        assertTrue(HttpUtils.getStream(server.url("/s").toString(), in -> {
+            try {
+                streamed.set(in.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        assertArrayEquals(content, streamed.get());
+        assertArrayEquals(content, HttpUtils.getBytes(server.url("/s").toString()));
+    }
+
+    @Test
+    @DisplayName("以字节数组读取时非 2xx 响应返回 null")
+    void getBytesNotFound() {
+        server.enqueue(new MockResponse().setResponseCode(404).setBody("not found"));
+        assertNull(HttpUtils.getBytes(server.url("/missing").toString()));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("按请求描述选择客户端配置")
+    void getWithProfile() {
+        HttpClientRegistry.register(new HttpClientProfile("fast").setReadTimeout(100, TimeUnit.MILLISECONDS));
+        try {
+            server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(1, TimeUnit.SECONDS));
+            server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+            String url = server.url("/slow").toString();
+            assertNull(HttpUtils.get(HttpRequestSpec.of(url).setProfile("fast")));
+            assertEquals("slow", HttpUtils.get(HttpRequestSpec.of(url)));
+            assertNull(HttpUtils.get(HttpRequestSpec.of(url).setProfile("missing")));
+            assertEquals(100, HttpClientRegistry.getClient("fast").readTimeoutMillis());
+        } finally {
+            HttpClientRegistry.remove("fast");
+        }
+    }
+
+    @Test
+    @DisplayName("内存缓存命中与条件请求重新验证")
+    void memoryCache() throws Exception {
+        HttpClientRegistry.register(new HttpClientProfile("cached").setMemoryCache(16, 1024));
+        try {
+            server.enqueue(new MockResponse().setBody("fresh").setHeader("Cache-Control", "max-age=60"));
+            server.enqueue(new MockResponse().setBody("etag").setHeader("Cache-Control", "no-cache")
+                    .setHeader("ETag", "\"v1\""));
+            server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+            HttpRequestSpec fresh = HttpRequestSpec.of(server.url("/fresh").toString()).setProfile("cached");
+            assertEquals("fresh", HttpUtils.get(fresh));
+            assertEquals("fresh", HttpUtils.get(fresh));
+            HttpRequestSpec etag = HttpRequestSpec.of(server.url("/etag").toString()).setProfile("cached");
+            assertEquals("etag", HttpUtils.get(etag));
+            assertEquals("etag", HttpUtils.get(etag));
+
+            assertEquals(3, server.getRequestCount());
+            server.takeRequest();
+            server.takeRequest();
+            assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+            HttpCacheStats stats = HttpClientRegistry.getCacheStats("cached");
+            assertEquals(1, stats.getMemoryHitCount());
+            assertEquals(1, stats.getRevalidatedCount());
+            assertEquals(2, stats.getNetworkCount());
+        } finally {
+            HttpClientRegistry.remove("cached");
+        }
+    }
+
+    @Test
+    @DisplayName("磁盘缓存命中")
+    void diskCache(@TempDir Path dir) {
+        HttpClientRegistry.register(new HttpClientProfile("disk").setDiskCache(dir, 1024 * 1024));
+        try {
+            server.enqueue(new MockResponse().setBody("disk").setHeader("Cache-Control", "max-age=60"));
+            HttpRequestSpec spec = HttpRequestSpec.of(server.url("/disk").toString()).setProfile("disk");
+            assertEquals("disk", HttpUtils.get(spec));
+            assertEquals("disk", HttpUtils.get(spec));
+            assertEquals(1, server.getRequestCount());
+            HttpCacheStats stats = HttpClientRegistry.getCacheStats("disk");
+            assertEquals(1, stats.getDiskHitCount());
+            assertNull(HttpClientRegistry.getCacheStats(null));
+        } finally {
+            HttpClientRegistry.remove("disk");
+        }
+    }
+
+    @Test
+    @DisplayName("并发的相同get请求合并为一次调用")
+    void coalesceGet() throws Exception {
+        HttpClientRegistry.register(new HttpClientProfile("coalesce").setCoalesceGet(true, "X-Tenant"));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            server.enqueue(new MockResponse().setBody("shared").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+            HttpRequestSpec spec = HttpRequestSpec.of(server.url("/hot").toString(), Map.of("k", "v"),
+                    Map.of("x-tenant", "t1")).setProfile("coalesce");
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(pool.submit(() -> HttpUtils.get(spec)));
+            }
+            for (Future<String> future : futures) {
+                assertEquals("shared", future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, server.getRequestCount());
+        } finally {
+            pool.shutdownNow();
+            HttpClientRegistry.remove("coalesce");
+        }
+    }
+
+    @Test
+    @DisplayName("按 host 统计各阶段耗时与连接复用")
+    void metrics() {
+        HttpClientRegistry.register(new HttpClientProfile("metrics"));
+        try {
+            server.enqueue(new MockResponse().setBody("m1"));
+            server.enqueue(new MockResponse().setBody("m2").setBodyDelay(50, TimeUnit.MILLISECONDS));
+            HttpRequestSpec spec = HttpRequestSpec.of(server.url("/m").toString()).setProfile("metrics");
+            assertEquals("m1", HttpUtils.get(spec));
+            assertEquals("m2", HttpUtils.get(spec));
+            HttpHostMetrics metrics = HttpClientRegistry.getMetrics("metrics").get(server.getHostName());
+            assertNotNull(metrics);
+            assertEquals(2, metrics.getCallCount());
+            assertEquals(0, metrics.getInFlight());
+            assertEquals(1, metrics.getNewConnectionCount());
+            assertEquals(0.5, metrics.getConnectionReuseRatio());
+            assertEquals(2, metrics.getLatency(HttpPhase.TOTAL).getCount());
+            assertEquals(1, metrics.getLatency(HttpPhase.CONNECT).getCount());
+            assertTrue(metrics.getLatency(HttpPhase.TOTAL).getMaxMicros() >= 50_000);
+        } finally {
+            HttpClientRegistry.remove("metrics");
+        }
+    }
+
+    @Test
+    @DisplayName("重复注册期间并发获取客户端不会失败")
+    void reRegisterConcurrently() throws Exception {
+        HttpClientRegistry.register(new HttpClientProfile("swap"));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger failures = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                try {
+                    assertNotNull(HttpClientRegistry.getClient("swap"));
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+        try {
+            for (int i = 0; i < 500; i++) {
+                HttpClientRegistry.register(new HttpClientProfile("swap").setMaxRequests(64 + i));
+            }
+        } finally {
+            running.set(false);
+            reader.join();
+            HttpClientRegistry.remove("swap");
+        }
+        assertEquals(0, failures.get());
+    }
+
+    @Test
+    @DisplayName("调用执行中重新注册同名配置，磁盘缓存不被提前关闭")
+    void reRegisterWithDiskCacheInFlight(@TempDir Path dir) throws Exception {
+        HttpClientRegistry.register(new HttpClientProfile("disk").setDiskCache(dir.resolve("a"), 1024 * 1024));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            HttpRequestSpec spec = HttpRequestSpec.of(server.url("/disk").toString()).setProfile("disk");
+            server.enqueue(new MockResponse().setBody("same").setHeader("Cache-Control", "max-age=60")
+                    .setHeadersDelay(300, TimeUnit.MILLISECONDS));
+            Future<String> same = executor.submit(() -> HttpUtils.get(spec));
+            Thread.sleep(100);
+            HttpClientRegistry.register(new HttpClientProfile("disk").setDiskCache(dir.resolve("a"), 1024 * 1024)
+                    .setReadTimeout(5, TimeUnit.SECONDS));
+            assertEquals("same", same.get());
+            // 目录不变时沿用同一缓存，执行中调用写入的缓存对新客户端可见
+            assertEquals("same", HttpUtils.get(spec));
+            assertEquals(1, server.getRequestCount());
+
+            server.enqueue(new MockResponse().setBody("moved").setHeader("Cache-Control", "max-age=60")
+                    .setHeadersDelay(300, TimeUnit.MILLISECONDS));
+            HttpRequestSpec moved = HttpRequestSpec.of(server.url("/moved").toString()).setProfile("disk");
+            Future<String> result = executor.submit(() -> HttpUtils.get(moved));
+            Thread.sleep(100);
+            HttpClientRegistry.register(new HttpClientProfile("disk").setDiskCache(dir.resolve("b"), 1024 * 1024));
+            // 目录变化时旧缓存在执行中的调用结束后才关闭
+            assertEquals("moved", result.get());
+        } finally {
+            executor.shutdownNow();
+            HttpClientRegistry.remove("disk");
+        }
+    }
+
+    @Test
+    @DisplayName("按状态码重试并受重试预算限制")
+    void retry() {
+        HttpClientRegistry.register(new HttpClientProfile("retry").setRetryPolicy(new HttpRetryPolicy()
+                .setMaxAttempts(3).setBackoff(1, 5, TimeUnit.MILLISECONDS, 2).setBudget(0, 2)));
+        try {
+            server.enqueue(new MockResponse().setResponseCode(503).setBody("busy"));
+            server.enqueue(new MockResponse().setBody("ok"));
+            HttpRequestSpec spec = HttpRequestSpec.of(server.url("/r").toString()).setProfile("retry");
+            assertEquals("ok", HttpUtils.get(spec));
+            assertEquals(2, server.getRequestCount());
+
+            // 预算只剩 1 个令牌，第二次重试被拒绝
+            server.enqueue(new MockResponse().setResponseCode(503).setBody("busy"));
+            server.enqueue(new MockResponse().setResponseCode(503).setBody("busy"));
+            assertEquals("busy", HttpUtils.get(spec));
+            assertEquals(4, server.getRequestCount());
+
+            // post 默认不重试
+            server.enqueue(new MockResponse().setResponseCode(503).setBody("busy"));
+            assertEquals("busy", HttpUtils.post(spec, "{}"));
+            assertEquals(5, server.getRequestCount());
+        } finally {
+            HttpClientRegistry.remove("retry");
+        }
+    }
+
+    @Test
+    @DisplayName("超过历史耗时分位时发出对冲请求")
+    void hedgeGet() throws Exception {
+        HttpClientRegistry.register(new HttpClientProfile("hedge").setRetryPolicy(new HttpRetryPolicy()
+                .setMaxAttempts(1).setBudget(1, 10).setHedgeGet(true, 0.95, 20, TimeUnit.MILLISECONDS)));
+        try {
+            HttpRequestSpec spec = HttpRequestSpec.of(server.url("/h").toString()).setProfile("hedge");
+            for (int i = 0; i < HttpRetryInterceptor.HEDGE_MIN_SAMPLES; i++) {
+                server.enqueue(new MockResponse().setBody("warm"));
+                assertEquals("warm", HttpUtils.get(spec));
+            }
+            server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(3, TimeUnit.SECONDS));
+            server.enqueue(new MockResponse().setBody("fast"));
+            long start = System.nanoTime();
+            assertEquals("fast", HttpUtils.get(spec));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+            // 被取消的落后请求不计入调用数与失败数
+            HttpHostMetrics metrics = HttpClientRegistry.getMetrics("hedge").get(server.getHostName());
+            for (int i = 0; i < 100 && metrics.getInFlight() > 0; i++) {
+                Thread.sleep(10);
+                metrics = HttpClientRegistry.getMetrics("hedge").get(server.getHostName());
+            }
+            assertEquals(0, metrics.getInFlight());
+            assertEquals(HttpRetryInterceptor.HEDGE_MIN_SAMPLES + 1, metrics.getCallCount());
+            assertEquals(0, metrics.getFailedCount());
+        } finally {
+            HttpClientRegistry.remove("hedge");
+        }
+    }
+
+    @Test
+    @DisplayName("失败率达到阈值后熔断，半开探测成功后恢复")
+    void circuitBreaker() throws Exception {
+        List<String> transitions = new ArrayList<>();
+        HttpClientRegistry.register(new HttpClientProfile("breaker").setCircuitBreakerPolicy(new HttpCircuitBreakerPolicy()
+                .setSlidingWindow(4, 4).setFailureRateThreshold(50).setOpenDuration(200, TimeUnit.MILLISECONDS)
+                .setHalfOpenProbes(1)
+                .setCallback((profile, host, from, to) -> transitions.add(from + "->" + to))));
+        try {
+            HttpRequestSpec spec = HttpRequestSpec.of(server.url("/cb").toString()).setProfile("breaker");
+            for (int i = 0; i < 2; i++) {
+                server.enqueue(new MockResponse().setBody("ok"));
+                server.enqueue(new MockResponse().setResponseCode(500).setBody("error"));
+            }
+            for (int i = 0; i < 4; i++) {
+                assertNotNull(HttpUtils.get(spec));
+            }
+            assertEquals(HttpCircuitState.OPEN, HttpClientRegistry.getCircuitStates("breaker").get(server.getHostName()));
+            assertNull(HttpUtils.get(spec));
+            assertEquals(4, server.getRequestCount());
+
+            Thread.sleep(300);
+            server.enqueue(new MockResponse().setBody("recovered"));
+            assertEquals("recovered", HttpUtils.get(spec));
+            assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+        } finally {
+            HttpClientRegistry.remove("breaker");
+        }
+    }
+
+    @Test
+    @DisplayName("舱壁限制单个 host 的并发调用")
+    void bulkhead() throws Exception {
+        HttpClientRegistry.register(new HttpClientProfile("bulkhead").setCircuitBreakerPolicy(new HttpCircuitBreakerPolicy()
+                .setBulkhead(1, 0, TimeUnit.MILLISECONDS)));
+        try {
+            server.enqueue(new MockResponse().setBody("first").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+            HttpRequestSpec spec = HttpRequestSpec.of(server.url("/bh").toString()).setProfile("bulkhead");
+            CompletableFuture<String> first = HttpUtils.getAsync(spec, null);
+            Thread.sleep(100);
+            CompletableFuture<String> second = HttpUtils.getAsync(spec, null);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(HttpBulkheadFullException.class, e.getCause());
+            assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        } finally {
+            HttpClientRegistry.remove("bulkhead");
+        }
+    }
+
+    @Test
+    @DisplayName("Json请求体直接序列化，响应直接解析为对象")
+    void json() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"name\":\"sxs\",\"unknown\":1}"));
+        server.enqueue(new MockResponse().setBody("[{\"name\":\"a\"},{\"name\":\"b\"}]"));
+        server.enqueue(new MockResponse().setBody("{\"name\":\"echo\"}"));
+        server.enqueue(new MockResponse().setResponseCode(500).setBody("{\"name\":\"error\"}"));
+        String url = server.url("/json").toString();
+
+        assertEquals("sxs", HttpUtils.getJson(url, Item.class).getName());
+        List<Item> items = HttpUtils.getJson(url, new TypeReference<List<Item>>() {
+        });
+        assertEquals(2, items.size());
+        assertEquals("b", items.get(1).getName());
+        Item body = new Item();
+        body.setName("req");
+        assertEquals("echo", HttpUtils.postJson(url, body, Item.class).getName());
+        assertNull(HttpUtils.getJson(url, Item.class));
+
+        server.takeRequest();
+        server.takeRequest();
+        RecordedRequest post = server.takeRequest();
+        assertEquals("{\"name\":\"req\"}", post.getBody().readUtf8());
+        assertEquals("application/json; charset=utf-8", post.getHeader("Content-Type"));
+    }
+
+    static class Item {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    @Test
+    @DisplayName("h2c 模式下并发请求复用同一条连接")
+    void h2c() throws Exception {
+        server.setProtocols(HttpProtocolMode.H2C.getProtocols());
+        HttpClientRegistry.register(new HttpClientProfile("h2c").setProtocolMode(HttpProtocolMode.H2C)
+                .setMaxRequestsPerHost(32));
+        try {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 17; i++) {
+                server.enqueue(new MockResponse().setBody("h2").setBodyDelay(20, TimeUnit.MILLISECONDS));
+            }
+            HttpRequestSpec spec = HttpRequestSpec.of(server.url("/h2").toString()).setProfile("h2c");
+            // 先建立连接，冷启动时并发请求会各自尝试建连
+            assertEquals("h2", HttpUtils.get(spec));
+            for (int i = 0; i < 16; i++) {
+                futures.add(HttpUtils.getAsync(spec, null));
+            }
+            for (CompletableFuture<String> future : futures) {
+                assertEquals("h2", future.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, HttpClientRegistry.getMetrics("h2c").get(server.getHostName()).getNewConnectionCount());
+            server.enqueue(new MockResponse().setBody("p"));
+            try (okhttp3.Response response = HttpClientRegistry.getClient("h2c")
+                    .newCall(new okhttp3.Request.Builder().url(server.url("/p")).build()).execute()) {
+                assertEquals(okhttp3.Protocol.H2_PRIOR_KNOWLEDGE, response.protocol());
+            }
+        } finally {
+            HttpClientRegistry.remove("h2c");
+        }
+    }
+
+    @Test
+    @DisplayName("超过阈值的请求体压缩发送并统计压缩率")
+    void requestCompression() throws Exception {
+        HttpClientRegistry.register(new HttpClientProfile("gzip").setRequestCompression(HttpContentEncoding.GZIP, 64));
+        try {
+            for (int i = 0; i < 3; i++) {
+                server.enqueue(new MockResponse().setBody("{\"name\":\"ok\"}"));
+            }
+            HttpRequestSpec spec = HttpRequestSpec.of(server.url("/z").toString()).setProfile("gzip");
+            List<Item> items = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Item item = new Item();
+                item.setName("item");
+                items.add(item);
+            }
+            Item small = new Item();
+            small.setName("s");
+            assertEquals("ok", HttpUtils.postJson(spec, items, Item.class).getName());
+            assertEquals("ok", HttpUtils.postJson(spec, small, Item.class).getName());
+            String json = com.suxiaoshuai.util.json.JsonUtil.toJson(items);
+            assertNotNull(HttpUtils.post(spec, json));
+
+            RecordedRequest large = server.takeRequest();
+            assertEquals("gzip", large.getHeader("Content-Encoding"));
+            assertEquals(json, okio.Okio.buffer(new okio.GzipSource(large.getBody())).readUtf8());
+            RecordedRequest plain = server.takeRequest();
+            assertNull(plain.getHeader("Content-Encoding"));
+            assertEquals("{\"name\":\"s\"}", plain.getBody().readUtf8());
+            assertEquals("gzip", server.takeRequest().getHeader("Content-Encoding"));
+
+            HttpCompressionStats stats = HttpClientRegistry.getCompressionStats("gzip");
+            assertEquals(2, stats.getCompressedCount());
+            assertEquals(1, stats.getSkippedCount());
+            assertEquals(json.length() * 2L, stats.getRawBytes());
+            assertTrue(stats.getRatio() < 0.2);
+            assertNull(HttpClientRegistry.getCompressionStats(null));
+        } finally {
+            HttpClientRegistry.remove("gzip");
+        }
+    }
+
+    @Test
+    @DisplayName("令牌桶限流：拒绝模式直接失败，异步请求延迟入队")
+    void rateLimit() throws Exception {
+        HttpClientRegistry.register(new HttpClientProfile("reject").setRateLimitPolicy(new HttpRateLimitPolicy()
+                .setRate(1, 2).setMode(HttpRateLimitMode.REJECT, 0, TimeUnit.MILLISECONDS)));
+        HttpClientRegistry.register(new HttpClientProfile("block").setRateLimitPolicy(new HttpRateLimitPolicy()
+                .setRate(20, 1)));
+        try {
+            for (int i = 0; i < 7; i++) {
+                server.enqueue(new MockResponse().setBody("ok"));
+            }
+            HttpRequestSpec reject = HttpRequestSpec.of(server.url("/l").toString()).setProfile("reject");
+            assertEquals("ok", HttpUtils.get(reject));
+            assertEquals("ok", HttpUtils.get(reject));
+            assertNull(HttpUtils.get(reject));
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> HttpUtils.getAsync(reject, null).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(HttpRateLimitedException.class, e.getCause());
+            assertEquals(2, server.getRequestCount());
+
+            HttpRequestSpec block = HttpRequestSpec.of(server.url("/l").toString()).setProfile("block");
+            long start = System.nanoTime();
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(HttpUtils.getAsync(block, null));
+            }
+            for (CompletableFuture<String> future : futures) {
+                assertEquals("ok", future.get(5, TimeUnit.SECONDS));
+            }
+            // 第一个请求立即发出，其余每隔 50ms 发出一个
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 190);
+            assertEquals(7, server.getRequestCount());
+        } finally {
+            HttpClientRegistry.remove("reject");
+            HttpClientRegistry.remove("block");
+        }
+    }
+
+    @Test
+    @DisplayName("限流拒绝不被重试")
+    void rateLimitRejectNotRetried() {
+        HttpClientRegistry.register(new HttpClientProfile("reject-retry")
+                .setRetryPolicy(new HttpRetryPolicy().setMaxAttempts(3).setBackoff(50, 50, TimeUnit.MILLISECONDS, 1))
+                .setRateLimitPolicy(new HttpRateLimitPolicy().setRate(1, 1)
+                        .setMode(HttpRateLimitMode.REJECT, 0, TimeUnit.MILLISECONDS)));
+        try {
+            server.enqueue(new MockResponse().setBody("ok"));
+            HttpRequestSpec spec = HttpRequestSpec.of(server.url("/rr").toString()).setProfile("reject-retry");
+            assertEquals("ok", HttpUtils.get(spec));
+            long start = System.nanoTime();
+            // 同步请求在拦截器中被拒绝，不经过退避等待，也没有再次访问网络
+            assertNull(HttpUtils.get(spec));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 50);
+            assertEquals(1, server.getRequestCount());
+        } finally {
+            HttpClientRegistry.remove("reject-retry");
+        }
+    }
+
+    @Test
+    @DisplayName("multipart 上传从文件、输入流与通道流式读取并回调进度")
+    void postMultipart(@TempDir Path dir) throws Exception {
+        byte[] data = new byte[1024 * 1024];
+        new Random(7).nextBytes(data);
+        Path file = Files.write(dir.resolve("data.bin"), data);
+        server.enqueue(new MockResponse().setBody("uploaded"));
+        List<long[]> progress = new ArrayList<>();
+        try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file)) {
+            HttpMultipartForm form = new HttpMultipartForm()
+                    .addField("desc", "files")
+                    .addFile("path", "a.bin", file, null)
+                    .addFile("stream", "b.bin", Files.newInputStream(file), data.length, "application/x-test")
+                    .addFile("channel", "c.bin", channel, null)
+                    .setProgressCallback((written, total) -> progress.add(new long[]{written, total}));
+            assertEquals("uploaded", HttpUtils.postMultipart(server.url("/upload").toString(), form));
+            assertEquals(0, channel.position());
+        }
+        RecordedRequest request = server.takeRequest();
+        assertTrue(request.getHeader("Content-Type").startsWith("multipart/form-data"));
+        long bodySize = request.getBodySize();
+        assertTrue(bodySize > 3L * data.length);
+        long[] last = progress.get(progress.size() - 1);
+        assertEquals(bodySize, last[0]);
+        assertEquals(bodySize, last[1]);
+        String body = request.getBody().readString(java.nio.charset.StandardCharsets.ISO_8859_1);
+        String content = new String(data, java.nio.charset.StandardCharsets.ISO_8859_1);
+        assertEquals(3, body.split(java.util.regex.Pattern.quote(content), -1).length - 1);
+        assertTrue(body.contains("Content-Type: application/x-test"));
+    }
+
+    @Test
+    @DisplayName("二进制响应按字节、池化缓冲区与分段回调返回，不做字符集解码")
+    void responseHandlers() throws Exception {
+        byte[] data = new byte[10_000];
+        new Random(3).nextBytes(data);
+        server.enqueue(new MockResponse().setBody(new Buffer().write(data)).setHeader("X-Id", "1"));
+        server.enqueue(new MockResponse().setChunkedBody(new Buffer().write(data), 1000));
+        server.enqueue(new MockResponse().setBody(new Buffer().write(data)));
+        server.enqueue(new MockResponse().setResponseCode(404).setBody("missing"));
+        HttpRequestSpec spec = HttpRequestSpec.of(server.url("/bin").toString());
+
+        HttpResult<byte[]> bytes = HttpUtils.get(spec, HttpResponseHandler.ofBytes());
+        assertArrayEquals(data, bytes.getBody());
+        assertEquals("1", bytes.getHeader("x-id"));
+        assertTrue(bytes.getReceivedResponseAtMillis() >= bytes.getSentRequestAtMillis());
+
+        HttpBufferPool pool = new HttpBufferPool(2);
+        HttpResult<java.nio.ByteBuffer> buffer = HttpUtils.get(spec, HttpResponseHandler.ofByteBuffer(pool));
+        byte[] read = new byte[buffer.getBody().remaining()];
+        buffer.getBody().get(read);
+        assertArrayEquals(data, read);
+        // 长度未知时从 4KB 扩容到 16KB，中间的缓冲区已归还
+        assertEquals(16 * 1024, buffer.getBody().capacity());
+        assertEquals(1, pool.pooledCount(4096));
+        assertEquals(1, pool.pooledCount(8192));
+        pool.release(buffer.getBody());
+        assertSame(buffer.getBody(), pool.acquire(10_000));
+
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+        HttpResult<Long> chunks = HttpUtils.get(spec, HttpResponseHandler.ofChunks(4096,
+                chunk -> out.write(chunk.array(), chunk.position(), chunk.remaining())));
+        assertEquals(data.length, chunks.getBody());
+        assertArrayEquals(data, out.toByteArray());
+
+        HttpResult<String> notFound = HttpUtils.get(spec, HttpResponseHandler.ofString());
+        assertEquals(404, notFound.getStatusCode());
+        assertFalse(notFound.isSuccess());
+        assertEquals("missing", notFound.getBody());
+
+        // 声明长度只用于不超过 64KB 的初始容量，更大的响应读取时扩容
+        byte[] large = new byte[100_000];
+        new Random(5).nextBytes(large);
+        server.enqueue(new MockResponse().setBody(new Buffer().write(large)));
+        HttpResult<java.nio.ByteBuffer> grown = HttpUtils.get(spec, HttpResponseHandler.ofByteBuffer(pool));
+        read = new byte[grown.getBody().remaining()];
+        grown.getBody().get(read);
+        assertArrayEquals(large, read);
+        assertEquals(1, pool.pooledCount(HttpResponseHandler.MAX_INITIAL_BUFFER_SIZE));
+    }
+
+    @Test
+    @DisplayName("预热为每个目标建立指定数量的空闲连接并报告就绪")
+    void warmUp() throws Exception {
+        HttpClientRegistry.register(new HttpClientProfile("warm").setKeepAlive(1, TimeUnit.MINUTES)
+                .setConnectTimeout(2, TimeUnit.SECONDS));
+        try {
+            for (int i = 0; i < 4; i++) {
+                server.enqueue(new MockResponse());
+            }
+            String target = server.getHostName() + ":" + server.getPort();
+            HttpWarmUpResult result = HttpClientRegistry.warmUp("warm", List.of(target), 4).get(10, TimeUnit.SECONDS);
+            assertTrue(result.isReady(), result.toString());
+            assertEquals(4, result.getConnections().get(target));
+            assertEquals(4, HttpClientRegistry.getClient("warm").connectionPool().idleConnectionCount());
+            assertEquals("HEAD", server.takeRequest().getMethod());
+
+            HttpWarmUpResult failed = HttpClientRegistry.warmUp("warm", List.of("localhost:1"), 2).get(10, TimeUnit.SECONDS);
+            assertFalse(failed.isReady());
+            assertEquals(0, failed.getConnections().get("localhost:1"));
+            assertTrue(failed.getFailures().containsKey("localhost:1"));
+        } finally {
+            HttpClientRegistry.remove("warm");
+        }
+    }
+
+    @Test
+    @DisplayName("游标与偏移量分页预取，消费慢时后台停止预取")
+    void pagination() throws Exception {
+        server.setDispatcher(new okhttp3.mockwebserver.Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                okhttp3.HttpUrl url = request.getRequestUrl();
+                if (url.encodedPath().equals("/cursor")) {
+                    int page = url.queryParameter("cursor") == null ? 0 : Integer.parseInt(url.queryParameter("cursor"));
+                    String next = page == 9 ? "null" : "\"" + (page + 1) + "\"";
+                    return new MockResponse().setBody("{\"items\":[" + page * 2 + "," + (page * 2 + 1) + "],\"next\":" + next + "}");
+                }
+                int offset = Integer.parseInt(url.queryParameter("offset"));
+                int limit = Integer.parseInt(url.queryParameter("limit"));
+                StringBuilder body = new StringBuilder("[");
+                for (int i = offset; i < Math.min(offset + limit, 25); i++) {
+                    body.append(i == offset ? "" : ",").append(i);
+                }
+                return new MockResponse().setBody(body.append(']').toString());
+            }
+        });
+        HttpPagination<Integer> cursor = HttpPagination.cursor(HttpRequestSpec.of(server.url("/cursor").toString()),
+                "cursor", body -> {
+                    Map<String, Object> map = com.suxiaoshuai.util.json.JsonUtil.parse(body,
+                            new TypeReference<Map<String, Object>>() {
+                            });
+                    @SuppressWarnings("unchecked")
+                    List<Integer> items = (List<Integer>) map.get("items");
+                    return HttpPage.of(items, (String) map.get("next"));
+                }).setPrefetch(1);
+        try (HttpPageIterator<Integer> iterator = cursor.iterator()) {
+            assertEquals(0, iterator.next());
+            Thread.sleep(300);
+            // 已消费 1 页，预取 1 页，另有 1 页在等待入队
+            assertEquals(3, server.getRequestCount());
+            int expected = 1;
+            while (iterator.hasNext()) {
+                assertEquals(expected++, iterator.next());
+            }
+            assertEquals(20, expected);
+            assertEquals(10, iterator.getFetchedPages());
+        }
+
+        HttpPagination<Integer> offset = HttpPagination.offset(HttpRequestSpec.of(server.url("/offset").toString()),
+                "offset", "limit", 10, body -> com.suxiaoshuai.util.json.JsonUtil.parse(body,
+                        new TypeReference<List<Integer>>() {
+                        }));
+        try (java.util.stream.Stream<Integer> stream = offset.stream()) {
+            assertEquals(300, stream.mapToInt(Integer::intValue).sum());
+        }
+        try (java.util.stream.Stream<Integer> stream = offset.setMaxPages(2).stream()) {
+            assertEquals(20, stream.count());
+        }
+    }
+
+    @Test
+    @DisplayName("响应体超过上限时中止读取，文本可截断")
+    void maxResponseBytes() {
+        HttpClientRegistry.register(new HttpClientProfile("abort").setMaxResponseBytes(1000, HttpResponseLimitMode.ABORT));
+        HttpClientRegistry.register(new HttpClientProfile("truncate")
+                .setMaxResponseBytes(1000, HttpResponseLimitMode.TRUNCATE));
+        try {
+            String large = "x".repeat(5000);
+            server.enqueue(new MockResponse().setBody(large));
+            server.enqueue(new MockResponse().setChunkedBody(large, 700));
+            server.enqueue(new MockResponse().setBody("small"));
+            server.enqueue(new MockResponse().setChunkedBody(large, 700));
+            server.enqueue(new MockResponse().setBody(large));
+            HttpRequestSpec abort = HttpRequestSpec.of(server.url("/big").toString()).setProfile("abort");
+            assertNull(HttpUtils.get(abort));
+            assertNull(HttpUtils.get(abort, HttpResponseHandler.ofBytes()));
+            assertEquals("small", HttpUtils.get(abort));
+            assertEquals(2, HttpClientRegistry.getResponseLimitStats("abort").getRejectedCount());
+
+            HttpRequestSpec truncate = HttpRequestSpec.of(server.url("/big").toString()).setProfile("truncate");
+            assertEquals(large.substring(0, 1000), HttpUtils.get(truncate));
+            assertNull(HttpUtils.get(truncate, HttpResponseHandler.ofBytes()));
+            HttpResponseLimitStats stats = HttpClientRegistry.getResponseLimitStats("truncate");
+            assertEquals(1, stats.getTruncatedCount());
+            assertEquals(1, stats.getRejectedCount());
+
+            // 截断发生在字符边界上，不留下半个多字节字符
+            server.enqueue(new MockResponse().setHeader("Content-Type", "text/plain; charset=utf-8")
+                    .setBody("中".repeat(500)));
+            assertEquals("中".repeat(333), HttpUtils.get(truncate));
+            server.enqueue(new MockResponse().setHeader("Content-Type", "text/plain; charset=GBK")
+                    .setBody(new okio.Buffer().write(new byte[]{'a'}).writeString("中".repeat(500),
+                            java.nio.charset.Charset.forName("GBK"))));
+            assertEquals("a" + "中".repeat(499), HttpUtils.get(truncate));
+            assertNull(HttpClientRegistry.getResponseLimitStats(null));
+        } finally {
+            HttpClientRegistry.remove("abort");
+            HttpClientRegistry.remove("truncate");
+        }
+    }
+
+    @Test
+    @DisplayName("截断模式下不按超过上限的声明长度预先分配缓冲区")
+    void maxResponseBytesDeclaredLength() {
+        HttpClientRegistry.register(new HttpClientProfile("truncate")
+                .setMaxResponseBytes(1000, HttpResponseLimitMode.TRUNCATE));
+        try {
+            HttpRequestSpec truncate = HttpRequestSpec.of(server.url("/big").toString()).setProfile("truncate");
+            server.enqueue(new MockResponse().setBody("x".repeat(5000)).setHeader("Content-Length", "2000000000"));
+            long[] declared = new long[1];
+            assertNull(HttpUtils.get(truncate, body -> {
+                declared[0] = body.contentLength();
+                return HttpResponseHandler.ofByteBuffer().handle(body);
+            }));
+            assertEquals(-1, declared[0]);
+            assertEquals(1, HttpClientRegistry.getResponseLimitStats("truncate").getRejectedCount());
+        } finally {
+            HttpClientRegistry.remove("truncate");
+        }
+    }
+
+    @Test
+    @DisplayName("小请求按数量、字节与时间合并发送，每个元素单独完成")
+    void microBatcher() throws Exception {
+        server.setDispatcher(new okhttp3.mockwebserver.Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                // 原样返回请求中的 Json 数组
+                return new MockResponse().setBody(request.getBody().clone().readUtf8())
+                        .setBodyDelay(request.getPath().equals("/slow") ? 500 : 0, TimeUnit.MILLISECONDS);
+            }
+        });
+        String url = server.url("/events").toString();
+        try (HttpMicroBatcher batcher = new HttpMicroBatcher().setFlushPolicy(100, 1024 * 1024, 50, TimeUnit.MILLISECONDS)) {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 250; i++) {
+                futures.add(batcher.submit(url, Map.of("id", i)));
+            }
+            for (int i = 0; i < 250; i++) {
+                assertEquals("{\"id\":" + i + "}", futures.get(i).get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(3, batcher.getBatchCount());
+            assertEquals(250, batcher.getItemCount());
+        }
+        assertEquals(3, server.getRequestCount());
+        RecordedRequest batch = server.takeRequest();
+        assertEquals("application/json; charset=utf-8", batch.getHeader("Content-Type"));
+        assertTrue(batch.getBody().readUtf8().matches("\\[\\{\"id\":\\d+}(,\\{\"id\":\\d+})*]"));
+
+        try (HttpMicroBatcher batcher = new HttpMicroBatcher().setFlushPolicy(100, 20, 1, TimeUnit.SECONDS)) {
+            CompletableFuture<String> first = batcher.submit(url, "\"0123456789\"");
+            CompletableFuture<String> second = batcher.submit(url, "\"abcdefghij\"");
+            // 字节数达到上限，第一个元素无需等待定时发送
+            assertEquals("0123456789", first.get(500, TimeUnit.MILLISECONDS));
+            assertFalse(second.isDone());
+        }
+
+        String slow = server.url("/slow").toString();
+        try (HttpMicroBatcher batcher = new HttpMicroBatcher().setFlushPolicy(1, 1024, 0, TimeUnit.MILLISECONDS)
+                .setBackpressure(2, 100, TimeUnit.MILLISECONDS)) {
+            CompletableFuture<String> a = batcher.submit(slow, 1);
+            CompletableFuture<String> b = batcher.submit(slow, 2);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> batcher.submit(slow, 3).get());
+            assertTrue(e.getCause().getMessage().contains("buffer is full"));
+            assertEquals("1", a.get(5, TimeUnit.SECONDS));
+            assertEquals("2", b.get(5, TimeUnit.SECONDS));
+            assertEquals("4", batcher.submit(slow, 4).get(5, TimeUnit.SECONDS));
+        }
+    }
+}
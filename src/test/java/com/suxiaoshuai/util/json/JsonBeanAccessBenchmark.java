@@ -0,0 +1,103 @@
+package com.suxiaoshuai.util.json;
+
+import com.suxiaoshuai.util.json.JsonUtilBenchmark.Order;
+import com.suxiaoshuai.util.json.JsonUtilBenchmark.OrderItem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 反射与 Blackbird 属性访问方式的 JMH 对比基准，两种方式分别在独立的 JVM 中执行，默认不执行
+ * 执行方式：mvn test -Dtest=JsonBeanAccessBenchmark -Dsxs.benchmark=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@EnabledIfSystemProperty(named = "sxs.benchmark", matches = "true")
+public class JsonBeanAccessBenchmark {
+
+    private static final JsonCodec<Order> ORDER = JsonUtil.codec(Order.class);
+
+    private Order order;
+
+    private OrderItem item;
+
+    private List<Order> orders;
+
+    private String orderJson;
+
+    private String itemJson;
+
+    @Setup
+    public void setUp() {
+        String expected = System.getProperty(JsonUtil.BEAN_ACCESS_PROPERTY, JsonBeanAccessMode.REFLECTION.name());
+        assertEquals(JsonBeanAccessMode.valueOf(expected.toUpperCase(Locale.ROOT)), JsonUtil.getBeanAccessMode());
+        order = Order.sample(1);
+        item = order.getItems().get(0);
+        orders = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            orders.add(Order.sample(i));
+        }
+        orderJson = JsonUtil.toJson(order);
+        itemJson = JsonUtil.toJson(item);
+    }
+
+    @Benchmark
+    public String toJsonItem() {
+        return JsonUtil.toJson(item);
+    }
+
+    @Benchmark
+    public String toJsonOrder() {
+        return ORDER.toJson(order);
+    }
+
+    @Benchmark
+    public String toJsonOrderList() {
+        return JsonUtil.toJson(orders);
+    }
+
+    @Benchmark
+    public OrderItem parseItem() {
+        return JsonUtil.parse(itemJson, OrderItem.class);
+    }
+
+    @Benchmark
+    public Order parseOrder() {
+        return ORDER.parse(orderJson);
+    }
+
+    @Test
+    @DisplayName("反射 vs Blackbird 属性访问")
+    void run() throws RunnerException {
+        for (JsonBeanAccessMode mode : JsonBeanAccessMode.values()) {
+            System.out.println("==== " + mode);
+            new Runner(new OptionsBuilder().include(JsonBeanAccessBenchmark.class.getName() + ".*")
+                    .jvmArgsAppend("-D" + JsonUtil.BEAN_ACCESS_PROPERTY + "=" + mode.name().toLowerCase(Locale.ROOT))
+                    .build()).run();
+        }
+    }
+}
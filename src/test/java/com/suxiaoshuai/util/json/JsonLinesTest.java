@@ -0,0 +1,167 @@
+package com.suxiaoshuai.util.json;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JSON Lines读写测试")
+class JsonLinesTest {
+
+    @TempDir
+    Path tempDir;
+
+    static class Event {
+        private int id;
+        private String payload;
+
+        public Event() {
+        }
+
+        Event(int id, String payload) {
+            this.id = id;
+            this.payload = payload;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+
+        public void setPayload(String payload) {
+            this.payload = payload;
+        }
+    }
+
+    private static List<Event> events(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Event(i, "line\n" + "x".repeat(i % 50)))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("测试有序读写文件")
+    void testOrderedFile() throws IOException {
+        Path file = tempDir.resolve("events.ndjson");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            try (JsonLinesWriter writer = JsonLinesWriter.open(file).setPool(pool)) {
+                writer.writeAll(events(5000));
+                assertEquals(5000, writer.getLineCount());
+            }
+            assertEquals(5000, Files.readAllLines(file).size());
+
+            List<Event> read = new JsonLinesReader<>(Event.class).setPool(pool).setChunkSize(1024).readAll(file);
+            assertEquals(5000, read.size());
+            for (int i = 0; i < read.size(); i++) {
+                assertEquals(i, read.get(i).getId());
+            }
+            assertEquals("line\nxxx", read.get(3).getPayload());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("测试无序读取")
+    void testUnordered() throws IOException {
+        Path file = tempDir.resolve("unordered.ndjson");
+        try (JsonLinesWriter writer = JsonLinesWriter.open(file)) {
+            writer.writeAll(events(3000));
+        }
+        JsonLinesReader<Event> reader = new JsonLinesReader<>(Event.class).setOrdered(false).setChunkSize(512);
+        List<Integer> ids = reader.readAll(file).stream().map(Event::getId).sorted().collect(Collectors.toList());
+        assertEquals(IntStream.range(0, 3000).boxed().collect(Collectors.toList()), ids);
+
+        AtomicInteger count = new AtomicInteger();
+        reader.forEach(file, e -> count.incrementAndGet());
+        assertEquals(3000, count.get());
+    }
+
+    @Test
+    @DisplayName("测试输入流：跨分块长行、空行、无效行")
+    void testStream() throws IOException {
+        String longValue = "v".repeat(5000);
+        String content = "{\"id\":1}\r\n\n  \n{\"id\":2,\"payload\":\"" + longValue + "\"}\nnot json\n{\"id\":3}";
+        JsonLinesReader<Event> reader = new JsonLinesReader<>(Event.class).setChunkSize(64);
+        List<Event> read = reader.readAll(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(List.of(1, 2, 3), read.stream().map(Event::getId).collect(Collectors.toList()));
+        assertEquals(longValue, read.get(1).getPayload());
+        assertEquals(1, reader.getInvalidLineCount());
+
+        List<Event> fromBytes = reader.readAll(content.getBytes(StandardCharsets.UTF_8));
+        assertEquals(3, fromBytes.size());
+        assertEquals(0, new JsonLinesReader<>(Map.class).readAll(new byte[0]).size());
+    }
+
+    @Test
+    @DisplayName("测试多线程并发写入同一通道")
+    void testConcurrentWrite() throws Exception {
+        Path file = tempDir.resolve("concurrent.ndjson");
+        try (JsonLinesWriter writer = JsonLinesWriter.open(file)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int base = t * 1000;
+                Thread thread = new Thread(() -> IntStream.range(base, base + 1000)
+                        .forEach(i -> writer.writeQuietly(new Event(i, "p" + i))));
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(8000, writer.getLineCount());
+        }
+        List<Event> read = new JsonLinesReader<>(Event.class).readAll(file);
+        assertEquals(8000, read.size());
+        assertEquals(8000, read.stream().map(Event::getId).distinct().count());
+        read.forEach(e -> assertEquals("p" + e.getId(), e.getPayload()));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "sxs.benchmark", matches = "true")
+    @DisplayName("解析吞吐随并行度变化")
+    void benchmarkParallelism() throws IOException {
+        Path file = tempDir.resolve("bench.ndjson");
+        try (JsonLinesWriter writer = JsonLinesWriter.open(file)) {
+            writer.writeAll(events(2_000_000));
+        }
+        long size = Files.size(file);
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int parallelism = 1; parallelism <= cores; parallelism *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                JsonLinesReader<Event> reader = new JsonLinesReader<>(Event.class).setPool(pool).setOrdered(false);
+                reader.readAll(file);
+                long start = System.nanoTime();
+                int count = reader.readAll(file).size();
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("parallelism=%d lines=%d %.1f MB/s%n", parallelism, count, size / seconds / (1 << 20));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.suxiaoshuai.util.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonUtil 缓存编解码器与直接调用 ObjectMapper 的 JMH 对比基准，默认不执行
+ * 执行方式：mvn test -Dtest=JsonUtilBenchmark -Dsxs.benchmark=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@EnabledIfSystemProperty(named = "sxs.benchmark", matches = "true")
+public class JsonUtilBenchmark {
+
+    private static final JsonCodec<Order> ORDER = JsonUtil.codec(Order.class);
+
+    private ObjectMapper mapper;
+
+    private Order order;
+
+    private String orderJson;
+
+    private String itemsJson;
+
+    @Setup
+    public void setUp() {
+        mapper = JsonUtil.mapper();
+        order = Order.sample(1);
+        orderJson = JsonUtil.toJson(order);
+        itemsJson = JsonUtil.toJson(order.getItems());
+    }
+
+    @Benchmark
+    public Order parseMapper() throws Exception {
+        return mapper.readValue(orderJson, Order.class);
+    }
+
+    @Benchmark
+    public Order parseJsonUtil() {
+        return JsonUtil.parse(orderJson, Order.class);
+    }
+
+    @Benchmark
+    public Order parseCodec() {
+        return ORDER.parse(orderJson);
+    }
+
+    @Benchmark
+    public List<OrderItem> toListMapper() throws Exception {
+        return mapper.readValue(itemsJson, mapper.getTypeFactory().constructCollectionType(List.class, OrderItem.class));
+    }
+
+    @Benchmark
+    public List<OrderItem> toListJsonUtil() {
+        return JsonUtil.toList(itemsJson, OrderItem.class);
+    }
+
+    @Benchmark
+    public String toJsonMapper() throws Exception {
+        return mapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    public String toJsonCodec() {
+        return ORDER.toJson(order);
+    }
+
+    @Test
+    @DisplayName("JsonUtil 缓存编解码器 vs ObjectMapper")
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder().include(JsonUtilBenchmark.class.getName() + ".*").build()).run();
+    }
+
+    /**
+     * 贴近业务的订单 DTO：数值、金额、日期、枚举式字符串、嵌套列表与 Map
+     */
+    public static class Order {
+        private long id;
+        private long userId;
+        private String orderNo;
+        private String status;
+        private BigDecimal amount;
+        private Date createdAt;
+        private boolean paid;
+        private List<OrderItem> items;
+        private Map<String, String> attributes;
+
+        public static Order sample(long id) {
+            Order order = new Order();
+            order.setId(id);
+            order.setUserId(10_000 + id);
+            order.setOrderNo("SO202601010000" + id);
+            order.setStatus("PAID");
+            order.setAmount(new BigDecimal("1299.90"));
+            order.setCreatedAt(new Date(1_767_225_600_000L));
+            order.setPaid(true);
+            List<OrderItem> items = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                OrderItem item = new OrderItem();
+                item.setSku("SKU-" + i);
+                item.setName("商品" + i);
+                item.setQuantity(i + 1);
+                item.setPrice(new BigDecimal("259.98"));
+                items.add(item);
+            }
+            order.setItems(items);
+            Map<String, String> attributes = new LinkedHashMap<>();
+            attributes.put("channel", "app");
+            attributes.put("coupon", "NEWUSER");
+            order.setAttributes(attributes);
+            return order;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(long userId) {
+            this.userId = userId;
+        }
+
+        public String getOrderNo() {
+            return orderNo;
+        }
+
+        public void setOrderNo(String orderNo) {
+            this.orderNo = orderNo;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public Date getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(Date createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        public boolean isPaid() {
+            return paid;
+        }
+
+        public void setPaid(boolean paid) {
+            this.paid = paid;
+        }
+
+        public List<OrderItem> getItems() {
+            return items;
+        }
+
+        public void setItems(List<OrderItem> items) {
+            this.items = items;
+        }
+
+        public Map<String, String> getAttributes() {
+            return attributes;
+        }
+
+        public void setAttributes(Map<String, String> attributes) {
+            this.attributes = attributes;
+        }
+    }
+
+    public static class OrderItem {
+        private String sku;
+        private String name;
+        private int quantity;
+        private BigDecimal price;
+
+        public String getSku() {
+            return sku;
+        }
+
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.suxiaoshuai.util.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Json工具类测试")
+class JsonUtilTest {
+
+    static class Item {
+        private int id;
+        private String name;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    private static InputStream input(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nested
+    @DisplayName("流式读取Json数组测试")
+    class StreamTest {
+        @Test
+        @DisplayName("测试读取对象数组")
+        void testStreamArray() {
+            try (Stream<Item> stream = JsonUtil.stream(input("[{\"id\":1,\"name\":\"a\"},{\"id\":2,\"name\":\"b\",\"extra\":true}]"), Item.class)) {
+                List<Item> items = stream.collect(Collectors.toList());
+                assertEquals(2, items.size());
+                assertEquals(1, items.get(0).getId());
+                assertEquals("b", items.get(1).getName());
+            }
+        }
+
+        @Test
+        @DisplayName("测试空数组与空输入")
+        void testEmpty() {
+            assertEquals(0, JsonUtil.stream(input("[]"), Item.class).count());
+            assertEquals(0, JsonUtil.stream(input(""), Item.class).count());
+            assertFalse(JsonUtil.iterator(null, Item.class).hasNext());
+        }
+
+        @Test
+        @DisplayName("测试连续的多个Json值")
+        void testValueSequence() {
+            Iterator<Item> it = JsonUtil.iterator(input("{\"id\":1} {\"id\":2}\n{\"id\":3}"), Item.class);
+            int sum = 0;
+            while (it.hasNext()) {
+                sum += it.next().getId();
+            }
+            assertEquals(6, sum);
+        }
+
+        @Test
+        @DisplayName("测试泛型元素类型")
+        void testTypeReference() {
+            List<Map<String, List<Integer>>> list = JsonUtil.stream(input("[{\"a\":[1,2]},{\"b\":[3]}]"),
+                    new TypeReference<Map<String, List<Integer>>>() {
+                    }).collect(Collectors.toList());
+            assertEquals(2, list.size());
+            assertEquals(Integer.valueOf(3), list.get(1).get("b").get(0));
+        }
+
+        @Test
+        @DisplayName("测试惰性读取：只消费取到的元素所需的输入")
+        void testLazy() {
+            AtomicInteger opened = new AtomicInteger();
+            // 每个元素由独立的输入流提供，读取到哪个元素才会打开对应的输入流
+            Iterator<InputStream> parts = IntStream.range(0, 100_000).mapToObj(i -> {
+                String part = (i == 0 ? "[" : ",") + "{\"id\":" + i + "}";
+                return (InputStream) new ByteArrayInputStream(part.getBytes(StandardCharsets.UTF_8)) {
+                    @Override
+                    public synchronized int read(byte[] b, int off, int len) {
+                        if (pos == 0) {
+                            opened.incrementAndGet();
+                        }
+                        return super.read(b, off, len);
+                    }
+                };
+            }).iterator();
+            InputStream in = new SequenceInputStream(new Enumeration<InputStream>() {
+                @Override
+                public boolean hasMoreElements() {
+                    return parts.hasNext();
+                }
+
+                @Override
+                public InputStream nextElement() {
+                    return parts.next();
+                }
+            });
+            try (Stream<Item> stream = JsonUtil.stream(in, Item.class)) {
+                assertEquals(List.of(0, 1, 2), stream.limit(3).map(Item::getId).collect(Collectors.toList()));
+            }
+            assertTrue(opened.get() < 10_000, "opened " + opened.get());
+        }
+
+        @Test
+        @DisplayName("测试关闭流不关闭输入流")
+        void testCloseKeepsInput() throws IOException {
+            AtomicInteger closed = new AtomicInteger();
+            InputStream in = new ByteArrayInputStream("[1,2,3]".getBytes(StandardCharsets.UTF_8)) {
+                @Override
+                public void close() throws IOException {
+                    closed.incrementAndGet();
+                    super.close();
+                }
+            };
+            try (Stream<Integer> stream = JsonUtil.stream(in, Integer.class)) {
+                assertEquals(6, stream.mapToInt(Integer::intValue).sum());
+            }
+            assertEquals(0, closed.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("字节、流、通道读写测试")
+    class ByteIoTest {
+        private final String json = "{\"id\":7,\"name\":\"张三\",\"unknown\":1}";
+        private final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        @Test
+        @DisplayName("测试各类输入解析结果一致")
+        void testSources(@TempDir Path dir) throws IOException {
+            Path file = Files.write(dir.resolve("item.json"), bytes);
+            byte[] padded = ("xx" + json + "yy").getBytes(StandardCharsets.UTF_8);
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+            List<Item> items = List.of(
+                    JsonUtil.parse(bytes, Item.class),
+                    JsonUtil.parse(padded, 2, bytes.length, Item.class),
+                    JsonUtil.parse(new StringReader(json), Item.class),
+                    JsonUtil.parse(ByteBuffer.wrap(padded, 2, bytes.length), Item.class),
+                    JsonUtil.parse(direct, Item.class),
+                    JsonUtil.parse(file, Item.class));
+            for (Item item : items) {
+                assertEquals(7, item.getId());
+                assertEquals("张三", item.getName());
+            }
+            assertEquals(0, direct.position());
+            assertEquals(json, JsonUtil.parse(bytes, String.class));
+            assertEquals(json, JsonUtil.parse(direct, String.class));
+            Map<String, Object> map = JsonUtil.parse(bytes, new TypeReference<Map<String, Object>>() {
+            });
+            assertEquals(1, map.get("unknown"));
+        }
+
+        @Test
+        @DisplayName("测试集合与Map")
+        void testCollections() {
+            byte[] array = "[{\"id\":1},{\"id\":2}]".getBytes(StandardCharsets.UTF_8);
+            assertEquals(2, JsonUtil.toList(array, Item.class).size());
+            assertEquals(2, JsonUtil.toList(new ByteArrayInputStream(array), Item.class).get(1).getId());
+            assertEquals("张三", JsonUtil.toStrKeyMap(bytes).get("name"));
+            assertEquals(7, JsonUtil.toStrKeyMap(new ByteArrayInputStream(bytes)).get("id"));
+        }
+
+        @Test
+        @DisplayName("测试无效输入返回默认值")
+        void testInvalid() {
+            byte[] broken = "{\"id\":".getBytes(StandardCharsets.UTF_8);
+            assertNull(JsonUtil.parse(broken, Item.class));
+            assertNull(JsonUtil.parse(new byte[0], Item.class));
+            assertNull(JsonUtil.parse(ByteBuffer.allocate(0), Item.class));
+            assertNull(JsonUtil.parse(Path.of("not-exists.json"), Item.class));
+            assertTrue(JsonUtil.toList(broken, Item.class).isEmpty());
+            assertTrue(JsonUtil.toStrKeyMap(broken).isEmpty());
+        }
+
+        @Test
+        @DisplayName("测试写入字节数组与通道")
+        void testWriters() throws IOException {
+            Item item = JsonUtil.parse(bytes, Item.class);
+            byte[] out = JsonUtil.toJsonBytes(item);
+            assertEquals(JsonUtil.toJson(item), new String(out, StandardCharsets.UTF_8));
+            assertNull(JsonUtil.toJsonBytes(null));
+
+            ByteArrayOutputStream sink = new ByteArrayOutputStream();
+            WritableByteChannel channel = Channels.newChannel(sink);
+            JsonUtil.toJson(item, channel);
+            assertTrue(channel.isOpen());
+            assertArrayEquals(out, sink.toByteArray());
+        }
+    }
+
+    @Nested
+    @DisplayName("类型编解码器测试")
+    class CodecTest {
+        @Test
+        @DisplayName("测试同一类型复用同一编解码器")
+        void testCached() {
+            assertSame(JsonUtil.codec(Item.class), JsonUtil.codec(Item.class));
+            JsonCodec<List<Item>> a = JsonUtil.codec(new TypeReference<List<Item>>() {
+            });
+            JsonCodec<List<Item>> b = JsonUtil.codec(new TypeReference<List<Item>>() {
+            });
+            assertSame(a, b);
+        }
+
+        @Test
+        @DisplayName("测试编解码")
+        void testRoundTrip() throws IOException {
+            JsonCodec<Item> codec = JsonUtil.codec(Item.class);
+            Item item = codec.parse("{\"id\":3,\"name\":\"c\",\"unknown\":0}");
+            assertEquals(3, item.getId());
+            String json = codec.toJson(item);
+            assertEquals(JsonUtil.toJson(item), json);
+            assertEquals("c", codec.parse(json.getBytes(StandardCharsets.UTF_8)).getName());
+            assertEquals("c", codec.parse(new ByteArrayInputStream(codec.toJsonBytes(item))).getName());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            codec.toJson(item, out);
+            assertEquals(json, out.toString(StandardCharsets.UTF_8));
+
+            List<Item> items = JsonUtil.codec(new TypeReference<List<Item>>() {
+            }).parse("[{\"id\":1},{\"id\":2}]");
+            assertEquals(2, items.get(1).getId());
+        }
+
+        @Test
+        @DisplayName("测试String值与JsonUtil一致按原样处理")
+        void testRawString() throws IOException {
+            JsonCodec<String> codec = JsonUtil.codec(String.class);
+            String json = "{\"id\":1}";
+            assertEquals(JsonUtil.toJson(json), codec.toJson(json));
+            assertEquals(json, codec.toJson(json));
+            assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), codec.toJsonBytes(json));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            codec.toJson(json, out);
+            assertEquals(json, out.toString(StandardCharsets.UTF_8));
+            assertEquals(JsonUtil.parse(json, String.class), codec.parse(json));
+            assertEquals(json, codec.parse(json.getBytes(StandardCharsets.UTF_8)));
+            assertEquals(json, codec.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+        }
+
+        @Test
+        @DisplayName("测试普通类型的JavaType与Class共用缓存")
+        void testSimpleJavaType() {
+            assertSame(JsonUtil.codec(Item.class), JsonUtil.codec(JsonUtil.mapper().constructType(Item.class)));
+        }
+
+        @Test
+        @DisplayName("测试默认属性访问方式")
+        void testDefaultBeanAccess() {
+            assertEquals(JsonBeanAccessMode.REFLECTION, JsonUtil.getBeanAccessMode());
+        }
+
+        @Test
+        @DisplayName("测试无效输入返回null")
+        void testInvalid() {
+            JsonCodec<Item> codec = JsonUtil.codec(Item.class);
+            assertNull(codec.parse("{"));
+            assertNull(codec.parse(""));
+            assertNull(codec.parse((byte[]) null));
+            assertNull(codec.toJson(null));
+        }
+    }
+}